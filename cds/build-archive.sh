@@ -0,0 +1,28 @@
+#!/bin/sh
+# Construit le jar de l'application et une archive de partage de classes (AppCDS)
+# entraînée sur le mode sans interface. À lancer depuis la racine du dépôt.
+#
+# Utilisation de l'archive :
+#   java -XX:SharedArchiveFile=bin/puissance4.jsa -jar bin/puissance4.jar --headless - [threads] [profondeur]
+set -e
+
+BIN=bin
+CLASSES=$BIN/classes
+JAR=$BIN/puissance4.jar
+ARCHIVE=$BIN/puissance4.jsa
+
+rm -rf "$CLASSES"
+mkdir -p "$CLASSES"
+javac -encoding UTF-8 -d "$CLASSES" $(find src -name '*.java')
+
+# Tables précalculées du moteur, chargées depuis le classpath.
+(cd src && find . -name '*.bin' -exec cp --parents {} "../$CLASSES" \;)
+
+# L'archive n'accepte que des jars dans le classpath, pas des répertoires.
+jar --create --file "$JAR" --main-class Puissance4.Main -C "$CLASSES" .
+
+# Exécution d'entraînement : les classes chargées sont archivées à la sortie de la JVM.
+(cat cds/training-positions.txt; echo) \
+    | java -XX:ArchiveClassesAtExit="$ARCHIVE" -jar "$JAR" --headless - 1 3 > /dev/null
+
+echo "Archive créée : $ARCHIVE"
@@ -0,0 +1,154 @@
+/**
+ * @file VectorBatchEvaluator.java
+ * @brief Implémentation vectorielle (SIMD) de l'évaluation par lots.
+ *
+ * Compilée à part, après les sources de src, car elle nécessite le module incubateur de l'API
+ * Vector : javac --add-modules jdk.incubator.vector -cp bin -d bin src-vector/Puissance4/VectorBatchEvaluator.java.
+ * À l'exécution, sans la classe ou sans --add-modules jdk.incubator.vector, BatchEvaluator.create()
+ * se replie sur ScalarBatchEvaluator.
+ */
+
+package Puissance4;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * @class VectorBatchEvaluator
+ * @brief Évalue autant de positions que le registre SIMD a de voies entières, en parallèle.
+ *
+ * Les masques du lot sont d'abord décomposés en plans de bits : pour chaque case, un vecteur
+ * contenant 0 ou 1 par position. L'évaluation parcourt ensuite les mêmes cases et rayons que
+ * l'implémentation scalaire, mais chaque opération traite une position par voie : 8 positions
+ * à la fois avec AVX2, 16 avec AVX-512. Les positions restantes en fin de lot sont évaluées en scalaire.
+ * N'est pas sûre pour un usage concurrent : chaque thread utilise sa propre instance.
+ */
+public class VectorBatchEvaluator extends BatchEvaluator {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED; ///< Largeur SIMD native.
+    private static final int LANES = SPECIES.length(); ///< Nombre de positions par vecteur.
+
+    private final int[] low = new int[LANES]; ///< 32 bits de poids faible des masques d'un groupe.
+    private final int[] high = new int[LANES]; ///< Bits de poids fort des masques d'un groupe.
+    private final int[] xPlanes = new int[Lines.CELL_COUNT * LANES]; ///< Plans de bits des pions 'X', une ligne de LANES valeurs par case.
+    private final int[] oPlanes = new int[Lines.CELL_COUNT * LANES]; ///< Plans de bits des pions 'O', une ligne de LANES valeurs par case.
+
+    /**
+     * @brief Évalue un lot de positions, LANES à la fois.
+     * @param xMasks Masques des pions 'X'.
+     * @param oMasks Masques des pions 'O'.
+     * @param count Nombre de positions à évaluer (depuis l'indice 0).
+     * @param scores Tableau recevant le score de chaque position.
+     */
+    @Override
+    public void evaluate(long[] xMasks, long[] oMasks, int count, int[] scores) {
+        int i = 0;
+        for (; i + LANES <= count; i += LANES) {
+            splitPlanes(xMasks, i, xPlanes);
+            splitPlanes(oMasks, i, oPlanes);
+            evaluateGroup().intoArray(scores, i);
+        }
+        for (; i < count; i++) {
+            scores[i] = evaluate(xMasks[i], oMasks[i]);
+        }
+    }
+
+    /**
+     * @brief Décompose LANES masques consécutifs en un plan de bits par case.
+     * @param masks Les masques.
+     * @param offset L'indice du premier masque du groupe.
+     * @param planes Le tableau recevant les plans.
+     */
+    private void splitPlanes(long[] masks, int offset, int[] planes) {
+        for (int lane = 0; lane < LANES; lane++) {
+            low[lane] = (int) masks[offset + lane];
+            high[lane] = (int) (masks[offset + lane] >>> 32);
+        }
+        IntVector lowBits = IntVector.fromArray(SPECIES, low, 0);
+        IntVector highBits = IntVector.fromArray(SPECIES, high, 0);
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            IntVector source = cell < 32 ? lowBits : highBits;
+            source.lanewise(VectorOperators.LSHR, cell & 31).and(1).intoArray(planes, cell * LANES);
+        }
+    }
+
+    /**
+     * @brief Évalue le groupe dont les plans de bits sont chargés.
+     * @return Le score de chaque position du groupe.
+     */
+    private IntVector evaluateGroup() {
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector total = zero;
+
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            VectorMask<Integer> empty = plane(xPlanes, cell).or(plane(oPlanes, cell)).eq(0);
+            if (!empty.anyTrue()) {
+                continue;
+            }
+
+            IntVector cellScore = IntVector.broadcast(SPECIES, CENTER_BONUS[cell]);
+            for (int dir = 0; dir < DIRECTIONS; dir++) {
+                IntVector lengthO = zero;
+                IntVector lengthX = zero;
+                for (int side = 0; side < 2; side++) {
+                    // Une voie reste active tant qu'aucun pion adverse n'a été rencontré dans ce sens.
+                    IntVector aliveO = IntVector.broadcast(SPECIES, 1);
+                    IntVector aliveX = aliveO;
+                    for (int other : RAYS[(cell * DIRECTIONS + dir) * 2 + side]) {
+                        IntVector x = plane(xPlanes, other);
+                        IntVector o = plane(oPlanes, other);
+                        aliveO = aliveO.and(x.lanewise(VectorOperators.XOR, 1));
+                        aliveX = aliveX.and(o.lanewise(VectorOperators.XOR, 1));
+                        lengthO = lengthO.add(aliveO.and(o));
+                        lengthX = lengthX.add(aliveX.and(x));
+                    }
+                }
+                cellScore = cellScore.add(lineScore(lengthO)).sub(lineScore(lengthX).mul(HUMAN_WEIGHT));
+            }
+            total = total.add(cellScore, empty);
+        }
+
+        // Victoires : prioritaires sur l'évaluation, celle de l'IA d'abord.
+        IntVector winX = zero;
+        IntVector winO = zero;
+        for (int[] window : Lines.WINDOWS) {
+            winX = winX.or(plane(xPlanes, window[0]).and(plane(xPlanes, window[1]))
+                    .and(plane(xPlanes, window[2])).and(plane(xPlanes, window[3])));
+            winO = winO.or(plane(oPlanes, window[0]).and(plane(oPlanes, window[1]))
+                    .and(plane(oPlanes, window[2])).and(plane(oPlanes, window[3])));
+        }
+        return total.blend(-WIN_SCORE, winX.eq(1)).blend(WIN_SCORE, winO.eq(1));
+    }
+
+    /**
+     * @brief Charge le plan de bits d'une case.
+     * @param planes Les plans d'un joueur.
+     * @param cell La case.
+     * @return Un vecteur contenant 1 pour les positions où le joueur occupe la case, 0 sinon.
+     */
+    private static IntVector plane(int[] planes, int cell) {
+        return IntVector.fromArray(SPECIES, planes, cell * LANES);
+    }
+
+    /**
+     * @brief Convertit un nombre de pions alignés en score (LINE_SCORES), voie par voie.
+     * @param length Le nombre de pions alignés de chaque position.
+     * @return Le score de chaque position.
+     */
+    private static IntVector lineScore(IntVector length) {
+        return IntVector.zero(SPECIES)
+                .blend(LINE_SCORES[1], length.eq(1))
+                .blend(LINE_SCORES[2], length.eq(2))
+                .blend(LINE_SCORES[3], length.eq(3));
+    }
+
+    /**
+     * @brief Décrit l'implémentation.
+     * @return Le nom et la largeur SIMD utilisée.
+     */
+    @Override
+    public String getName() {
+        return "vectorielle (" + LANES + " voies)";
+    }
+}
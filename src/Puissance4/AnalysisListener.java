@@ -0,0 +1,21 @@
+/**
+ * @file AnalysisListener.java
+ * @brief Définition de l'interface AnalysisListener pour suivre une analyse en cours.
+ */
+
+package Puissance4;
+
+/**
+ * @interface AnalysisListener
+ * @brief Reçoit les résultats intermédiaires d'une analyse par approfondissement itératif.
+ *
+ * Les méthodes sont appelées depuis le thread qui exécute l'analyse.
+ */
+public interface AnalysisListener {
+
+    /**
+     * @brief Appelée à chaque fois qu'une profondeur de recherche est terminée.
+     * @param result Les scores de tous les coups pour cette profondeur.
+     */
+    void onDepthCompleted(AnalysisResult result);
+}
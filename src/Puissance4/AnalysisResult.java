@@ -0,0 +1,84 @@
+/**
+ * @file AnalysisResult.java
+ * @brief Définition de la classe AnalysisResult contenant le résultat d'une analyse à une profondeur donnée.
+ */
+
+package Puissance4;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @class AnalysisResult
+ * @brief Résultat d'une itération de l'analyse : score de chaque case et variante principale.
+ *
+ * Les scores sont exprimés du point de vue du joueur analysé. Une case occupée
+ * n'a pas de score et vaut NO_SCORE.
+ */
+public class AnalysisResult {
+    public static final int NO_SCORE = Integer.MIN_VALUE; ///< Valeur des cases sans score (cases occupées).
+
+    private final int depth; ///< Profondeur de recherche atteinte.
+    private final int[][] scores; ///< Score de chaque case [ligne][colonne].
+    private final int[] bestMove; ///< Meilleur coup trouvé [ligne, colonne].
+    private final int bestScore; ///< Score du meilleur coup.
+    private final List<int[]> principalVariation; ///< Suite de coups attendue, en commençant par le meilleur coup.
+
+    /**
+     * @brief Constructeur de la classe AnalysisResult.
+     * @param depth Profondeur de recherche atteinte.
+     * @param scores Score de chaque case.
+     * @param bestMove Meilleur coup trouvé.
+     * @param bestScore Score du meilleur coup.
+     * @param principalVariation Variante principale.
+     */
+    public AnalysisResult(int depth, int[][] scores, int[] bestMove, int bestScore, List<int[]> principalVariation) {
+        this.depth = depth;
+        this.scores = scores;
+        this.bestMove = bestMove;
+        this.bestScore = bestScore;
+        this.principalVariation = Collections.unmodifiableList(principalVariation);
+    }
+
+    /**
+     * @brief Récupère la profondeur de recherche atteinte.
+     * @return La profondeur.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @brief Récupère le score d'une case.
+     * @param row Ligne de la case.
+     * @param col Colonne de la case.
+     * @return Le score du coup joué dans cette case, ou NO_SCORE si la case est occupée.
+     */
+    public int getScore(int row, int col) {
+        return scores[row][col];
+    }
+
+    /**
+     * @brief Récupère le meilleur coup.
+     * @return Le meilleur coup sous forme de tableau [ligne, colonne], ou null s'il n'y a aucun coup.
+     */
+    public int[] getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @brief Récupère le score du meilleur coup.
+     * @return Le score du meilleur coup.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @brief Récupère la variante principale.
+     * @return La liste des coups [ligne, colonne] attendus, joueurs alternés.
+     */
+    public List<int[]> getPrincipalVariation() {
+        return principalVariation;
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * @file BatchEvaluator.java
+ * @brief Évaluation statique de nombreuses positions à la fois.
+ */
+
+package Puissance4;
+
+import java.util.Random;
+
+/**
+ * @class BatchEvaluator
+ * @brief Calcule l'évaluation de MinimaxAlgorithm pour des lots de positions codées en masques.
+ *
+ * Une position est donnée par le masque des pions 'X' et celui des pions 'O' (bit ligne * BOARD_SIZE
+ * + colonne). Le résultat est exactement celui de l'évaluation statique de MinimaxAlgorithm : victoire
+ * de l'IA ('O'), victoire de 'X', sinon somme sur les cases vides du bonus de centre et des lignes
+ * potentielles (5, 20 ou 100 points pour 1, 2 ou 3 pions alignés, comptés à 2 contre 1 pour 'X').
+ *
+ * create() choisit l'implémentation vectorielle (jdk.incubator.vector, une position par voie) quand
+ * le module est chargé (--add-modules jdk.incubator.vector) et qu'elle a été compilée : elle se trouve
+ * dans src-vector, compilée à part pour que les sources de src n'aient besoin d'aucun module
+ * incubateur. Sinon l'implémentation scalaire sur masques est utilisée.
+ */
+public abstract class BatchEvaluator {
+    static final int WIN_SCORE = 10000; ///< Score d'une victoire (du point de vue de l'IA).
+    static final int HUMAN_WEIGHT = 2; ///< Poids des lignes de 'X' par rapport à celles de 'O'.
+    static final int DIRECTIONS = 4; ///< Nombre de directions d'alignement.
+    static final int RAY_LENGTH = 3; ///< Nombre maximal de cases parcourues de chaque côté d'une case.
+    static final int[] LINE_SCORES = {0, 5, 20, 100, 0, 0, 0}; ///< Score d'une direction selon le nombre de pions alignés.
+    static final int[] CENTER_BONUS = createCenterBonus(); ///< Bonus de proximité du centre de chaque case.
+
+    /**
+     * @brief Cases parcourues depuis chaque case, indexées (case * DIRECTIONS + direction) * 2 + sens.
+     *
+     * Chaque rayon s'arrête au bord du plateau et compte au plus RAY_LENGTH cases.
+     */
+    static final int[][] RAYS = createRays();
+
+    private static final String VECTOR_IMPLEMENTATION = "Puissance4.VectorBatchEvaluator"; ///< Classe de l'implémentation vectorielle.
+
+    /**
+     * @brief Évalue un lot de positions.
+     * @param xMasks Masques des pions 'X'.
+     * @param oMasks Masques des pions 'O'.
+     * @param count Nombre de positions à évaluer (depuis l'indice 0).
+     * @param scores Tableau recevant le score de chaque position.
+     */
+    public abstract void evaluate(long[] xMasks, long[] oMasks, int count, int[] scores);
+
+    /**
+     * @brief Décrit l'implémentation (pour les journaux et les mesures).
+     * @return Le nom de l'implémentation.
+     */
+    public abstract String getName();
+
+    /**
+     * @brief Crée le meilleur évaluateur disponible sur cette JVM.
+     * @return L'évaluateur vectoriel s'il est utilisable, sinon l'évaluateur scalaire.
+     */
+    public static BatchEvaluator create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (BatchEvaluator) Class.forName(VECTOR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Classe non compilée ou API absente : repli sur l'implémentation scalaire.
+            }
+        }
+        return new ScalarBatchEvaluator();
+    }
+
+    /**
+     * @brief Évalue une position codée en masques.
+     * @param x Masque des pions 'X'.
+     * @param o Masque des pions 'O'.
+     * @return Le score de la position.
+     */
+    static int evaluate(long x, long o) {
+        for (long window : Lines.WINDOW_MASKS) {
+            if ((o & window) == window) return WIN_SCORE;
+        }
+        for (long window : Lines.WINDOW_MASKS) {
+            if ((x & window) == window) return -WIN_SCORE;
+        }
+
+        int score = 0;
+        for (long empty = ~(x | o) & Lines.FULL_MASK; empty != 0; empty &= empty - 1) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            score += CENTER_BONUS[cell];
+            for (int dir = 0; dir < DIRECTIONS; dir++) {
+                score += LINE_SCORES[lineLength(o, x, cell, dir)]
+                        - HUMAN_WEIGHT * LINE_SCORES[lineLength(x, o, cell, dir)];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @brief Compte les pions d'un joueur alignés avec une case dans une direction.
+     *
+     * Dans chaque sens, les cases vides sont traversées et le parcours s'arrête au premier pion adverse.
+     * @param own Masque du joueur.
+     * @param opponent Masque de l'adversaire.
+     * @param cell La case de départ.
+     * @param dir La direction.
+     * @return Le nombre de pions du joueur rencontrés.
+     */
+    private static int lineLength(long own, long opponent, int cell, int dir) {
+        int length = 0;
+        for (int side = 0; side < 2; side++) {
+            for (int other : RAYS[(cell * DIRECTIONS + dir) * 2 + side]) {
+                if ((opponent >>> other & 1) != 0) break;
+                length += (int) (own >>> other & 1);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @brief Calcule le bonus de centre de chaque case.
+     * @return Les bonus indexés par case.
+     */
+    private static int[] createCenterBonus() {
+        int[] bonus = new int[Lines.CELL_COUNT];
+        int center = Constants.BOARD_SIZE / 2;
+        for (int cell = 0; cell < bonus.length; cell++) {
+            int row = cell / Constants.BOARD_SIZE;
+            int col = cell % Constants.BOARD_SIZE;
+            bonus[cell] = 10 - (Math.abs(row - center) + Math.abs(col - center));
+        }
+        return bonus;
+    }
+
+    /**
+     * @brief Calcule les rayons de chaque case.
+     * @return Les rayons, indexés comme RAYS.
+     */
+    private static int[][] createRays() {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int[][] rays = new int[Lines.CELL_COUNT * DIRECTIONS * 2][];
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            for (int dir = 0; dir < DIRECTIONS; dir++) {
+                for (int side = 0; side < 2; side++) {
+                    int sign = side == 0 ? 1 : -1;
+                    int[] ray = new int[RAY_LENGTH];
+                    int length = 0;
+                    for (int i = 1; i <= RAY_LENGTH; i++) {
+                        int row = cell / Constants.BOARD_SIZE + sign * i * directions[dir][0];
+                        int col = cell % Constants.BOARD_SIZE + sign * i * directions[dir][1];
+                        if (row < 0 || row >= Constants.BOARD_SIZE || col < 0 || col >= Constants.BOARD_SIZE) {
+                            break;
+                        }
+                        ray[length++] = row * Constants.BOARD_SIZE + col;
+                    }
+                    rays[(cell * DIRECTIONS + dir) * 2 + side] = java.util.Arrays.copyOf(ray, length);
+                }
+            }
+        }
+        return rays;
+    }
+
+    /**
+     * @brief Vérifie l'évaluateur disponible contre l'évaluation de MinimaxAlgorithm et mesure son débit.
+     * @param args [nombreDePositions] [graine]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        // Positions aléatoires de 0 à 30 pions, avec ou sans alignement gagnant.
+        Random random = new Random(seed);
+        Board[] boards = new Board[count];
+        long[] xMasks = new long[count];
+        long[] oMasks = new long[count];
+        for (int i = 0; i < count; i++) {
+            Board board = new Board();
+            int pieces = random.nextInt(31);
+            for (int p = 0; p < pieces; p++) {
+                int cell = random.nextInt(Lines.CELL_COUNT);
+                board.placePiece(cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE, random.nextBoolean() ? 'X' : 'O');
+            }
+            boards[i] = board;
+            xMasks[i] = board.getMask('X');
+            oMasks[i] = board.getMask('O');
+        }
+
+        int[] reference = new int[count];
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            reference[i] = MinimaxAlgorithm.evaluateBoard(boards[i]);
+        }
+        report("evaluateBoard", count, System.nanoTime() - start);
+
+        BatchEvaluator[] evaluators = {new ScalarBatchEvaluator(), create()};
+        for (BatchEvaluator evaluator : evaluators) {
+            int[] scores = new int[count];
+            // Deux passes : la première laisse le compilateur JIT optimiser la boucle.
+            evaluator.evaluate(xMasks, oMasks, count, scores);
+            start = System.nanoTime();
+            evaluator.evaluate(xMasks, oMasks, count, scores);
+            long elapsed = System.nanoTime() - start;
+
+            int mismatches = 0;
+            for (int i = 0; i < count; i++) {
+                if (scores[i] != reference[i]) {
+                    mismatches++;
+                }
+            }
+            report(evaluator.getName() + " (" + mismatches + " écarts)", count, elapsed);
+        }
+    }
+
+    /**
+     * @brief Affiche le débit d'une mesure.
+     * @param name Le nom de la mesure.
+     * @param count Le nombre de positions évaluées.
+     * @param nanos La durée en nanosecondes.
+     */
+    private static void report(String name, int count, long nanos) {
+        System.out.printf("%-36s %12d positions/s%n", name, count * 1_000_000_000L / Math.max(1, nanos));
+    }
+}
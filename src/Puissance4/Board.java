@@ -14,9 +14,28 @@ import java.util.List;
  *
  * Cette classe gère l'état du plateau, vérifie les mouvements valides,
  * détecte les conditions de victoire et permet de récupérer les coups disponibles.
+ *
+ * Les pions et les cases candidates sont aussi tenus dans des masques d'un long (un bit par case) :
+ * BOARD_SIZE ne peut pas dépasser 8 (voir Lines.MAX_CELLS).
  */
 public class Board {
     private char[][] board; ///< Tableau 2D représentant le plateau de jeu.
+    private final byte[] nearbyPieces = new byte[Lines.CELL_COUNT]; ///< Nombre de pions à distance CANDIDATE_DISTANCE ou moins de chaque case.
+    private long candidates; ///< Cases vides proches d'au moins un pion (bit ligne * BOARD_SIZE + colonne).
+    private long xMask; ///< Cases occupées par 'X' (bit ligne * BOARD_SIZE + colonne).
+    private long oMask; ///< Cases occupées par 'O' (bit ligne * BOARD_SIZE + colonne).
+
+    static {
+        if (Lines.CELL_COUNT > Lines.MAX_CELLS) {
+            throw new IllegalStateException("BOARD_SIZE = " + Constants.BOARD_SIZE
+                    + " : les masques de 64 bits limitent le plateau à 8x8");
+        }
+    }
+
+    /**
+     * @brief Voisinage de chaque case : cases à distance CANDIDATE_DISTANCE ou moins, la case exclue.
+     */
+    private static final int[][] NEIGHBORHOODS = createNeighborhoods();
 
     /**
      * @brief Constructeur de la classe Board.
@@ -34,6 +53,24 @@ public class Board {
         }
     }
 
+    /**
+     * @brief Crée une copie indépendante du plateau.
+     *
+     * Utile pour lancer une recherche sur un autre thread sans modifier le plateau affiché.
+     * @return Un nouveau plateau contenant les mêmes pions.
+     */
+    public Board copy() {
+        Board copy = new Board();
+        for (int i = 0; i < Constants.BOARD_SIZE; i++) {
+            System.arraycopy(board[i], 0, copy.board[i], 0, Constants.BOARD_SIZE);
+        }
+        System.arraycopy(nearbyPieces, 0, copy.nearbyPieces, 0, nearbyPieces.length);
+        copy.candidates = candidates;
+        copy.xMask = xMask;
+        copy.oMask = oMask;
+        return copy;
+    }
+
     /**
      * @brief Récupère le symbole d'une case spécifique.
      * @param row Ligne de la case.
@@ -51,7 +88,22 @@ public class Board {
      * @param piece Symbole du joueur ('X' ou 'O').
      */
     public void placePiece(int row, int col, char piece) {
+        if (piece == ' ') {
+            removePiece(row, col);
+            return;
+        }
+        char previous = board[row][col];
         board[row][col] = piece;
+        int cell = row * Constants.BOARD_SIZE + col;
+        clearMaskBit(cell);
+        if (piece == 'X') {
+            xMask |= 1L << cell;
+        } else if (piece == 'O') {
+            oMask |= 1L << cell;
+        }
+        if (previous == ' ') {
+            updateCandidates(cell, 1);
+        }
     }
 
     /**
@@ -70,7 +122,57 @@ public class Board {
      * @param col Colonne de la case.
      */
     public void removePiece(int row, int col) {
-        board[row][col] = ' ';
+        if (board[row][col] != ' ') {
+            board[row][col] = ' ';
+            int cell = row * Constants.BOARD_SIZE + col;
+            clearMaskBit(cell);
+            updateCandidates(cell, -1);
+        }
+    }
+
+    /**
+     * @brief Retire une case des masques des deux joueurs.
+     * @param cell La case (ligne * BOARD_SIZE + colonne).
+     */
+    private void clearMaskBit(int cell) {
+        xMask &= ~(1L << cell);
+        oMask &= ~(1L << cell);
+    }
+
+    /**
+     * @brief Récupère les cases occupées par un joueur sous forme de masque.
+     * @param symbol Symbole du joueur ('X' ou 'O').
+     * @return Le masque des cases du joueur (bit ligne * BOARD_SIZE + colonne).
+     */
+    public long getMask(char symbol) {
+        return symbol == 'X' ? xMask : oMask;
+    }
+
+    /**
+     * @brief Met à jour les cases candidates après la pose ou le retrait d'un pion.
+     *
+     * Seul le voisinage de la case change : le coût ne dépend pas de la taille du plateau.
+     * @param cell La case modifiée (ligne * BOARD_SIZE + colonne).
+     * @param delta 1 pour une pose, -1 pour un retrait.
+     */
+    private void updateCandidates(int cell, int delta) {
+        for (int other : NEIGHBORHOODS[cell]) {
+            nearbyPieces[other] += delta;
+            int row = other / Constants.BOARD_SIZE;
+            int col = other % Constants.BOARD_SIZE;
+            if (nearbyPieces[other] > 0 && board[row][col] == ' ') {
+                candidates |= 1L << other;
+            } else {
+                candidates &= ~(1L << other);
+            }
+        }
+
+        // La case elle-même n'est candidate que vide et proche d'un autre pion.
+        if (delta > 0 || nearbyPieces[cell] == 0) {
+            candidates &= ~(1L << cell);
+        } else {
+            candidates |= 1L << cell;
+        }
     }
 
     /**
@@ -194,6 +296,50 @@ public class Board {
         return moves;
     }
 
+    /**
+     * @brief Retourne les coups proches des pions déjà posés.
+     *
+     * Seules les cases vides à distance CANDIDATE_DISTANCE ou moins d'un pion sont proposées ;
+     * les cases isolées ne comptent presque jamais pour aligner 4 pions. Si aucune case ne
+     * convient (plateau vide, ou voisinage entièrement occupé), tous les coups possibles sont retournés.
+     * @return Liste des coordonnées des cases candidates sous forme de tableau {row, col}.
+     */
+    public List<int[]> getCandidateMoves() {
+        if (candidates == 0) {
+            return getAvailableMoves();
+        }
+
+        List<int[]> moves = new ArrayList<>(Long.bitCount(candidates));
+        for (long mask = candidates; mask != 0; mask &= mask - 1) {
+            int cell = Long.numberOfTrailingZeros(mask);
+            moves.add(new int[]{cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE});
+        }
+        return moves;
+    }
+
+    /**
+     * @brief Calcule le voisinage de chaque case.
+     * @return Pour chaque case, la liste des autres cases à distance CANDIDATE_DISTANCE ou moins.
+     */
+    private static int[][] createNeighborhoods() {
+        int[][] neighborhoods = new int[Lines.CELL_COUNT][];
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                List<Integer> cells = new ArrayList<>();
+                for (int r = row - Constants.CANDIDATE_DISTANCE; r <= row + Constants.CANDIDATE_DISTANCE; r++) {
+                    for (int c = col - Constants.CANDIDATE_DISTANCE; c <= col + Constants.CANDIDATE_DISTANCE; c++) {
+                        if (r >= 0 && r < Constants.BOARD_SIZE && c >= 0 && c < Constants.BOARD_SIZE
+                                && (r != row || c != col)) {
+                            cells.add(r * Constants.BOARD_SIZE + c);
+                        }
+                    }
+                }
+                neighborhoods[row * Constants.BOARD_SIZE + col] = cells.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        return neighborhoods;
+    }
+
     /**
      * @brief Calcule un code de hachage pour le plateau.
      * @return Un entier représentant l'état du plateau.
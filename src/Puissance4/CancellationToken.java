@@ -0,0 +1,116 @@
+/**
+ * @file CancellationToken.java
+ * @brief Définition de la classe CancellationToken pour interrompre une recherche de l'IA.
+ */
+
+package Puissance4;
+
+/**
+ * @class CancellationToken
+ * @brief Signal d'arrêt consulté régulièrement par les recherches de l'IA.
+ *
+ * Une recherche s'arrête dès que le jeton est annulé ou que son échéance est dépassée.
+ * Le jeton peut être annulé depuis n'importe quel thread. Un jeton dérivé (newChild, withTimeout)
+ * s'arrête quand celui dont il dérive s'arrête ; l'annuler n'annule pas ce dernier.
+ */
+public class CancellationToken {
+    /**
+     * @brief Jeton jamais annulé, pour les recherches sans limite.
+     */
+    public static final CancellationToken NONE = new CancellationToken();
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE; ///< Absence d'échéance.
+
+    private volatile boolean cancelled; ///< Indique si le jeton a été annulé.
+    private final long deadline; ///< Échéance en nanosecondes (System.nanoTime), ou NO_DEADLINE.
+    private final CancellationToken parent; ///< Jeton dont l'arrêt s'applique aussi à celui-ci, ou null.
+
+    /**
+     * @brief Constructeur d'un jeton sans échéance.
+     */
+    public CancellationToken() {
+        this.deadline = NO_DEADLINE;
+        this.parent = null;
+    }
+
+    /**
+     * @brief Constructeur d'un jeton qui expire après un délai.
+     * @param timeoutMillis Le délai en millisecondes.
+     */
+    public CancellationToken(long timeoutMillis) {
+        this(null, timeoutMillis);
+    }
+
+    /**
+     * @brief Constructeur d'un jeton dérivé, sans échéance propre.
+     * @param parent Le jeton dont l'annulation s'applique aussi à celui-ci.
+     */
+    private CancellationToken(CancellationToken parent) {
+        this.deadline = NO_DEADLINE;
+        this.parent = parent;
+    }
+
+    /**
+     * @brief Constructeur d'un jeton dérivé, qui expire après un délai.
+     * @param parent Le jeton dont l'annulation s'applique aussi à celui-ci, ou null.
+     * @param timeoutMillis Le délai en millisecondes.
+     */
+    private CancellationToken(CancellationToken parent, long timeoutMillis) {
+        this.deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        this.parent = parent;
+    }
+
+    /**
+     * @brief Crée un jeton qui s'arrête comme celui-ci et qui peut être annulé seul.
+     *
+     * Annuler le jeton dérivé n'annule pas celui-ci.
+     * @return Le jeton dérivé.
+     */
+    public CancellationToken newChild() {
+        return new CancellationToken(this);
+    }
+
+    /**
+     * @brief Crée un jeton qui s'arrête comme celui-ci ou, au plus tard, après un délai.
+     *
+     * Annuler le jeton dérivé n'annule pas celui-ci.
+     * @param timeoutMillis Le délai en millisecondes.
+     * @return Le jeton dérivé.
+     */
+    public CancellationToken withTimeout(long timeoutMillis) {
+        return new CancellationToken(this, timeoutMillis);
+    }
+
+    /**
+     * @brief Demande l'arrêt des recherches qui utilisent ce jeton.
+     */
+    public void cancel() {
+        if (this != NONE) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * @brief Vérifie si le jeton a été annulé explicitement.
+     * @return true si cancel() a été appelée sur ce jeton ou sur celui dont il dérive.
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * @brief Vérifie si l'échéance du jeton est dépassée.
+     * @return true si le jeton, ou celui dont il dérive, a une échéance et qu'elle est dépassée.
+     */
+    public boolean isExpired() {
+        return (deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0) || (parent != null && parent.isExpired());
+    }
+
+    /**
+     * @brief Vérifie si la recherche doit s'arrêter.
+     * @return true si le jeton est annulé ou si son échéance est dépassée.
+     */
+    public boolean shouldStop() {
+        return isCancelled() || isExpired();
+    }
+}
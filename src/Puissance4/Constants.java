@@ -27,4 +27,13 @@ public class Constants {
      * Ce caractère est utilisé pour identifier les coups joués par le joueur X.
      */
     public static final char PLAYER_X = 'X';
+
+    /**
+     * @brief Distance maximale entre un coup candidat et un pion déjà posé.
+     *
+     * Distance de Chebyshev (nombre de pas, diagonales comprises) utilisée par
+     * Board.getCandidateMoves() pour ignorer les cases isolées.
+     * La valeur actuelle est 2.
+     */
+    public static final int CANDIDATE_DISTANCE = 2;
 }
\ No newline at end of file
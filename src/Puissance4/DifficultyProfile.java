@@ -0,0 +1,94 @@
+/**
+ * @file DifficultyProfile.java
+ * @brief Définition de la classe DifficultyProfile décrivant un niveau de difficulté de l'IA.
+ */
+
+package Puissance4;
+
+/**
+ * @class DifficultyProfile
+ * @brief Niveau de difficulté de l'IA : profondeur, budgets de recherche et bruit d'évaluation.
+ *
+ * La recherche s'approfondit itérativement jusqu'à la profondeur du profil et s'arrête plus tôt
+ * si le budget de nœuds ou de temps est épuisé : le coup de la dernière profondeur terminée est joué.
+ * Le bruit ajoute à l'évaluation de chaque feuille un décalage aléatoire borné, fixé par position
+ * pour toute la recherche : l'IA cherche avec une évaluation approximative et se trompe comme un
+ * joueur qui juge mal les positions, sans négliger une victoire ou une défaite immédiate.
+ */
+public class DifficultyProfile {
+    public static final DifficultyProfile EASY = new DifficultyProfile("Facile", 2, 20_000, 200, 300); ///< Profil facile.
+    public static final DifficultyProfile MEDIUM = new DifficultyProfile("Moyen", 3, 200_000, 1_000, 40); ///< Profil moyen.
+    public static final DifficultyProfile HARD = new DifficultyProfile("Difficile", 5, 2_000_000, 3_000, 0); ///< Profil difficile.
+    public static final DifficultyProfile EXPERT = new DifficultyProfile("Expert", 10, 20_000_000, 10_000, 0); ///< Profil expert.
+
+    private final String name; ///< Nom du profil.
+    private final int depth; ///< Profondeur maximale de recherche.
+    private final long nodeBudget; ///< Nombre maximal de nœuds par coup (0 = illimité).
+    private final long timeBudgetMillis; ///< Durée maximale de recherche par coup en millisecondes (0 = illimitée).
+    private final int noise; ///< Amplitude du bruit ajouté à l'évaluation des feuilles.
+
+    /**
+     * @brief Constructeur de la classe DifficultyProfile.
+     * @param name Nom du profil.
+     * @param depth Profondeur maximale de recherche.
+     * @param nodeBudget Nombre maximal de nœuds par coup (0 = illimité).
+     * @param timeBudgetMillis Durée maximale de recherche par coup en millisecondes (0 = illimitée).
+     * @param noise Amplitude du bruit ajouté à l'évaluation des feuilles (0 = aucun).
+     */
+    public DifficultyProfile(String name, int depth, long nodeBudget, long timeBudgetMillis, int noise) {
+        this.name = name;
+        this.depth = depth;
+        this.nodeBudget = nodeBudget;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.noise = noise;
+    }
+
+    /**
+     * @brief Récupère le nom du profil.
+     * @return Le nom.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @brief Récupère la profondeur maximale de recherche.
+     * @return La profondeur.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @brief Récupère le nombre maximal de nœuds par coup.
+     * @return Le budget de nœuds (0 = illimité).
+     */
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    /**
+     * @brief Récupère la durée maximale de recherche par coup.
+     * @return Le budget de temps en millisecondes (0 = illimité).
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * @brief Récupère l'amplitude du bruit d'évaluation.
+     * @return L'amplitude du bruit.
+     */
+    public int getNoise() {
+        return noise;
+    }
+
+    /**
+     * @brief Retourne le nom du profil.
+     * @return Le nom.
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
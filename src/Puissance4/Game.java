@@ -6,8 +6,15 @@
 package Puissance4;
 
 import Puissance4.gui.GameWindow;
+import Puissance4.monitoring.AiTurnEvent;
 import javax.swing.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @class Game
@@ -17,21 +24,51 @@ import java.util.Random;
  * de la détection de la victoire et de l'intégration de l'IA.
  */
 public class Game {
+    public static final int RECORD_SIZE = 20 + Lines.CELL_COUNT; ///< Taille maximale de l'enregistrement compact d'une partie, en octets.
+    private static final byte RECORD_VERSION = 1; ///< Version du format de l'enregistrement.
+    private static final DifficultyProfile[] RECORD_PROFILES = {
+        null, DifficultyProfile.EASY, DifficultyProfile.MEDIUM, DifficultyProfile.HARD, DifficultyProfile.EXPERT
+    }; ///< Profils enregistrables, indexés par leur code dans l'enregistrement.
+
     private Board board; ///< Plateau de jeu.
     private Player humanPlayer; ///< Joueur humain avec le symbole 'X'.
     private Player aiPlayer; ///< Joueur IA ou second joueur humain avec le symbole 'O'.
-    private boolean isGameOver; ///< Indique si la partie est terminée.
+    private volatile boolean isGameOver; ///< Indique si la partie est terminée.
     private Player currentPlayer; ///< Joueur actuellement en train de jouer.
     private GameWindow gameWindow; ///< Fenêtre du jeu pour l'affichage.
     private boolean isHumanVsHuman; ///< Indique si la partie est en mode Humain vs Humain.
+    private DifficultyProfile difficulty; ///< Profil de difficulté de l'IA (null = profondeur globale de MinimaxAlgorithm).
+    private SearchScheduler scheduler; ///< Pool de recherche partagé entre les parties (null = recherche sur le thread appelant).
+    private TimeManager clock; ///< Pendule de l'IA pour la partie (null = budget de temps du profil à chaque coup).
+    private volatile Position position; ///< Instantané immuable de la partie, publié après chaque coup.
+    private volatile CancellationToken searchToken = new CancellationToken(); ///< Jeton d'annulation de la recherche de l'IA.
+    private volatile long aiRequestedAt; ///< Instant (System.nanoTime) où le tour de l'IA a été demandé, 0 sinon.
+    private volatile SwingWorker<int[], Void> aiWorker; ///< Recherche de l'IA en cours hors de l'EDT (partie avec fenêtre), ou null.
+    private final byte[] history = new byte[Lines.CELL_COUNT]; ///< Cases jouées depuis le début de la partie (ligne * taille + colonne).
+    private int historyLength; ///< Nombre de coups de l'historique.
+    private final CopyOnWriteArrayList<GameObserver> observers = new CopyOnWriteArrayList<>(); ///< Destinataires des coups joués.
 
     /**
      * @brief Constructeur de la classe Game.
      * @param board Le plateau de jeu utilisé pour la partie.
-     * @param gameWindow La fenêtre du jeu pour l'affichage.
+     * @param gameWindow La fenêtre du jeu pour l'affichage, ou null pour une partie sans interface
+     *                   (l'appelant déclenche alors lui-même aiTurn()). Avec une fenêtre, l'IA joue
+     *                   d'elle-même, sa recherche s'exécutant hors de l'EDT.
      * @param isHumanVsHuman Indique si la partie est en mode Humain vs Humain.
      */
     public Game(Board board, GameWindow gameWindow, boolean isHumanVsHuman) {
+        // Choisir aléatoirement le joueur qui commence.
+        this(board, gameWindow, isHumanVsHuman, new Random().nextBoolean() ? 'X' : 'O');
+    }
+
+    /**
+     * @brief Constructeur d'une partie dont le joueur au trait est connu.
+     * @param board Le plateau de jeu utilisé pour la partie.
+     * @param gameWindow La fenêtre du jeu, ou null pour une partie sans interface.
+     * @param isHumanVsHuman Indique si la partie est en mode Humain vs Humain.
+     * @param sideToMove Le symbole du joueur qui joue le prochain coup.
+     */
+    private Game(Board board, GameWindow gameWindow, boolean isHumanVsHuman, char sideToMove) {
         this.board = board;
         this.humanPlayer = new Player('X');
 
@@ -48,15 +85,16 @@ public class Game {
         this.gameWindow = gameWindow;
         this.isHumanVsHuman = isHumanVsHuman;
 
-        // Choisir aléatoirement le joueur qui commence.
-        Random random = new Random();
-        if (random.nextBoolean()) {
+        if (sideToMove == humanPlayer.getSymbol()) {
             this.currentPlayer = humanPlayer;
         } else {
             this.currentPlayer = aiPlayer;
-            if (!isHumanVsHuman) {
-                SwingUtilities.invokeLater(() -> aiTurn());
-            }
+        }
+        this.position = Position.fromBoard(board, currentPlayer.getSymbol());
+
+        if (currentPlayer == aiPlayer && !isHumanVsHuman && gameWindow != null) {
+            aiRequestedAt = System.nanoTime();
+            SwingUtilities.invokeLater(this::startAiTurn);
         }
     }
 
@@ -74,64 +112,278 @@ public class Game {
         // Vérifie si le mouvement est valide
         if (board.isValidMove(row, col)) {
             board.placePiece(row, col, currentPlayer.getSymbol());
+            position = position.play(row, col);
+            recordMove(row, col);
 
             // Vérifie si le joueur actuel a gagné après son coup.
             if (board.checkWin(currentPlayer.getSymbol())) {
                 isGameOver = true;
+                publishMove(row, col, currentPlayer.getSymbol());
                 return;
             }
 
             // Vérifie si le plateau est plein (match nul).
             if (board.isFull()) {
                 isGameOver = true;
+                publishMove(row, col, currentPlayer.getSymbol());
                 return;
             }
 
+            // Publie le coup avant le changement de joueur, qui peut déclencher le tour de l'IA.
+            publishMove(row, col, currentPlayer.getSymbol());
+
             // Change de joueur.
             switchPlayer();
         }
     }
 
     /**
-     * @brief Effectue le tour de l'IA en mode Humain vs IA.
+     * @brief Effectue le tour de l'IA en mode Humain vs IA, sur le thread appelant.
+     *
+     * Pour les parties sans interface. Une partie avec fenêtre lance elle-même le tour de l'IA,
+     * hors de l'EDT (startAiTurn()).
      */
     public void aiTurn() {
-        // Vérifie si la partie est terminée ou si on est en mode Humain vs Humain.
-        if (isGameOver || isHumanVsHuman) {
+        if (!isAiToMove()) {
             return;
         }
+        long wait = takeAiWait();
+        AiTurnEvent event = new AiTurnEvent();
+        event.begin();
 
-        // Si ce n'est pas au tour de l'IA, on ne fait rien.
-        if (currentPlayer != aiPlayer) {
+        // L'IA choisit le meilleur coup avec l'algorithme Minimax.
+        // La recherche s'arrête sans jouer si la partie est abandonnée entre-temps.
+        applyAiMove(computeAiMove(), event, wait);
+    }
+
+    /**
+     * @brief Lance le tour de l'IA d'une partie avec fenêtre : la recherche s'exécute dans un
+     * SwingWorker, le coup est joué sur l'EDT à la fin de la recherche.
+     *
+     * L'EDT reste libre pendant la recherche : fermer la fenêtre (abandon()) l'interrompt aussitôt.
+     * À appeler sur l'EDT.
+     */
+    private void startAiTurn() {
+        if (!isAiToMove() || aiWorker != null) {
             return;
         }
+        long wait = takeAiWait();
+        AiTurnEvent event = new AiTurnEvent();
+        event.begin();
 
-        // L'IA choisit le meilleur coup avec l'algorithme Minimax.
-        int[] aiMove = MinimaxAlgorithm.getBestMove(board);
+        SwingWorker<int[], Void> worker = new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                return computeAiMove();
+            }
+
+            @Override
+            protected void done() {
+                aiWorker = null;
+                int[] aiMove = null;
+                if (!isCancelled()) {
+                    try {
+                        aiMove = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        // Recherche en échec : l'IA ne joue pas ce tour-ci.
+                    }
+                }
+                applyAiMove(aiMove, event, wait);
+            }
+        };
+        aiWorker = worker;
+        worker.execute();
+    }
+
+    /**
+     * @brief Indique si l'IA doit jouer : partie en cours, mode Humain vs IA, IA au trait.
+     * @return true si c'est le tour de l'IA.
+     */
+    private boolean isAiToMove() {
+        return !isGameOver && !isHumanVsHuman && currentPlayer == aiPlayer;
+    }
+
+    /**
+     * @brief Calcule et réinitialise le délai entre la demande du tour de l'IA et son début.
+     * @return Le délai en nanosecondes (0 si le tour n'a pas été demandé), pour l'événement JFR.
+     */
+    private long takeAiWait() {
+        long requestedAt = aiRequestedAt;
+        aiRequestedAt = 0;
+        return requestedAt != 0 ? System.nanoTime() - requestedAt : 0;
+    }
+
+    /**
+     * @brief Joue le coup trouvé par l'IA, s'il est toujours valide, et met à jour l'affichage.
+     * @param aiMove Le coup, ou null si la recherche a été annulée ou refusée par le pool.
+     * @param event L'événement JFR du tour, commencé avant la recherche.
+     * @param wait Le délai avant le début du tour, en nanosecondes.
+     */
+    private void applyAiMove(int[] aiMove, AiTurnEvent event, long wait) {
+        if (isGameOver) {
+            commitAiTurn(event, wait, null);
+            return;
+        }
 
         // Vérifie si le coup proposé par l'IA est valide.
+        int[] played = null;
         if (aiMove != null && aiMove[0] >= 0 && aiMove[1] >= 0) {
             // Vérifie que la case choisie est bien vide avant de placer un pion.
             if (board.getPiece(aiMove[0], aiMove[1]) != ' ') {
+                commitAiTurn(event, wait, null);
                 return;
             }
 
             // L'IA joue son coup.
             board.placePiece(aiMove[0], aiMove[1], aiPlayer.getSymbol());
+            position = position.play(aiMove[0], aiMove[1]);
+            recordMove(aiMove[0], aiMove[1]);
+            played = aiMove;
 
             // Vérifie si l'IA a gagné après son coup.
             if (board.checkWin(aiPlayer.getSymbol())) {
                 isGameOver = true;
             } else if (board.isFull()) {
                 isGameOver = true;
-            } else {
-                // Sinon, passe au joueur suivant.
+            }
+            publishMove(aiMove[0], aiMove[1], aiPlayer.getSymbol());
+            if (!isGameOver) {
+                // Si la partie continue, passe au joueur suivant.
                 switchPlayer();
             }
         }
 
-        // Met à jour l'affichage du plateau après le tour de l'IA.
-        gameWindow.updateBoardDisplay();
+        // Met à jour l'affichage du plateau et du statut après le tour de l'IA.
+        if (gameWindow != null) {
+            gameWindow.updateBoardDisplay();
+            gameWindow.updateStatus();
+        }
+        commitAiTurn(event, wait, played);
+    }
+
+    /**
+     * @brief Calcule le coup de l'IA selon la configuration de la partie.
+     * @return Le coup choisi, ou null si la recherche a été annulée ou refusée par le pool.
+     * @throws RuntimeException Si la recherche a échoué dans le pool (cause de son échec).
+     */
+    private int[] computeAiMove() {
+        // La recherche travaille sur sa propre copie : le plateau de la partie ne passe jamais
+        // par les positions explorées, et les lecteurs de getPosition() restent cohérents.
+        Board searchBoard = position.toBoard();
+        if (clock != null) {
+            return computeTimedMove(searchBoard);
+        }
+        if (scheduler != null) {
+            DifficultyProfile profile = difficulty != null ? difficulty : DifficultyProfile.MEDIUM;
+            try {
+                return scheduler.submit(this, searchBoard, profile, searchToken).join();
+            } catch (RejectedExecutionException e) {
+                // Pool saturé : l'IA ne joue pas ce tour-ci, l'hôte pourra rappeler aiTurn().
+                return null;
+            } catch (CompletionException e) {
+                // Une recherche annulée rend null : une exception est une vraie erreur de la recherche.
+                throw searchFailure(e);
+            }
+        }
+        if (difficulty != null) {
+            return MinimaxAlgorithm.getBestMove(searchBoard, difficulty, searchToken);
+        }
+        return MinimaxAlgorithm.getBestMove(searchBoard, searchToken);
+    }
+
+    /**
+     * @brief Extrait l'erreur d'une recherche exécutée par le pool.
+     * @param e L'exception du résultat de la recherche.
+     * @return La cause d'origine si c'est une RuntimeException, sinon e.
+     * @throws Error Si la cause d'origine est une Error.
+     */
+    private static RuntimeException searchFailure(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof RuntimeException ? (RuntimeException) cause : e;
+    }
+
+    /**
+     * @brief Calcule le coup de l'IA à la pendule : la durée du coup, attente du pool comprise, est décomptée.
+     * @param searchBoard La copie du plateau à chercher.
+     * @return Le coup choisi, ou null si la recherche a été annulée ou refusée par le pool.
+     * @throws RuntimeException Si la recherche a échoué dans le pool (cause de son échec).
+     */
+    private int[] computeTimedMove(Board searchBoard) {
+        DifficultyProfile profile = difficulty != null ? difficulty : DifficultyProfile.MEDIUM;
+        clock.startMove(Lines.CELL_COUNT - position.getPieceCount());
+        try {
+            if (scheduler != null) {
+                return scheduler.submit(this, searchBoard, profile, clock, searchToken).join();
+            }
+            return MinimaxAlgorithm.getBestMove(searchBoard, profile, clock, searchToken);
+        } catch (RejectedExecutionException e) {
+            // Pool saturé : l'IA ne joue pas ce tour-ci, l'hôte pourra rappeler aiTurn().
+            return null;
+        } catch (CompletionException e) {
+            throw searchFailure(e);
+        } finally {
+            clock.endMove();
+        }
+    }
+
+    /**
+     * @brief Définit la pendule de l'IA pour toute la partie.
+     *
+     * Le temps de chaque coup est alors fixé par la pendule (TimeManager) et non plus par le
+     * budget de temps du profil de difficulté (MEDIUM si aucun profil n'est défini).
+     * @param clock La pendule, ou null pour revenir au budget de temps du profil.
+     */
+    public void setClock(TimeManager clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @brief Récupère la pendule de l'IA.
+     * @return La pendule, ou null si aucune n'est définie.
+     */
+    public TimeManager getClock() {
+        return clock;
+    }
+
+    /**
+     * @brief Définit le profil de difficulté de l'IA pour cette partie.
+     * @param difficulty Le profil, ou null pour utiliser la profondeur globale de MinimaxAlgorithm.
+     */
+    public void setDifficulty(DifficultyProfile difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * @brief Récupère le profil de difficulté de l'IA pour cette partie.
+     * @return Le profil, ou null si la profondeur globale est utilisée.
+     */
+    public DifficultyProfile getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @brief Définit le pool de recherche partagé utilisé pour les coups de l'IA.
+     * @param scheduler Le pool, ou null pour rechercher sur le thread appelant.
+     */
+    public void setScheduler(SearchScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @brief Abandonne la partie : elle est terminée et la recherche en cours de l'IA est annulée.
+     *
+     * Peut être appelée depuis n'importe quel thread, par exemple à la fermeture de la fenêtre.
+     */
+    public void abandon() {
+        isGameOver = true;
+        searchToken.cancel();
+        SwingWorker<int[], Void> worker = aiWorker;
+        if (worker != null) {
+            worker.cancel(false);
+        }
     }
 
     /**
@@ -156,6 +408,142 @@ public class Game {
         }
     }
 
+    /**
+     * @brief Récupère un instantané immuable de la partie.
+     *
+     * L'instantané peut être lu depuis n'importe quel thread, sans verrou : il ne change jamais
+     * et n'est remplacé qu'après un coup réellement joué.
+     * @return La position courante.
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * @brief Abonne un observateur aux coups joués à partir de maintenant.
+     *
+     * Pour suivre une partie déjà commencée, lire getPosition() après l'abonnement et ignorer les
+     * coups dont le numéro (MoveDiff.getPly()) ne dépasse pas son nombre de pions. L'observateur
+     * est appelé sur le thread du coup et ne doit pas bloquer (voir GameObserver).
+     * @param observer L'observateur.
+     */
+    public void addObserver(GameObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * @brief Désabonne un observateur.
+     * @param observer L'observateur.
+     */
+    public void removeObserver(GameObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * @brief Transmet un coup joué à tous les observateurs, sous la forme d'un unique MoveDiff partagé.
+     * @param row La ligne du coup.
+     * @param col La colonne du coup.
+     * @param symbol Le symbole du joueur.
+     */
+    private void publishMove(int row, int col, char symbol) {
+        if (observers.isEmpty()) {
+            return;
+        }
+        MoveDiff diff = new MoveDiff(row, col, symbol, position);
+        for (GameObserver observer : observers) {
+            observer.onMove(diff);
+        }
+    }
+
+    /**
+     * @brief Ajoute un coup à l'historique.
+     * @param row La ligne du coup.
+     * @param col La colonne du coup.
+     */
+    private void recordMove(int row, int col) {
+        if (historyLength < history.length) {
+            history[historyLength++] = (byte) (row * Constants.BOARD_SIZE + col);
+        }
+    }
+
+    /**
+     * @brief Récupère l'historique des coups de la partie.
+     * @return Les cases jouées dans l'ordre, sous la forme ligne * BOARD_SIZE + colonne.
+     */
+    public int[] getMoveHistory() {
+        int[] moves = new int[historyLength];
+        for (int i = 0; i < historyLength; i++) {
+            moves[i] = history[i];
+        }
+        return moves;
+    }
+
+    /**
+     * @brief Indique si la partie peut être enregistrée par writeRecord().
+     *
+     * Seules les parties sans interface, pendule ni observateur, avec un profil de difficulté prédéfini (ou
+     * aucun), sont enregistrables : pendule et observateurs ne font pas partie de l'enregistrement.
+     * @return true si la partie peut être enregistrée.
+     */
+    public boolean canWriteRecord() {
+        return gameWindow == null && clock == null && observers.isEmpty() && Arrays.asList(RECORD_PROFILES).contains(difficulty);
+    }
+
+    /**
+     * @brief Écrit l'état complet de la partie dans un enregistrement compact (au plus RECORD_SIZE octets).
+     *
+     * Format : version, options (bit 0 : Humain vs Humain, bit 1 : partie terminée, bit 2 : 'O' au
+     * trait), code du profil de difficulté, nombre de coups de l'historique, masques des pions 'X'
+     * et 'O', puis une case par coup. Le pool de recherche n'est pas enregistré.
+     * @param out Le tampon qui reçoit l'enregistrement, à partir de sa position courante.
+     * @throws IllegalStateException Si canWriteRecord() est faux.
+     */
+    public void writeRecord(ByteBuffer out) {
+        if (!canWriteRecord()) {
+            throw new IllegalStateException("Partie non enregistrable (interface ou profil personnalisé)");
+        }
+        Position snapshot = position;
+        int flags = (isHumanVsHuman ? 1 : 0) | (isGameOver ? 2 : 0) | (snapshot.getSideToMove() == 'O' ? 4 : 0);
+        out.put(RECORD_VERSION);
+        out.put((byte) flags);
+        out.put((byte) Arrays.asList(RECORD_PROFILES).indexOf(difficulty));
+        out.put((byte) historyLength);
+        out.putLong(snapshot.getXMask());
+        out.putLong(snapshot.getOMask());
+        out.put(history, 0, historyLength);
+    }
+
+    /**
+     * @brief Recrée une partie sans interface à partir d'un enregistrement écrit par writeRecord().
+     * @param in Le tampon, lu à partir de sa position courante.
+     * @param scheduler Le pool de recherche de la partie recréée, ou null.
+     * @return La partie, dans l'état exact où elle a été enregistrée.
+     * @throws IllegalArgumentException Si l'enregistrement est invalide.
+     */
+    public static Game readRecord(ByteBuffer in, SearchScheduler scheduler) {
+        byte version = in.get();
+        if (version != RECORD_VERSION) {
+            throw new IllegalArgumentException("Version d'enregistrement inconnue : " + version);
+        }
+        int flags = in.get();
+        int profile = in.get();
+        int length = in.get();
+        long xMask = in.getLong();
+        long oMask = in.getLong();
+        if (profile < 0 || profile >= RECORD_PROFILES.length || length < 0 || length > Lines.CELL_COUNT) {
+            throw new IllegalArgumentException("Enregistrement de partie invalide");
+        }
+
+        char sideToMove = (flags & 4) != 0 ? 'O' : 'X';
+        Game game = new Game(new Position(xMask, oMask, sideToMove).toBoard(), null, (flags & 1) != 0, sideToMove);
+        game.isGameOver = (flags & 2) != 0;
+        game.difficulty = RECORD_PROFILES[profile];
+        game.scheduler = scheduler;
+        in.get(game.history, 0, length);
+        game.historyLength = length;
+        return game;
+    }
+
     /**
      * @brief Obtient le joueur actuel.
      * @return Le joueur dont c'est le tour.
@@ -164,6 +552,22 @@ public class Game {
         return currentPlayer;
     }
 
+    /**
+     * @brief Termine l'événement JFR d'un tour de l'IA.
+     * @param event L'événement commencé au début du tour.
+     * @param wait Le délai entre la demande du tour et son début, en nanosecondes.
+     * @param move Le coup joué, ou null si l'IA n'a pas joué.
+     */
+    private void commitAiTurn(AiTurnEvent event, long wait, int[] move) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.waitTime = wait;
+            event.difficulty = difficulty != null ? difficulty.getName() : null;
+            event.move = move != null ? move[0] * Constants.BOARD_SIZE + move[1] : -1;
+            event.commit();
+        }
+    }
+
     /**
      * @brief Change de joueur à la fin du tour.
      */
@@ -172,8 +576,9 @@ public class Game {
             currentPlayer = aiPlayer;
 
             // Si on est en mode Humain vs IA, l'IA joue automatiquement son tour.
-            if (!isHumanVsHuman) {
-                SwingUtilities.invokeLater(() -> aiTurn());
+            if (!isHumanVsHuman && gameWindow != null) {
+                aiRequestedAt = System.nanoTime();
+                SwingUtilities.invokeLater(this::startAiTurn);
             }
         } else {
             currentPlayer = humanPlayer;
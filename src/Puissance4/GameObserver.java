@@ -0,0 +1,26 @@
+/**
+ * @file GameObserver.java
+ * @brief Définition de l'interface GameObserver pour suivre les coups d'une partie.
+ */
+
+package Puissance4;
+
+/**
+ * @interface GameObserver
+ * @brief Reçoit chaque coup joué dans une partie, sous forme de différence (MoveDiff).
+ *
+ * La méthode est appelée de façon synchrone, depuis le thread qui a joué le coup (EDT, thread de
+ * session ou de recherche), avant que la partie ne passe au tour suivant. Elle ne doit jamais
+ * bloquer (entrée-sortie, attente d'un verrou disputé, envoi réseau) : son temps s'ajoute à
+ * celui du coup, et donc à la latence de la réponse de l'IA. Tout travail coûteux est confié à
+ * un autre thread, comme le fait SpectatorHub, qui range le coup dans un anneau sans verrou et laisse chaque
+ * spectateur le lire à son rythme. Le même objet MoveDiff est remis à tous les observateurs.
+ */
+public interface GameObserver {
+
+    /**
+     * @brief Appelée après chaque coup joué.
+     * @param diff Le coup, le résultat éventuel et la position qui en découle.
+     */
+    void onMove(MoveDiff diff);
+}
@@ -0,0 +1,134 @@
+/**
+ * @file Lines.java
+ * @brief Définition de la classe Lines qui liste les alignements gagnants du plateau.
+ */
+
+package Puissance4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @class Lines
+ * @brief Table des alignements de 4 cases du plateau.
+ *
+ * Les cases sont numérotées ligne * BOARD_SIZE + colonne. La table est calculée une seule fois
+ * et permet de tester une victoire ou une menace sans parcourir tout le plateau.
+ *
+ * Les masques de bits du moteur (Board, Position, évaluateurs par lots) rangent une case par bit
+ * d'un long : le moteur est limité à MAX_CELLS cases, soit 8x8. Un BOARD_SIZE plus grand est
+ * refusé au chargement de la classe plutôt que de tronquer les masques.
+ *
+ * Le code en base 3 de PositionCodec, repris par les clés du solveur, est plus contraint : il
+ * n'admet que MAX_CODED_CELLS cases, soit 6x6. Sur 7x7 ou 8x8, le jeu local fonctionne, mais le
+ * service d'analyse, la recherche distribuée, Perft, le générateur de charge distant et le
+ * solveur rétrograde refusent de démarrer.
+ */
+public final class Lines {
+    public static final int CELL_COUNT = Constants.BOARD_SIZE * Constants.BOARD_SIZE; ///< Nombre de cases du plateau.
+    public static final int MAX_CELLS = Long.SIZE; ///< Nombre maximal de cases représentables dans un masque.
+    public static final int MAX_CODED_CELLS = 39; ///< Nombre maximal de cases du code en base 3 (3^39 * 2 < 2^63).
+
+    static {
+        if (CELL_COUNT > MAX_CELLS) {
+            throw new IllegalStateException("Plateau " + Constants.BOARD_SIZE + "x" + Constants.BOARD_SIZE
+                    + " trop grand pour les masques de 64 bits (8x8 au plus)");
+        }
+    }
+
+    /**
+     * @brief Liste des alignements : chaque entrée contient les 4 cases d'un alignement.
+     */
+    public static final int[][] WINDOWS = createWindows();
+
+    /**
+     * @brief Pour chaque case, indices (dans WINDOWS) des alignements qui la contiennent.
+     */
+    public static final int[][] CELL_WINDOWS = createCellWindows();
+
+    /**
+     * @brief Masque de toutes les cases du plateau (bit i = case i).
+     */
+    public static final long FULL_MASK = CELL_COUNT == 64 ? -1L : (1L << CELL_COUNT) - 1;
+
+    /**
+     * @brief Masque de bits de chaque alignement, dans l'ordre de WINDOWS.
+     *
+     * Seule table des alignements sous forme de masques : Position, les évaluateurs par lots,
+     * Perft et la recherche l'utilisent tous.
+     */
+    public static final long[] WINDOW_MASKS = createWindowMasks();
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private Lines() {
+    }
+
+    /**
+     * @brief Calcule tous les alignements de 4 cases (lignes, colonnes et diagonales).
+     * @return Le tableau des alignements.
+     */
+    private static int[][] createWindows() {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        List<int[]> windows = new ArrayList<>();
+
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                for (int[] dir : directions) {
+                    int endRow = row + 3 * dir[0];
+                    int endCol = col + 3 * dir[1];
+                    if (endRow < 0 || endRow >= Constants.BOARD_SIZE || endCol < 0 || endCol >= Constants.BOARD_SIZE) {
+                        continue;
+                    }
+
+                    int[] window = new int[4];
+                    for (int i = 0; i < 4; i++) {
+                        window[i] = (row + i * dir[0]) * Constants.BOARD_SIZE + col + i * dir[1];
+                    }
+                    windows.add(window);
+                }
+            }
+        }
+        return windows.toArray(new int[0][]);
+    }
+
+    /**
+     * @brief Calcule le masque de bits de chaque alignement.
+     * @return Les masques, dans l'ordre de WINDOWS.
+     */
+    private static long[] createWindowMasks() {
+        long[] masks = new long[WINDOWS.length];
+        for (int w = 0; w < masks.length; w++) {
+            for (int cell : WINDOWS[w]) {
+                masks[w] |= 1L << cell;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * @brief Calcule, pour chaque case, la liste des alignements qui la contiennent.
+     * @return Le tableau indexé par case.
+     */
+    private static int[][] createCellWindows() {
+        int[] counts = new int[CELL_COUNT];
+        for (int[] window : WINDOWS) {
+            for (int cell : window) {
+                counts[cell]++;
+            }
+        }
+
+        int[][] cellWindows = new int[CELL_COUNT][];
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            cellWindows[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int w = 0; w < WINDOWS.length; w++) {
+            for (int cell : WINDOWS[w]) {
+                cellWindows[cell][counts[cell]++] = w;
+            }
+        }
+        return cellWindows;
+    }
+}
@@ -2,25 +2,68 @@
  * @file Main.java
  * @brief Point d'entrée du programme Puissance 4.
  *
- * Cette classe contient la méthode main qui initialise l'interface graphique du jeu.
+ * Cette classe contient la méthode main qui initialise l'interface graphique du jeu,
+ * ou lance un processus de travail sans interface avec l'option --headless.
  */
 
 package Puissance4;
 
 import Puissance4.gui.GameWindow;
+import Puissance4.monitoring.MoveLatencyRecorder;
+import Puissance4.service.AnalysisServer;
+import Puissance4.service.SearchWorker;
+
+import java.util.Arrays;
 
 /**
  * @class Main
  * @brief Classe principale contenant le point d'entrée du programme.
+ *
+ * Le mode sans interface ne référence aucune classe Swing ou AWT : elles ne sont jamais chargées,
+ * ce qui réduit le temps de démarrage des processus de travail. Seule launchGui() les utilise.
  */
 public class Main {
+    private static final String HEADLESS_OPTION = "--headless"; ///< Option de lancement sans interface.
+    private static final String WORKER_OPTION = "--worker"; ///< Option de lancement d'un processus de recherche répartie.
+
     /**
      * @brief Méthode principale qui démarre l'application.
-     * @param args Arguments de la ligne de commande (non utilisés).
+     * @param args Arguments de la ligne de commande : aucun pour l'interface graphique, ou
+     *             "--headless port|- [threads] [profondeur] [budgetMillisParPosition]" pour servir
+     *             le protocole d'analyse sur une socket locale ou sur l'entrée/sortie standard, ou
+     *             "--worker port [tailleTableEnMo]" pour un processus de recherche répartie (DistributedSearch).
+     * @throws Exception Si le mode sans interface ne peut pas démarrer.
+     */
+    public static void main(String[] args) throws Exception {
+        // Objectif de latence et export des histogrammes, si demandés par propriétés système.
+        MoveLatencyRecorder.configureFromSystemProperties();
+        if (args.length > 0 && args[0].equals(HEADLESS_OPTION)) {
+            runHeadless(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(WORKER_OPTION)) {
+            System.setProperty("java.awt.headless", "true");
+            SearchWorker.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            launchGui();
+        }
+    }
+
+    /**
+     * @brief Lance un processus de travail sans interface.
+     * @param args Arguments du serveur d'analyse ; sans argument, l'entrée/sortie standard est utilisée.
+     * @throws Exception Si le serveur ne peut pas démarrer.
+     */
+    private static void runHeadless(String[] args) throws Exception {
+        // Garde-fou : une bibliothèque qui toucherait malgré tout à AWT ne chercherait pas d'écran.
+        System.setProperty("java.awt.headless", "true");
+        AnalysisServer.main(args.length > 0 ? args : new String[]{"-"});
+    }
+
+    /**
+     * @brief Construit et affiche l'interface graphique sur le thread de Swing.
      */
-    public static void main(String[] args) {
+    private static void launchGui() {
         javax.swing.SwingUtilities.invokeLater(() -> {
             new GameWindow();
         });
     }
-}
\ No newline at end of file
+}
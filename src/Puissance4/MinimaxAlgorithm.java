@@ -5,7 +5,12 @@
 
 package Puissance4;
 
+import Puissance4.monitoring.MoveLatencyRecorder;
+import Puissance4.monitoring.SearchEvent;
+import Puissance4.solver.PositionDatabase;
+
 import java.util.*;
+import java.util.function.IntSupplier;
 
 /**
  * @class MinimaxAlgorithm
@@ -18,6 +23,20 @@ public class MinimaxAlgorithm {
     private static int DEPTH = 3; ///< Profondeur de recherche pour l'algorithme Minimax.
     private static final char AI_PLAYER = 'O'; ///< Symbole du joueur IA.
     private static final char HUMAN_PLAYER = 'X'; ///< Symbole du joueur humain.
+    private static final int WIN_SCORE = 10000; ///< Score d'une victoire (du point de vue de l'IA).
+    private static int extensionDepth = 4; ///< Nombre maximal de coups forcés joués au-delà de la profondeur nominale.
+    private static final int THREAT_SEARCH_DEPTH = 8; ///< Nombre maximal de menaces enchaînées par la recherche de victoire forcée.
+    private static TranspositionTable transpositionTable; ///< Table de transposition partagée par les recherches (optionnelle).
+    private static MonteCarloTreeSearch monteCarlo; ///< Moteur Monte Carlo utilisé à la place de Minimax (optionnel).
+    private static PositionDatabase database; ///< Base de positions résolues consultée avant la recherche (optionnelle).
+    private static final int LMR_MIN_DEPTH = 3; ///< Profondeur restante minimale pour réduire un coup.
+    private static final int LMR_FULL_MOVES = 4; ///< Nombre de premiers coups toujours cherchés à pleine profondeur.
+    private static final int LMR_REDUCTION = 1; ///< Nombre de demi-coups retirés à un coup réduit.
+    private static boolean batchEvaluation; ///< Évalue d'un bloc les fils calmes des nœuds à un demi-coup des feuilles.
+    private static final int NOT_QUIET = Integer.MIN_VALUE; ///< Marque un fils qui doit passer par la recherche normale.
+    private static final ThreadLocal<int[]> ORDER_SCORES = ThreadLocal.withInitial(() -> new int[Lines.CELL_COUNT]); ///< Scores d'ordonnancement de chaque thread, réutilisés d'un nœud à l'autre.
+    private static final ThreadLocal<BatchEvaluator> BATCH_EVALUATORS = ThreadLocal.withInitial(BatchEvaluator::create); ///< Évaluateur par lots de chaque thread de recherche.
+    private static final int FUTILITY_MARGIN = 500; ///< Variation de evaluateBoard couverte pour un coup calme (plus de 99,8 % des coups mesurés).
 
     /**
      * @brief Détermine le meilleur coup pour l'IA.
@@ -25,10 +44,145 @@ public class MinimaxAlgorithm {
      * @return Le meilleur coup sous forme de tableau d'entiers [ligne, colonne].
      */
     public static int[] getBestMove(Board board) {
-        List<int[]> moves = board.getAvailableMoves(); ///< Liste des coups disponibles.
-        int[] bestMove = null; ///< Meilleur coup trouvé.
-        int bestScore = Integer.MIN_VALUE; ///< Meilleur score trouvé.
+        return getBestMove(board, CancellationToken.NONE);
+    }
+
+    /**
+     * @brief Détermine le meilleur coup pour l'IA, avec possibilité d'interrompre la recherche.
+     * @param board Le plateau de jeu actuel.
+     * @param token Le jeton d'annulation consulté pendant la recherche.
+     * @return Le meilleur coup sous forme de tableau d'entiers [ligne, colonne], ou null si la recherche a été annulée.
+     */
+    public static int[] getBestMove(Board board, CancellationToken token) {
+        long start = System.nanoTime();
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int depth = DEPTH;
+        int[] immediateMove = findImmediateMove(board, token);
+        if (immediateMove != null) return commitSearch(event, start, board, depth, null, immediateMove, token);
+
+        // Évaluation des coups possibles avec l'algorithme Minimax.
+        SearchContext context = new SearchContext(token);
+        int[] move = searchRoot(board, board.getAvailableMoves(), depth, context);
+        return commitSearch(event, start, board, depth, context, move, token);
+    }
+
+    /**
+     * @brief Détermine le meilleur coup pour l'IA selon un profil de difficulté.
+     *
+     * La recherche s'approfondit itérativement jusqu'à la profondeur du profil. Si le budget
+     * de nœuds ou de temps est épuisé, le meilleur coup de la dernière profondeur terminée est joué.
+     * @param board Le plateau de jeu actuel.
+     * @param profile Le profil de difficulté (profondeur, budgets, bruit).
+     * @param token Le jeton d'annulation consulté pendant la recherche.
+     * @return Le meilleur coup sous forme de tableau d'entiers [ligne, colonne], ou null si la recherche a été annulée.
+     */
+    public static int[] getBestMove(Board board, DifficultyProfile profile, CancellationToken token) {
+        return getBestMove(board, profile, null, token);
+    }
+
+    /**
+     * @brief Détermine le meilleur coup pour l'IA selon un profil de difficulté et une pendule de partie.
+     *
+     * La pendule remplace le budget de temps du profil : la recherche est interrompue à sa limite
+     * dure, et l'approfondissement s'arrête dès qu'elle le décide (TimeManager.shouldContinue()).
+     * La profondeur et le budget de nœuds du profil restent des plafonds. L'appelant encadre le
+     * coup par TimeManager.startMove() et TimeManager.endMove().
+     *
+     * Le budget de temps court dès le début : la recherche de menaces et le moteur Monte Carlo
+     * s'arrêtent à son échéance. La profondeur 1 est toujours cherchée jusqu'au bout, sans budget,
+     * pour que le coup joué soit un coup évalué ; les budgets s'appliquent aux profondeurs suivantes.
+     * @param board Le plateau de jeu actuel.
+     * @param profile Le profil de difficulté (profondeur, budget de nœuds, bruit).
+     * @param clock La pendule, dont le coup a été commencé, ou null pour le budget de temps du profil.
+     * @param token Le jeton d'annulation consulté pendant la recherche.
+     * @return Le meilleur coup sous forme de tableau d'entiers [ligne, colonne], ou null si la recherche a été annulée.
+     */
+    public static int[] getBestMove(Board board, DifficultyProfile profile, TimeManager clock, CancellationToken token) {
+        return getBestMove(board, profile, clock, token, false, false);
+    }
+
+    /**
+     * @brief Détermine le meilleur coup selon un profil, avec un élagage en avant propre à cette recherche.
+     *
+     * Réservée aux outils de mesure (SearchBenchmark) : voir SearchContext.setForwardPruning().
+     * @param board Le plateau de jeu actuel.
+     * @param profile Le profil de difficulté (profondeur, budget de nœuds, bruit).
+     * @param clock La pendule, dont le coup a été commencé, ou null pour le budget de temps du profil.
+     * @param token Le jeton d'annulation consulté pendant la recherche.
+     * @param reductions true pour activer les réductions des coups tardifs.
+     * @param futility true pour activer l'élagage de futilité.
+     * @return Le meilleur coup sous forme de tableau d'entiers [ligne, colonne], ou null si la recherche a été annulée.
+     */
+    static int[] getBestMove(Board board, DifficultyProfile profile, TimeManager clock, CancellationToken token,
+                             boolean reductions, boolean futility) {
+        long start = System.nanoTime();
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long timeBudget = clock != null ? clock.getHardLimitMillis() : profile.getTimeBudgetMillis();
+        SearchContext context = new SearchContext(token, profile.getNodeBudget(), timeBudget, profile.getNoise());
+        context.setForwardPruning(reductions, futility);
+        int[] immediateMove = findImmediateMove(board, timeBudget > 0 ? token.withTimeout(timeBudget) : token);
+        if (immediateMove != null) return commitSearch(event, start, board, profile.getDepth(), null, immediateMove, token);
+
+        List<int[]> moves = board.getAvailableMoves();
+        if (moves.isEmpty()) return commitSearch(event, start, board, profile.getDepth(), null, null, token);
+
+        int[] bestMove = null;
+        for (int depth = 1; depth <= profile.getDepth(); depth++) {
+            // Profondeur 1 sans budget : seule une annulation peut laisser la recherche sans coup évalué.
+            context.setBudgeted(depth > 1);
+            int[] move = searchRoot(board, moves, depth, context);
+            if (move == null) break;
+            bestMove = move;
+            if (clock != null && depth < profile.getDepth() && !clock.shouldContinue(move, context.getRootScore())) break;
+        }
+
+        if (token.isCancelled()) return commitSearch(event, start, board, profile.getDepth(), context, null, token);
+        return commitSearch(event, start, board, profile.getDepth(), context, bestMove, token);
+    }
+
+    /**
+     * @brief Termine l'événement JFR d'une recherche, enregistre sa durée et retourne son coup.
+     *
+     * Les champs de l'événement ne sont calculés que s'il est enregistré. La durée est ajoutée à
+     * l'histogramme de la profondeur demandée et du nombre de cases vides (MoveLatencyRecorder).
+     * @param event L'événement commencé au début de la recherche.
+     * @param start L'instant (System.nanoTime) du début de la recherche.
+     * @param board Le plateau cherché.
+     * @param depth La profondeur demandée.
+     * @param context L'état de la recherche Minimax, ou null si le coup a été trouvé sans elle.
+     * @param move Le coup choisi, ou null.
+     * @param token Le jeton d'annulation de la recherche.
+     * @return Le coup choisi.
+     */
+    private static int[] commitSearch(SearchEvent event, long start, Board board, int depth, SearchContext context,
+                                      int[] move, CancellationToken token) {
+        int emptyCells = Lines.CELL_COUNT - Long.bitCount(board.getMask('X') | board.getMask('O'));
+        MoveLatencyRecorder.record(depth, emptyCells, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.shortcut = context == null;
+            event.depth = context != null ? context.getCompletedDepth() : 0;
+            event.nodes = context != null ? context.getNodes() : 0;
+            event.score = context != null ? context.getRootScore() : 0;
+            event.move = move != null ? move[0] * Constants.BOARD_SIZE + move[1] : -1;
+            event.cancelled = token.shouldStop() || (context != null && context.isAborted());
+            event.commit();
+        }
+        return move;
+    }
 
+    /**
+     * @brief Recherche les coups qui ne nécessitent pas de recherche Minimax.
+     *
+     * Victoire immédiate, blocage d'une victoire adverse, position résolue dans la base,
+     * victoire forcée par menaces, ou délégation au moteur Monte Carlo s'il est configuré.
+     * @param board Le plateau de jeu actuel.
+     * @param token Le jeton d'annulation, dont l'échéance borne la recherche de menaces et le moteur Monte Carlo.
+     * @return Le coup à jouer, ou null si une recherche Minimax est nécessaire.
+     */
+    private static int[] findImmediateMove(Board board, CancellationToken token) {
         // Recherche de coups gagnants immédiats pour l'IA.
         int[] winningMove = findWinningMove(board, AI_PLAYER);
         if (winningMove != null) return winningMove;
@@ -37,12 +191,41 @@ public class MinimaxAlgorithm {
         int[] blockingMove = findWinningMove(board, HUMAN_PLAYER);
         if (blockingMove != null) return blockingMove;
 
-        // Évaluation des coups possibles avec l'algorithme Minimax.
-        for (int[] move : moves) {
+        // Position résolue hors ligne : le coup exact est connu sans recherche.
+        int[] solvedMove = probeDatabase(board);
+        if (solvedMove != null) return solvedMove;
+
+        // Victoire forcée par une suite de menaces, trouvée sans recherche complète.
+        int[] forcedWin = ThreatSpaceSearch.findForcedWin(board, AI_PLAYER, THREAT_SEARCH_DEPTH, token);
+        if (forcedWin != null) return forcedWin;
+
+        // Moteur alternatif : recherche Monte Carlo à budget de temps.
+        if (monteCarlo != null) return monteCarlo.getBestMove(board, AI_PLAYER, token);
+
+        return null;
+    }
+
+    /**
+     * @brief Évalue tous les coups de la racine à une profondeur donnée.
+     * @param board Le plateau de jeu actuel.
+     * @param moves Les coups disponibles.
+     * @param depth La profondeur de recherche.
+     * @param context L'état de la recherche.
+     * @return Le meilleur coup, ou null si la recherche a été interrompue.
+     */
+    private static int[] searchRoot(Board board, List<int[]> moves, int depth, SearchContext context) {
+        int[] bestMove = null; ///< Meilleur coup trouvé.
+        int bestScore = Integer.MIN_VALUE; ///< Meilleur score trouvé.
+
+        for (int i = 0; i < moves.size(); i++) {
+            int[] move = moves.get(i);
             board.placePiece(move[0], move[1], AI_PLAYER);
-            int score = minimax(board, DEPTH, Integer.MIN_VALUE, Integer.MAX_VALUE, false);
+            int score = minimax(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, false, null, context);
             board.removePiece(move[0], move[1]);
 
+            // Recherche interrompue : aucun coup n'est proposé.
+            if (context.isAborted()) return null;
+
             // Évaluation stratégique supplémentaire.
             score += evaluateStrategicPosition(board, move);
 
@@ -52,9 +235,356 @@ public class MinimaxAlgorithm {
             }
         }
 
+        context.completeDepth(depth, bestScore);
         return bestMove;
     }
 
+    /**
+     * @brief Cherche le meilleur coup à profondeur fixe, sans raccourci ni bruit.
+     *
+     * Réservée aux outils de mesure : seule la recherche Minimax elle-même est exercée.
+     * @param board Le plateau de jeu actuel (l'IA doit jouer).
+     * @param depth La profondeur de recherche.
+     * @param context L'état de la recherche, qui compte les nœuds visités.
+     * @return Le meilleur coup, ou null si la recherche a été interrompue ou qu'il n'y a aucun coup.
+     */
+    static int[] searchFixedDepth(Board board, int depth, SearchContext context) {
+        return searchRoot(board, board.getAvailableMoves(), depth, context);
+    }
+
+    /**
+     * @brief Cherche le meilleur coup à profondeur fixe, sans raccourci ni bruit.
+     *
+     * Référence des recherches réparties, qui doivent donner le même coup.
+     * @param board Le plateau de jeu actuel (l'IA doit jouer).
+     * @param depth La profondeur de recherche.
+     * @param token Le jeton d'annulation.
+     * @return Le meilleur coup, ou null si la recherche a été annulée ou qu'il n'y a aucun coup.
+     */
+    public static int[] searchFixedDepth(Board board, int depth, CancellationToken token) {
+        return searchFixedDepth(board.copy(), depth, new SearchContext(token));
+    }
+
+    /**
+     * @brief Évalue un sous-arbre dans une fenêtre alpha-bêta qui peut se resserrer pendant la recherche.
+     *
+     * Équivaut à un nœud Minimax interne : le résultat v est exact s'il est strictement dans la
+     * fenêtre, une borne supérieure si v <= alpha, une borne inférieure si v >= beta. Les bornes sont
+     * relues avant chaque coup du nœud : un coordinateur qui apprend un meilleur score ailleurs peut
+     * ainsi resserrer la fenêtre d'une recherche déjà lancée. Les bornes ne doivent que se resserrer ;
+     * le résultat se classe alors avec les dernières valeurs fournies.
+     * @param board Le plateau (rendu dans son état initial), avec les pions de l'IA en 'O'.
+     * @param depth La profondeur restante.
+     * @param aiToMove true si l'IA ('O') doit jouer (nœud maximiseur).
+     * @param alpha Fournit la borne inférieure courante.
+     * @param beta Fournit la borne supérieure courante.
+     * @param token Le jeton d'annulation.
+     * @return {score, nœuds visités}, ou null si la recherche a été interrompue.
+     */
+    public static long[] searchWindow(Board board, int depth, boolean aiToMove, IntSupplier alpha, IntSupplier beta,
+                                      CancellationToken token) {
+        SearchContext context = new SearchContext(token);
+        int score;
+        if (depth == 0 || board.isGameOver()) {
+            score = minimax(board, depth, alpha.getAsInt(), beta.getAsInt(), aiToMove, null, context);
+        } else {
+            score = aiToMove ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            for (int[] move : board.getCandidateMoves()) {
+                int low = alpha.getAsInt();
+                int high = beta.getAsInt();
+                if (aiToMove ? score >= high : score <= low) {
+                    break;
+                }
+                board.placePiece(move[0], move[1], aiToMove ? AI_PLAYER : HUMAN_PLAYER);
+                int eval = minimax(board, depth - 1, aiToMove ? Math.max(low, score) : low,
+                        aiToMove ? high : Math.min(high, score), !aiToMove, null, context);
+                board.removePiece(move[0], move[1]);
+                if (context.isAborted()) {
+                    break;
+                }
+                score = aiToMove ? Math.max(score, eval) : Math.min(score, eval);
+            }
+        }
+        return context.isAborted() ? null : new long[]{score, context.getNodes()};
+    }
+
+    /**
+     * @brief Cherche dans la base de positions un coup qui conserve le résultat exact de la position.
+     * @param board Le plateau de jeu actuel.
+     * @return Un coup gagnant (ou menant au match nul) d'après la base, ou null si la position n'y est pas résolue.
+     */
+    private static int[] probeDatabase(Board board) {
+        if (database == null) {
+            return null;
+        }
+
+        int result = database.probe(board, AI_PLAYER);
+        if (result != PositionDatabase.WIN && result != PositionDatabase.DRAW) {
+            // Position inconnue ou perdue : la recherche choisira la meilleure résistance.
+            return null;
+        }
+
+        int expected = result == PositionDatabase.WIN ? PositionDatabase.LOSS : PositionDatabase.DRAW;
+        for (int[] move : board.getAvailableMoves()) {
+            board.placePiece(move[0], move[1], AI_PLAYER);
+            int childResult = database.probe(board, HUMAN_PLAYER);
+            board.removePiece(move[0], move[1]);
+
+            if (childResult == expected) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @brief Analyse une position par approfondissement itératif.
+     *
+     * Pour chaque profondeur de 1 à maxDepth, tous les coups sont évalués et le résultat
+     * (score de chaque case et variante principale) est transmis au listener. La recherche
+     * s'effectue sur une copie du plateau : la position passée n'est jamais modifiée.
+     * L'analyse s'arrête dès que le jeton est annulé ; la profondeur en cours n'est alors pas publiée.
+     * @param board Le plateau de jeu à analyser.
+     * @param player Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @param maxDepth La profondeur maximale à atteindre.
+     * @param listener Le destinataire des résultats intermédiaires.
+     * @param token Le jeton d'annulation de l'analyse.
+     */
+    public static void analyze(Board board, char player, int maxDepth, AnalysisListener listener, CancellationToken token) {
+        analyze(board, player, maxDepth, 0, 0, listener, token);
+    }
+
+    /**
+     * @brief Analyse une position par approfondissement itératif, dans la limite de budgets.
+     *
+     * Identique à analyze(Board, char, int, AnalysisListener, CancellationToken), mais l'analyse
+     * s'arrête aussi quand le budget de nœuds ou de temps est épuisé ; seules les profondeurs
+     * terminées sont publiées.
+     * @param board Le plateau de jeu à analyser.
+     * @param player Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @param maxDepth La profondeur maximale à atteindre.
+     * @param nodeBudget Nombre maximal de nœuds pour toute l'analyse (0 = illimité).
+     * @param timeBudgetMillis Durée maximale de l'analyse en millisecondes (0 = illimitée).
+     * @param listener Le destinataire des résultats intermédiaires.
+     * @param token Le jeton d'annulation de l'analyse.
+     */
+    public static void analyze(Board board, char player, int maxDepth, long nodeBudget, long timeBudgetMillis,
+                               AnalysisListener listener, CancellationToken token) {
+        // Le moteur raisonne toujours pour AI_PLAYER : on inverse les pions si l'autre joueur doit jouer.
+        Board searchBoard = player == AI_PLAYER ? board.copy() : swapPlayers(board);
+        List<int[]> moves = searchBoard.getAvailableMoves();
+        if (moves.isEmpty() || searchBoard.isGameOver()) {
+            return;
+        }
+
+        SearchContext context = new SearchContext(token, nodeBudget, timeBudgetMillis);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int[][] scores = new int[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
+            for (int[] row : scores) {
+                Arrays.fill(row, AnalysisResult.NO_SCORE);
+            }
+
+            int[] bestMove = null;
+            int bestScore = Integer.MIN_VALUE;
+            int[] bestLine = null;
+
+            for (int[] move : moves) {
+                int[] line = new int[depth + 1];
+                searchBoard.placePiece(move[0], move[1], AI_PLAYER);
+                int score;
+                if (searchBoard.checkWin(AI_PLAYER)) {
+                    // Coup gagnant immédiat : inutile de chercher plus loin.
+                    score = evaluateBoard(searchBoard);
+                } else {
+                    score = minimax(searchBoard, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, false, line, context);
+                }
+                searchBoard.removePiece(move[0], move[1]);
+                if (context.isAborted() || token.shouldStop()) {
+                    return;
+                }
+                score += evaluateStrategicPosition(searchBoard, move);
+
+                scores[move[0]][move[1]] = score;
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    bestLine = line;
+                }
+            }
+
+            List<int[]> principalVariation = new ArrayList<>();
+            principalVariation.add(bestMove);
+            for (int i = 1; i <= bestLine[0]; i++) {
+                principalVariation.add(new int[]{bestLine[i] / Constants.BOARD_SIZE, bestLine[i] % Constants.BOARD_SIZE});
+            }
+
+            listener.onDepthCompleted(new AnalysisResult(depth, scores, bestMove, bestScore, principalVariation));
+        }
+    }
+
+    /**
+     * @brief Cherche les meilleurs coups d'une position, avec leur score exact et leur variante principale.
+     * @param board Le plateau de jeu à analyser (non modifié).
+     * @param player Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @param count Le nombre de coups demandés.
+     * @param maxDepth La profondeur maximale à atteindre.
+     * @param token Le jeton d'annulation de la recherche.
+     * @return Les coups du meilleur au moins bon (au plus count), vide si la partie est terminée.
+     * @see #getTopMoves(Board, char, int, int, long, long, CancellationToken)
+     */
+    public static List<MoveLine> getTopMoves(Board board, char player, int count, int maxDepth, CancellationToken token) {
+        return getTopMoves(board, player, count, maxDepth, 0, 0, token);
+    }
+
+    /**
+     * @brief Cherche les meilleurs coups d'une position par approfondissement itératif, dans la limite de budgets.
+     *
+     * Recherche multi-variantes : à chaque profondeur, les coups sont cherchés une seule fois, du
+     * mieux classé à la profondeur précédente au moins bon, avec pour borne inférieure commune le
+     * score du count-ième meilleur coup déjà trouvé. Un coup qui ne la dépasse pas est écarté sur
+     * une simple borne ; seuls les count meilleurs reçoivent un score exact. Leur variante
+     * principale est ensuite retrouvée par une recherche à fenêtre minimale autour de ce score. La
+     * table de transposition, si elle est configurée, sert à toutes ces recherches. Le résultat
+     * est celui de la dernière profondeur terminée. Avec count = 1, le score est celui de la
+     * recherche ordinaire à la même profondeur, mais pas forcément le coup : les coups de la racine
+     * sont réordonnés d'une profondeur à l'autre, et entre coups de même score c'est le premier
+     * cherché qui est gardé. Avec les réductions des coups tardifs, les scores sont ceux de la
+     * recherche réduite, qui dépendent de la fenêtre : ils ne sont plus exacts.
+     * @param board Le plateau de jeu à analyser (non modifié).
+     * @param player Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @param count Le nombre de coups demandés.
+     * @param maxDepth La profondeur maximale à atteindre.
+     * @param nodeBudget Nombre maximal de nœuds pour toute la recherche (0 = illimité).
+     * @param timeBudgetMillis Durée maximale de la recherche en millisecondes (0 = illimitée).
+     * @param token Le jeton d'annulation de la recherche.
+     * @return Les coups du meilleur au moins bon (au plus count), vide si la partie est terminée
+     *         ou si aucune profondeur n'a pu être terminée.
+     */
+    public static List<MoveLine> getTopMoves(Board board, char player, int count, int maxDepth, long nodeBudget,
+                                             long timeBudgetMillis, CancellationToken token) {
+        // Le moteur raisonne toujours pour AI_PLAYER : on inverse les pions si l'autre joueur doit jouer.
+        Board searchBoard = player == AI_PLAYER ? board.copy() : swapPlayers(board);
+        List<int[]> moves = searchBoard.getAvailableMoves();
+        if (count <= 0 || moves.isEmpty() || searchBoard.isGameOver()) {
+            return Collections.emptyList();
+        }
+
+        SearchContext context = new SearchContext(token, nodeBudget, timeBudgetMillis);
+        List<MoveLine> lines = Collections.emptyList();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            List<MoveLine> completed = searchTopMoves(searchBoard, moves, count, depth, context);
+            if (completed == null) break;
+            lines = completed;
+        }
+        return lines;
+    }
+
+    /**
+     * @brief Cherche les count meilleurs coups de la racine à une profondeur donnée (voir getTopMoves()).
+     * @param board Le plateau de jeu actuel (l'IA doit jouer).
+     * @param moves Les coups disponibles, réordonnés en sortie : les meilleurs d'abord.
+     * @param count Le nombre de coups demandés.
+     * @param depth La profondeur de recherche.
+     * @param context L'état de la recherche.
+     * @return Les coups du meilleur au moins bon, ou null si la recherche a été interrompue.
+     */
+    static List<MoveLine> searchTopMoves(Board board, List<int[]> moves, int count, int depth, SearchContext context) {
+        int size = Math.min(count, moves.size());
+        int[] indices = new int[size]; ///< Indices dans moves des meilleurs coups, du meilleur au moins bon.
+        int[] scores = new int[size]; ///< Scores de ces coups, évaluation stratégique comprise.
+        int[] values = new int[size]; ///< Scores Minimax de ces coups, sans l'évaluation stratégique.
+        int filled = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            int[] move = moves.get(i);
+            int strategic = evaluateStrategicPosition(board, move);
+            // Tant que la liste n'est pas pleine, tout coup y entre : pas de borne.
+            int lower = filled < size ? Integer.MIN_VALUE : scores[size - 1] - strategic;
+
+            board.placePiece(move[0], move[1], AI_PLAYER);
+            int value = board.checkWin(AI_PLAYER) ? evaluateBoard(board)
+                    : minimax(board, depth, lower, Integer.MAX_VALUE, false, null, context);
+            board.removePiece(move[0], move[1]);
+            if (context.isAborted()) return null;
+            if (filled == size && value <= lower) continue;
+
+            // Insertion à sa place ; à score égal, le premier coup trouvé reste devant.
+            int score = value + strategic;
+            int position = filled < size ? filled++ : size - 1;
+            while (position > 0 && scores[position - 1] < score) {
+                indices[position] = indices[position - 1];
+                scores[position] = scores[position - 1];
+                values[position] = values[position - 1];
+                position--;
+            }
+            indices[position] = i;
+            scores[position] = score;
+            values[position] = value;
+        }
+
+        List<MoveLine> lines = new ArrayList<>(filled);
+        for (int k = 0; k < filled; k++) {
+            int[] move = moves.get(indices[k]);
+            List<int[]> principalVariation = new ArrayList<>();
+            principalVariation.add(move);
+            board.placePiece(move[0], move[1], AI_PLAYER);
+            if (!board.checkWin(AI_PLAYER)) {
+                int[] line = new int[depth + 1];
+                int value = values[k];
+                // Fenêtre minimale autour du score connu ; fenêtre complète si le score a changé
+                // (réductions des coups tardifs, absentes quand la variante est demandée).
+                int result = minimax(board, depth, value - 1, value + 1, false, line, context);
+                if (!context.isAborted() && result != value) {
+                    minimax(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE, false, line, context);
+                }
+                for (int j = 1; j <= line[0]; j++) {
+                    principalVariation.add(new int[]{line[j] / Constants.BOARD_SIZE, line[j] % Constants.BOARD_SIZE});
+                }
+            }
+            board.removePiece(move[0], move[1]);
+            if (context.isAborted()) return null;
+            lines.add(new MoveLine(move, scores[k], principalVariation));
+        }
+
+        // Profondeur suivante : les meilleurs coups d'abord, pour que la borne commune monte vite.
+        List<int[]> ordered = new ArrayList<>(moves.size());
+        boolean[] taken = new boolean[moves.size()];
+        for (int k = 0; k < filled; k++) {
+            ordered.add(moves.get(indices[k]));
+            taken[indices[k]] = true;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            if (!taken[i]) {
+                ordered.add(moves.get(i));
+            }
+        }
+        moves.clear();
+        moves.addAll(ordered);
+
+        context.completeDepth(depth, scores[0]);
+        return lines;
+    }
+
+    /**
+     * @brief Crée une copie du plateau où les pions 'X' et 'O' sont échangés.
+     * @param board Le plateau à copier.
+     * @return La copie avec les joueurs inversés.
+     */
+    private static Board swapPlayers(Board board) {
+        Board swapped = new Board();
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                char piece = board.getPiece(row, col);
+                if (piece == AI_PLAYER) {
+                    swapped.placePiece(row, col, HUMAN_PLAYER);
+                } else if (piece == HUMAN_PLAYER) {
+                    swapped.placePiece(row, col, AI_PLAYER);
+                }
+            }
+        }
+        return swapped;
+    }
+
     /**
      * @brief Recherche un coup gagnant immédiat pour un joueur donné.
      * @param board Le plateau de jeu actuel.
@@ -62,7 +592,8 @@ public class MinimaxAlgorithm {
      * @return Le coup gagnant sous forme de tableau d'entiers [ligne, colonne], ou null s'il n'y en a pas.
      */
     private static int[] findWinningMove(Board board, char player) {
-        for (int[] move : board.getAvailableMoves()) {
+        // Un coup gagnant complète un alignement : il touche forcément un pion déjà posé.
+        for (int[] move : board.getCandidateMoves()) {
             board.placePiece(move[0], move[1], player);
             boolean isWinningMove = board.checkWin(player);
             board.removePiece(move[0], move[1]);
@@ -76,11 +607,14 @@ public class MinimaxAlgorithm {
 
     /**
      * @brief Évalue la position stratégique d'un coup.
+     *
+     * Bonus ajouté au score Minimax de chaque coup de la racine ; public pour les coordinateurs
+     * qui répartissent la racine sur d'autres processus.
      * @param board Le plateau de jeu actuel.
      * @param move Le coup à évaluer sous forme de tableau d'entiers [ligne, colonne].
      * @return Le score stratégique du coup.
      */
-    private static int evaluateStrategicPosition(Board board, int[] move) {
+    public static int evaluateStrategicPosition(Board board, int[] move) {
         int strategicScore = 0; ///< Score stratégique du coup.
 
         // Bonus pour les positions centrales.
@@ -191,47 +725,385 @@ public class MinimaxAlgorithm {
      * @param alpha La valeur alpha pour l'élagage.
      * @param beta La valeur beta pour l'élagage.
      * @param isMaximizing Indique si le joueur actuel est le maximiseur (true) ou le minimiseur (false).
-     * @return Le score évalué du plateau.
+     * @param line Tableau recevant la variante principale (line[0] = nombre de coups, puis les cases
+     *             ligne * BOARD_SIZE + colonne), de taille depth + 1, ou null si elle n'est pas demandée.
+     * @param context L'état de la recherche (compteur de nœuds et demande d'arrêt).
+     * @return Le score évalué du plateau, sans signification si la recherche a été interrompue.
      */
-    private static int minimax(Board board, int depth, int alpha, int beta, boolean isMaximizing) {
-        if (depth == 0 || board.isGameOver()) {
+    private static int minimax(Board board, int depth, int alpha, int beta, boolean isMaximizing, int[] line, SearchContext context) {
+        if (line != null) {
+            line[0] = 0;
+        }
+
+        if (context.visitNode()) {
+            return 0;
+        }
+
+        if (board.isGameOver()) {
             return evaluateBoard(board);
         }
 
+        if (depth == 0) {
+            // Sans extension, la feuille reçoit l'évaluation statique, victoires immédiates comprises.
+            int leaf = extensionDepth == 0 ? evaluateBoard(board) : extendForcedMoves(board, extensionDepth, isMaximizing);
+            return leaf + context.noise(board.getMask(HUMAN_PLAYER), board.getMask(AI_PLAYER));
+        }
+
+        // Élagage en avant : jamais quand la variante principale est demandée, ni sur les coups
+        // tactiques (victoire ou blocage immédiats), que seule une recherche complète évalue bien.
+        boolean reduce = context.isLateMoveReductions() && line == null && depth >= LMR_MIN_DEPTH;
+        boolean futility = context.isFutilityPruning() && line == null && depth == 1;
+
+        List<int[]> moves = board.getCandidateMoves();
+        if (reduce) {
+            // Les réductions n'ont de sens que si les coups tardifs sont vraiment les moins prometteurs.
+            orderMoves(board, moves);
+        }
+        // Les scores bruités d'un profil faible ne doivent pas se retrouver dans la table partagée.
+        TranspositionTable table = context.hasNoise() ? null : transpositionTable;
+        long hash = 0;
+        if (table != null) {
+            hash = Zobrist.hash(board, isMaximizing ? AI_PLAYER : HUMAN_PLAYER);
+            long entry = table.probe(hash);
+            if (entry != 0) {
+                // Les coupures ne sont pas utilisées quand la variante principale est demandée.
+                if (line == null && TranspositionTable.depth(entry) >= depth) {
+                    int score = TranspositionTable.score(entry);
+                    int flag = TranspositionTable.flag(entry);
+                    if (flag == TranspositionTable.EXACT) return score;
+                    if (flag == TranspositionTable.LOWER_BOUND) alpha = Math.max(alpha, score);
+                    if (flag == TranspositionTable.UPPER_BOUND) beta = Math.min(beta, score);
+                    if (beta <= alpha) return score;
+                }
+                moveToFront(moves, TranspositionTable.move(entry));
+            }
+        }
+
+        long tacticalCells = reduce || futility ? winningCells(board, AI_PLAYER) | winningCells(board, HUMAN_PLAYER) : 0;
+        if (futility && tacticalCells == 0) {
+            // Nœud frontière sans coup tactique : un coup calme ne déplace pas l'évaluation de plus
+            // de FUTILITY_MARGIN, aucun fils ne peut donc sortir de la fenêtre du bon côté.
+            int staticEval = evaluateBoard(board);
+            if (isMaximizing ? staticEval + FUTILITY_MARGIN <= alpha : staticEval - FUTILITY_MARGIN >= beta) {
+                return staticEval;
+            }
+        }
+
+        // À un demi-coup des feuilles, les fils calmes sont évalués d'un seul bloc.
+        int[] leafScores = batchEvaluation && depth == 1 ? evaluateQuietChildren(board, moves, isMaximizing, context) : null;
+
+        // Fenêtre de recherche effective, pour qualifier le score stocké dans la table.
+        int windowAlpha = alpha;
+        int windowBeta = beta;
+        int[] childLine = line != null ? new int[depth] : null;
+        int[] bestMove = null;
+        int result;
+
         if (isMaximizing) {
             int maxEval = Integer.MIN_VALUE;
-            for (int[] move : board.getAvailableMoves()) {
+            for (int i = 0; i < moves.size(); i++) {
+                int[] move = moves.get(i);
                 board.placePiece(move[0], move[1], AI_PLAYER);
-                int eval = minimax(board, depth - 1, alpha, beta, false);
+                int eval;
+                if (reduce && i >= LMR_FULL_MOVES && !isTactical(tacticalCells, move)) {
+                    // Coup tardif : recherche réduite, puis complète seulement s'il améliore alpha.
+                    eval = minimax(board, depth - 1 - LMR_REDUCTION, alpha, beta, false, null, context);
+                    if (eval > alpha && !context.isAborted()) {
+                        eval = minimax(board, depth - 1, alpha, beta, false, null, context);
+                    }
+                } else if (leafScores != null && leafScores[i] != NOT_QUIET) {
+                    eval = quietLeaf(leafScores[i], childLine, context);
+                } else {
+                    eval = minimax(board, depth - 1, alpha, beta, false, childLine, context);
+                }
                 board.removePiece(move[0], move[1]);
-                maxEval = Math.max(maxEval, eval);
+                if (context.isAborted()) return 0;
+                if (eval > maxEval) {
+                    maxEval = eval;
+                    bestMove = move;
+                    updateLine(line, move, childLine);
+                }
                 alpha = Math.max(alpha, eval);
                 if (beta <= alpha) break;
             }
-            return maxEval;
+            result = maxEval;
         } else {
             int minEval = Integer.MAX_VALUE;
-            for (int[] move : board.getAvailableMoves()) {
+            for (int i = 0; i < moves.size(); i++) {
+                int[] move = moves.get(i);
                 board.placePiece(move[0], move[1], HUMAN_PLAYER);
-                int eval = minimax(board, depth - 1, alpha, beta, true);
+                int eval;
+                if (reduce && i >= LMR_FULL_MOVES && !isTactical(tacticalCells, move)) {
+                    // Coup tardif : recherche réduite, puis complète seulement s'il améliore beta.
+                    eval = minimax(board, depth - 1 - LMR_REDUCTION, alpha, beta, true, null, context);
+                    if (eval < beta && !context.isAborted()) {
+                        eval = minimax(board, depth - 1, alpha, beta, true, null, context);
+                    }
+                } else if (leafScores != null && leafScores[i] != NOT_QUIET) {
+                    eval = quietLeaf(leafScores[i], childLine, context);
+                } else {
+                    eval = minimax(board, depth - 1, alpha, beta, true, childLine, context);
+                }
                 board.removePiece(move[0], move[1]);
-                minEval = Math.min(minEval, eval);
+                if (context.isAborted()) return 0;
+                if (eval < minEval) {
+                    minEval = eval;
+                    bestMove = move;
+                    updateLine(line, move, childLine);
+                }
                 beta = Math.min(beta, eval);
                 if (beta <= alpha) break;
             }
-            return minEval;
+            result = minEval;
+        }
+
+        if (table != null) {
+            int flag = result <= windowAlpha ? TranspositionTable.UPPER_BOUND
+                    : result >= windowBeta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            int cell = bestMove == null ? TranspositionTable.NO_MOVE : bestMove[0] * Constants.BOARD_SIZE + bestMove[1];
+            table.store(hash, cell, result, depth, flag);
+        }
+        return result;
+    }
+
+    /**
+     * @brief Évalue d'un bloc les fils d'un nœud dont la valeur est l'évaluation statique.
+     *
+     * Un fils est calme quand l'extension des coups forcés est désactivée, quand la partie y est
+     * terminée, ou quand le joueur au trait ne peut ni gagner immédiatement ni devoir bloquer. Sa valeur
+     * à profondeur 0 est alors exactement evaluateBoard : le résultat de la recherche ne change pas.
+     * @param board Le plateau du nœud.
+     * @param moves Les coups du nœud.
+     * @param isMaximizing Indique si c'est à l'IA de jouer dans le nœud.
+     * @param context L'état de la recherche, qui fournit le bruit d'évaluation des feuilles.
+     * @return Le score de chaque fils calme (même ordre que moves), ou NOT_QUIET.
+     */
+    private static int[] evaluateQuietChildren(Board board, List<int[]> moves, boolean isMaximizing, SearchContext context) {
+        long x = board.getMask(HUMAN_PLAYER);
+        long o = board.getMask(AI_PLAYER);
+        int count = moves.size();
+        long[] xMasks = new long[count];
+        long[] oMasks = new long[count];
+        boolean[] quiet = new boolean[count];
+        boolean[] ended = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            long bit = 1L << (moves.get(i)[0] * Constants.BOARD_SIZE + moves.get(i)[1]);
+            xMasks[i] = isMaximizing ? x : x | bit;
+            oMasks[i] = isMaximizing ? o | bit : o;
+
+            long mover = isMaximizing ? oMasks[i] : xMasks[i];
+            long next = isMaximizing ? xMasks[i] : oMasks[i];
+            ended[i] = hasWon(mover) || hasWon(next) || ((mover | next) & Lines.FULL_MASK) == Lines.FULL_MASK;
+            quiet[i] = extensionDepth == 0 || ended[i] || (!hasWinningCell(next, mover) && !hasWinningCell(mover, next));
+        }
+
+        int[] scores = new int[count];
+        BATCH_EVALUATORS.get().evaluate(xMasks, oMasks, count, scores);
+        for (int i = 0; i < count; i++) {
+            if (!quiet[i]) {
+                scores[i] = NOT_QUIET;
+            } else if (!ended[i]) {
+                // Même bruit que la feuille cherchée par minimax ; une partie terminée reste exacte.
+                scores[i] += context.noise(xMasks[i], oMasks[i]);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * @brief Compte un fils calme comme un nœud visité et retourne sa valeur déjà calculée.
+     * @param score La valeur du fils.
+     * @param childLine La variante du fils (vide), ou null.
+     * @param context L'état de la recherche.
+     * @return La valeur du fils.
+     */
+    private static int quietLeaf(int score, int[] childLine, SearchContext context) {
+        if (childLine != null) {
+            childLine[0] = 0;
+        }
+        context.visitNode();
+        return score;
+    }
+
+    /**
+     * @brief Indique si un masque contient un alignement complet.
+     * @param own Le masque du joueur.
+     * @return true si le joueur a gagné.
+     */
+    private static boolean hasWon(long own) {
+        for (long window : Lines.WINDOW_MASKS) {
+            if ((own & window) == window) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @brief Indique si un joueur peut gagner en un coup (version masques de winningCells).
+     * @param own Le masque du joueur.
+     * @param opponent Le masque de l'adversaire.
+     * @return true si un alignement contient 3 pions du joueur et une case vide.
+     */
+    private static boolean hasWinningCell(long own, long opponent) {
+        for (long window : Lines.WINDOW_MASKS) {
+            if ((opponent & window) == 0 && Long.bitCount(own & window) == 3) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @brief Trie les coups du plus au moins prometteur.
+     *
+     * Une case vaut la somme des pions présents dans les fenêtres de 4 cases qui la contiennent
+     * et qui ne mélangent pas les deux joueurs : ce sont les cases où une ligne peut encore se
+     * former, pour l'un ou l'autre camp. Le tri est stable : à score égal, l'ordre du plateau est conservé.
+     * @param board Le plateau de jeu actuel.
+     * @param moves La liste des coups, triée sur place.
+     */
+    private static void orderMoves(Board board, List<int[]> moves) {
+        long ai = board.getMask(AI_PLAYER);
+        long human = board.getMask(HUMAN_PLAYER);
+        int[] scores = ORDER_SCORES.get();
+        for (int[] move : moves) {
+            int cell = move[0] * Constants.BOARD_SIZE + move[1];
+            int score = 0;
+            for (int w : Lines.CELL_WINDOWS[cell]) {
+                long window = Lines.WINDOW_MASKS[w];
+                if ((ai & window) == 0 || (human & window) == 0) {
+                    score += Long.bitCount((ai | human) & window);
+                }
+            }
+            scores[cell] = score;
+        }
+
+        // Tri par insertion, stable et sans allocation : les listes ne dépassent pas CELL_COUNT coups.
+        for (int i = 1; i < moves.size(); i++) {
+            int[] move = moves.get(i);
+            int score = scores[move[0] * Constants.BOARD_SIZE + move[1]];
+            int j = i;
+            while (j > 0 && scores[moves.get(j - 1)[0] * Constants.BOARD_SIZE + moves.get(j - 1)[1]] < score) {
+                moves.set(j, moves.get(j - 1));
+                j--;
+            }
+            moves.set(j, move);
         }
     }
 
+    /**
+     * @brief Indique si un coup est tactique (victoire ou blocage immédiats).
+     * @param tacticalCells Masque des cases gagnantes des deux joueurs.
+     * @param move Le coup [ligne, colonne].
+     * @return true si la case du coup est dans le masque.
+     */
+    private static boolean isTactical(long tacticalCells, int[] move) {
+        return (tacticalCells & 1L << (move[0] * Constants.BOARD_SIZE + move[1])) != 0;
+    }
+
+    /**
+     * @brief Place un coup en tête de liste pour qu'il soit exploré en premier.
+     * @param moves La liste des coups.
+     * @param cell La case du coup (ligne * BOARD_SIZE + colonne), ou TranspositionTable.NO_MOVE.
+     */
+    private static void moveToFront(List<int[]> moves, int cell) {
+        for (int i = 0; i < moves.size(); i++) {
+            int[] move = moves.get(i);
+            if (move[0] * Constants.BOARD_SIZE + move[1] == cell) {
+                moves.remove(i);
+                moves.add(0, move);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @brief Prolonge la recherche au-delà de la profondeur nominale tant que les coups sont forcés.
+     *
+     * Évite l'effet d'horizon : une feuille où le joueur qui doit jouer peut gagner immédiatement,
+     * ou doit bloquer une menace adverse, n'est pas évaluée statiquement. Le blocage est joué et la
+     * recherche continue, dans la limite de extension coups supplémentaires.
+     * @param board Le plateau de jeu actuel (partie non terminée).
+     * @param extension Le nombre de coups forcés encore autorisés.
+     * @param isMaximizing Indique si c'est à l'IA de jouer.
+     * @return Le score évalué du plateau.
+     */
+    private static int extendForcedMoves(Board board, int extension, boolean isMaximizing) {
+        char player = isMaximizing ? AI_PLAYER : HUMAN_PLAYER;
+        char opponent = isMaximizing ? HUMAN_PLAYER : AI_PLAYER;
+
+        // Victoire immédiate pour le joueur qui doit jouer.
+        if (winningCells(board, player) != 0) {
+            return isMaximizing ? WIN_SCORE : -WIN_SCORE;
+        }
+
+        long threats = winningCells(board, opponent);
+        if (extension == 0 || threats == 0) {
+            return evaluateBoard(board);
+        }
+
+        // Deux menaces adverses : une seule peut être bloquée.
+        if (Long.bitCount(threats) >= 2) {
+            return isMaximizing ? -WIN_SCORE : WIN_SCORE;
+        }
+
+        int cell = Long.numberOfTrailingZeros(threats);
+        int row = cell / Constants.BOARD_SIZE;
+        int col = cell % Constants.BOARD_SIZE;
+        board.placePiece(row, col, player);
+        int eval = board.isFull() ? evaluateBoard(board) : extendForcedMoves(board, extension - 1, !isMaximizing);
+        board.removePiece(row, col);
+        return eval;
+    }
+
+    /**
+     * @brief Calcule les cases où un joueur gagne immédiatement.
+     * @param board Le plateau de jeu actuel.
+     * @param player Le symbole du joueur ('X' ou 'O').
+     * @return Un masque de bits des cases gagnantes (bit ligne * BOARD_SIZE + colonne).
+     */
+    private static long winningCells(Board board, char player) {
+        long mask = 0;
+        for (int[] window : Lines.WINDOWS) {
+            int own = 0;
+            int emptyCell = -1;
+            for (int cell : window) {
+                char piece = board.getPiece(cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE);
+                if (piece == player) {
+                    own++;
+                } else if (piece == ' ') {
+                    emptyCell = cell;
+                }
+            }
+            if (own == 3 && emptyCell >= 0) {
+                mask |= 1L << emptyCell;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @brief Met à jour la variante principale d'un nœud avec un coup et la variante de son fils.
+     * @param line La variante du nœud courant (ignorée si null).
+     * @param move Le coup joué.
+     * @param childLine La variante trouvée après ce coup.
+     */
+    private static void updateLine(int[] line, int[] move, int[] childLine) {
+        if (line == null) {
+            return;
+        }
+        line[1] = move[0] * Constants.BOARD_SIZE + move[1];
+        System.arraycopy(childLine, 1, line, 2, childLine[0]);
+        line[0] = childLine[0] + 1;
+    }
+
     /**
      * @brief Évalue le plateau de jeu final.
      * @param board Le plateau de jeu actuel.
      * @return Le score évalué du plateau.
      */
-    private static int evaluateBoard(Board board) {
+    static int evaluateBoard(Board board) {
         // Victoire.
-        if (board.checkWin(AI_PLAYER)) return 10000;
-        if (board.checkWin(HUMAN_PLAYER)) return -10000;
+        if (board.checkWin(AI_PLAYER)) return WIN_SCORE;
+        if (board.checkWin(HUMAN_PLAYER)) return -WIN_SCORE;
 
         int score = 0; ///< Score du plateau.
 
@@ -355,4 +1227,48 @@ public class MinimaxAlgorithm {
     public static void setDepth(int depth) {
         DEPTH = depth;
     }
+
+    /**
+     * @brief Définit le nombre maximal de coups forcés joués au-delà de la profondeur de recherche.
+     * @param depth Le nombre de coups supplémentaires (0 : les feuilles reçoivent l'évaluation statique, comme sans extension).
+     */
+    public static void setExtensionDepth(int depth) {
+        extensionDepth = depth;
+    }
+
+    /**
+     * @brief Active ou désactive l'évaluation par lots des fils calmes à un demi-coup des feuilles.
+     *
+     * Le résultat de la recherche est inchangé ; seuls les fils qui auraient été coupés par
+     * l'alpha-bêta sont évalués en plus, en échange d'une évaluation vectorielle (BatchEvaluator).
+     * Désactivée par défaut.
+     * @param enabled true pour activer l'évaluation par lots.
+     */
+    public static void setBatchEvaluation(boolean enabled) {
+        batchEvaluation = enabled;
+    }
+
+    /**
+     * @brief Définit la table de transposition utilisée par la recherche Minimax.
+     * @param table La table (stockée hors du tas), ou null pour ne plus en utiliser.
+     */
+    public static void setTranspositionTable(TranspositionTable table) {
+        transpositionTable = table;
+    }
+
+    /**
+     * @brief Remplace la recherche Minimax par une recherche Monte Carlo.
+     * @param engine Le moteur Monte Carlo, ou null pour revenir à Minimax.
+     */
+    public static void setMonteCarlo(MonteCarloTreeSearch engine) {
+        monteCarlo = engine;
+    }
+
+    /**
+     * @brief Définit la base de positions résolues consultée avant chaque recherche.
+     * @param positionDatabase La base ouverte, ou null pour ne plus l'utiliser.
+     */
+    public static void setDatabase(PositionDatabase positionDatabase) {
+        database = positionDatabase;
+    }
 }
\ No newline at end of file
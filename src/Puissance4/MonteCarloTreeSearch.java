@@ -0,0 +1,347 @@
+/**
+ * @file MonteCarloTreeSearch.java
+ * @brief Moteur de recherche Monte Carlo (UCT) parallèle, alternative à l'algorithme Minimax.
+ */
+
+package Puissance4;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * @class MonteCarloTreeSearch
+ * @brief Recherche arborescente Monte Carlo avec sélection UCT et parties aléatoires.
+ *
+ * Les nœuds de l'arbre sont stockés dans des tableaux de types primitifs alloués une fois
+ * pour toutes : la mémoire utilisée ne dépend que de la capacité choisie. Plusieurs threads
+ * parcourent le même arbre ; une perte virtuelle est ajoutée aux nœuds en cours d'exploration
+ * pour que les threads se répartissent sur des branches différentes. La recherche s'arrête
+ * à l'expiration du budget de temps.
+ */
+public class MonteCarloTreeSearch {
+    private static final int NO_MOVE = -1; ///< Coup du nœud racine.
+    private static final int LEAF = 0; ///< Nœud non développé.
+    private static final int EXPANDING = 1; ///< Nœud en cours de développement par un thread.
+    private static final int EXPANDED = 2; ///< Nœud développé, ses fils sont visibles.
+    private static final int VIRTUAL_LOSS = 1; ///< Visites fictives ajoutées pendant l'exploration d'un nœud.
+    private static final int EXPANSION_VISITS = 1; ///< Visites terminées d'un nœud avant son développement.
+    private static final double EXPLORATION = 1.4; ///< Constante d'exploration UCT.
+
+    private final int capacity; ///< Nombre maximal de nœuds.
+    private final int threads; ///< Nombre de threads de recherche.
+    private final long timeBudgetMillis; ///< Durée de la recherche en millisecondes.
+
+    private final byte[] moves; ///< Case jouée pour atteindre chaque nœud.
+    private final int[] firstChild; ///< Indice du premier fils de chaque nœud.
+    private final byte[] childCount; ///< Nombre de fils de chaque nœud.
+    private final AtomicIntegerArray visits; ///< Nombre de visites (pertes virtuelles comprises).
+    private final AtomicIntegerArray completed; ///< Nombre de visites terminées, sans les pertes virtuelles des threads en cours.
+    private final AtomicIntegerArray rewards; ///< Somme des résultats en demi-points (2 = victoire, 1 = nul) pour le joueur qui a joué le coup du nœud.
+    private final AtomicIntegerArray states; ///< État de développement de chaque nœud.
+    private final AtomicInteger nodeCount = new AtomicInteger(); ///< Nombre de nœuds alloués.
+
+    /**
+     * @brief Constructeur de la classe MonteCarloTreeSearch.
+     * @param capacity Nombre maximal de nœuds de l'arbre.
+     * @param threads Nombre de threads de recherche.
+     * @param timeBudgetMillis Durée de chaque recherche en millisecondes.
+     */
+    public MonteCarloTreeSearch(int capacity, int threads, long timeBudgetMillis) {
+        this.capacity = capacity;
+        this.threads = threads;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.moves = new byte[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new byte[capacity];
+        this.visits = new AtomicIntegerArray(capacity);
+        this.completed = new AtomicIntegerArray(capacity);
+        this.rewards = new AtomicIntegerArray(capacity);
+        this.states = new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * @brief Détermine le meilleur coup pour un joueur.
+     * @param board Le plateau de jeu actuel (non modifié).
+     * @param player Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @return Le coup le plus visité sous forme de tableau [ligne, colonne], ou null si le plateau est plein.
+     */
+    public int[] getBestMove(Board board, char player) {
+        return getBestMove(board, player, CancellationToken.NONE);
+    }
+
+    /**
+     * @brief Détermine le meilleur coup pour un joueur, avec possibilité d'interrompre la recherche.
+     * @param board Le plateau de jeu actuel (non modifié).
+     * @param player Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @param token Le jeton d'annulation consulté par chaque thread entre deux itérations.
+     * @return Le coup le plus visité sous forme de tableau [ligne, colonne], ou null si le plateau est plein
+     *         ou si la recherche a été annulée.
+     */
+    public synchronized int[] getBestMove(Board board, char player, CancellationToken token) {
+        final char[] rootCells = new char[Lines.CELL_COUNT];
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                rootCells[row * Constants.BOARD_SIZE + col] = board.getPiece(row, col);
+            }
+        }
+
+        reset();
+        final long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    char[] cells = new char[Lines.CELL_COUNT];
+                    int[] path = new int[Lines.CELL_COUNT + 1];
+                    int[] empties = new int[Lines.CELL_COUNT];
+                    while (System.nanoTime() < deadline && !token.shouldStop()) {
+                        System.arraycopy(rootCells, 0, cells, 0, cells.length);
+                        iterate(cells, player, path, empties);
+                    }
+                }
+            }, "Puissance4-mcts-" + i);
+            workers[i].start();
+        }
+
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (states.get(0) != EXPANDED || token.isCancelled()) {
+            return null;
+        }
+
+        int best = -1;
+        for (int child = firstChild[0]; child < firstChild[0] + childCount[0]; child++) {
+            if (best < 0 || visits.get(child) > visits.get(best)) {
+                best = child;
+            }
+        }
+        return best < 0 ? null : new int[]{moves[best] / Constants.BOARD_SIZE, moves[best] % Constants.BOARD_SIZE};
+    }
+
+    /**
+     * @brief Réinitialise l'arbre : seul le nœud racine subsiste.
+     */
+    private void reset() {
+        int used = Math.min(nodeCount.get(), capacity);
+        for (int node = 0; node < used; node++) {
+            visits.set(node, 0);
+            completed.set(node, 0);
+            rewards.set(node, 0);
+            states.set(node, LEAF);
+        }
+        moves[0] = NO_MOVE;
+        nodeCount.set(1);
+    }
+
+    /**
+     * @brief Effectue une itération : sélection, développement, partie aléatoire et rétropropagation.
+     * @param cells Les cases de la position racine (modifiées).
+     * @param rootPlayer Le joueur qui doit jouer à la racine.
+     * @param path Tampon recevant le chemin parcouru.
+     * @param empties Tampon pour la partie aléatoire.
+     */
+    private void iterate(char[] cells, char rootPlayer, int[] path, int[] empties) {
+        int node = 0;
+        int length = 0;
+        char side = rootPlayer;
+        char winner = ' ';
+        int played = 0;
+
+        path[length++] = node;
+        visits.addAndGet(node, VIRTUAL_LOSS);
+
+        // Sélection : descente dans l'arbre tant que les nœuds sont développés.
+        while (true) {
+            if (states.get(node) != EXPANDED && !tryExpand(node, cells)) {
+                break;
+            }
+
+            int child = selectChild(node);
+            if (child < 0) {
+                break;
+            }
+
+            int cell = moves[child];
+            cells[cell] = side;
+            played++;
+            path[length++] = child;
+            visits.addAndGet(child, VIRTUAL_LOSS);
+            node = child;
+
+            if (isWinningCell(cells, cell, side)) {
+                winner = side;
+                break;
+            }
+            side = opponent(side);
+        }
+
+        // Partie aléatoire depuis la feuille atteinte (sauf si la partie est déjà terminée).
+        if (winner == ' ') {
+            winner = playout(cells, side, empties);
+        }
+
+        // Rétropropagation : le nœud est crédité pour le joueur qui a joué son coup.
+        char mover = opponent(rootPlayer);
+        for (int i = 0; i < length; i++) {
+            int reward = winner == ' ' ? 1 : winner == mover ? 2 : 0;
+            rewards.addAndGet(path[i], reward);
+            visits.addAndGet(path[i], 1 - VIRTUAL_LOSS);
+            completed.incrementAndGet(path[i]);
+            mover = opponent(mover);
+        }
+    }
+
+    /**
+     * @brief Développe un nœud feuille si aucun autre thread ne le fait déjà.
+     * @param node Le nœud à développer.
+     * @param cells La position du nœud.
+     * @return true si le nœud est développé et ses fils sont utilisables.
+     */
+    private boolean tryExpand(int node, char[] cells) {
+        // Un nœud n'est développé qu'à sa deuxième visite, pour économiser la mémoire : une première
+        // visite doit être terminée, quel que soit le nombre de threads qui le traversent.
+        if (node != 0 && completed.get(node) < EXPANSION_VISITS) {
+            return false;
+        }
+        if (!states.compareAndSet(node, LEAF, EXPANDING)) {
+            return false;
+        }
+
+        int count = 0;
+        for (char cell : cells) {
+            if (cell == ' ') {
+                count++;
+            }
+        }
+
+        int first = count == 0 ? -1 : reserve(count);
+        if (first < 0) {
+            // Arbre plein (ou plateau plein) : le nœud reste une feuille.
+            states.set(node, LEAF);
+            return false;
+        }
+
+        int child = first;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == ' ') {
+                moves[child++] = (byte) cell;
+            }
+        }
+        firstChild[node] = first;
+        childCount[node] = (byte) count;
+        // L'écriture atomique publie les fils aux autres threads.
+        states.set(node, EXPANDED);
+        return true;
+    }
+
+    /**
+     * @brief Réserve des emplacements consécutifs pour des nœuds, sans jamais dépasser la capacité.
+     * @param count Le nombre d'emplacements.
+     * @return L'indice du premier emplacement, ou -1 si l'arbre est plein.
+     */
+    private int reserve(int count) {
+        while (true) {
+            int first = nodeCount.get();
+            if (first + count > capacity) {
+                return -1;
+            }
+            if (nodeCount.compareAndSet(first, first + count)) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * @brief Choisit le fils qui maximise la formule UCT.
+     * @param node Le nœud développé.
+     * @return L'indice du fils choisi, ou -1 s'il n'a pas de fils.
+     */
+    private int selectChild(int node) {
+        int first = firstChild[node];
+        int count = childCount[node];
+        double logParent = Math.log(Math.max(1, visits.get(node)));
+        int offset = count > 0 ? ThreadLocalRandom.current().nextInt(count) : 0;
+
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            int child = first + (i + offset) % count;
+            int n = visits.get(child);
+            if (n == 0) {
+                return child;
+            }
+            double value = rewards.get(child) / (2.0 * n) + EXPLORATION * Math.sqrt(logParent / n);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @brief Joue une partie aléatoire jusqu'à la fin.
+     * @param cells La position de départ (modifiée).
+     * @param side Le joueur qui doit jouer.
+     * @param empties Tampon des cases vides.
+     * @return Le symbole du gagnant, ou ' ' en cas de match nul.
+     */
+    private static char playout(char[] cells, char side, int[] empties) {
+        int count = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == ' ') {
+                empties[count++] = cell;
+            }
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (count > 0) {
+            int index = random.nextInt(count);
+            int cell = empties[index];
+            empties[index] = empties[--count];
+
+            cells[cell] = side;
+            if (isWinningCell(cells, cell, side)) {
+                return side;
+            }
+            side = opponent(side);
+        }
+        return ' ';
+    }
+
+    /**
+     * @brief Vérifie si le pion posé dans une case complète un alignement.
+     * @param cells Les cases du plateau.
+     * @param cell La case jouée.
+     * @param player Le symbole du joueur.
+     * @return true si le joueur a gagné.
+     */
+    private static boolean isWinningCell(char[] cells, int cell, char player) {
+        for (int w : Lines.CELL_WINDOWS[cell]) {
+            int[] window = Lines.WINDOWS[w];
+            if (cells[window[0]] == player && cells[window[1]] == player
+                    && cells[window[2]] == player && cells[window[3]] == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Retourne l'adversaire d'un joueur.
+     * @param player Le symbole du joueur.
+     * @return Le symbole de l'adversaire.
+     */
+    private static char opponent(char player) {
+        return player == 'X' ? 'O' : 'X';
+    }
+}
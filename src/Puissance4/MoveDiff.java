@@ -0,0 +1,126 @@
+/**
+ * @file MoveDiff.java
+ * @brief Définition de la classe MoveDiff, différence de plateau produite par un coup.
+ */
+
+package Puissance4;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @class MoveDiff
+ * @brief Coup joué dans une partie : case, symbole, résultat et position obtenue.
+ *
+ * La forme binaire est produite une seule fois, à la construction, et partagée par tous les
+ * destinataires (getEncoded() rend toujours le même tampon). Format, ENCODED_SIZE octets :
+ * type de trame (FRAME_MOVE), numéro du coup (nombre de pions après le coup), case
+ * (ligne * BOARD_SIZE + colonne), symbole joué, résultat (' ' si la partie continue, 'X' ou 'O'
+ * pour un gain, '=' pour un match nul).
+ */
+public final class MoveDiff {
+    public static final byte FRAME_MOVE = 1; ///< Type de trame d'un coup.
+    public static final int ENCODED_SIZE = 5; ///< Taille de la forme binaire, en octets.
+    public static final char ONGOING = ' '; ///< Résultat d'une partie qui continue.
+    public static final char DRAW = '='; ///< Résultat d'un match nul.
+
+    private final int ply; ///< Numéro du coup : nombre de pions sur le plateau après le coup.
+    private final int cell; ///< Case jouée.
+    private final char symbol; ///< Symbole du joueur.
+    private final char result; ///< Résultat après le coup.
+    private final Position position; ///< Position après le coup.
+    private final ByteBuffer encoded; ///< Forme binaire, en lecture seule.
+
+    /**
+     * @brief Constructeur de la classe MoveDiff.
+     * @param row La ligne du coup.
+     * @param col La colonne du coup.
+     * @param symbol Le symbole du joueur.
+     * @param position La position après le coup.
+     */
+    public MoveDiff(int row, int col, char symbol, Position position) {
+        this.ply = position.getPieceCount();
+        this.cell = row * Constants.BOARD_SIZE + col;
+        this.symbol = symbol;
+        this.result = resultOf(position);
+        this.position = position;
+
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_SIZE);
+        buffer.put(FRAME_MOVE).put((byte) ply).put((byte) cell).put((byte) symbol).put((byte) result);
+        buffer.flip();
+        this.encoded = buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * @brief Calcule le résultat d'une position.
+     * @param position La position.
+     * @return 'X' ou 'O' si ce joueur a gagné, DRAW si le plateau est plein, ONGOING sinon.
+     */
+    public static char resultOf(Position position) {
+        if (position.checkWin('X')) {
+            return 'X';
+        }
+        if (position.checkWin('O')) {
+            return 'O';
+        }
+        return position.isFull() ? DRAW : ONGOING;
+    }
+
+    /**
+     * @brief Récupère le numéro du coup.
+     * @return Le nombre de pions sur le plateau après le coup.
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * @brief Récupère la ligne du coup.
+     * @return La ligne.
+     */
+    public int getRow() {
+        return cell / Constants.BOARD_SIZE;
+    }
+
+    /**
+     * @brief Récupère la colonne du coup.
+     * @return La colonne.
+     */
+    public int getCol() {
+        return cell % Constants.BOARD_SIZE;
+    }
+
+    /**
+     * @brief Récupère le symbole du joueur.
+     * @return 'X' ou 'O'.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @brief Récupère le résultat après le coup.
+     * @return ONGOING, DRAW, ou le symbole du gagnant.
+     */
+    public char getResult() {
+        return result;
+    }
+
+    /**
+     * @brief Récupère la position après le coup.
+     * @return La position.
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * @brief Donne accès à la forme binaire du coup.
+     *
+     * Le même tampon est rendu à chaque appel, sans copie ni vue supplémentaire : il est partagé
+     * par tous les destinataires, qui le lisent en accès absolu (get(int)) sans changer sa position.
+     * @return Le tampon en lecture seule de ENCODED_SIZE octets.
+     */
+    public ByteBuffer getEncoded() {
+        return encoded;
+    }
+}
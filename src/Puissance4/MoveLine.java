@@ -0,0 +1,58 @@
+/**
+ * @file MoveLine.java
+ * @brief Définition de la classe MoveLine, coup de la racine avec son score et sa variante principale.
+ */
+
+package Puissance4;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @class MoveLine
+ * @brief Une ligne d'une recherche multi-variantes : coup candidat, score exact et suite de coups attendue.
+ *
+ * Le score est exprimé du point de vue du joueur qui joue le coup, évaluation stratégique du
+ * coup comprise, comme dans AnalysisResult.
+ */
+public final class MoveLine {
+    private final int[] move; ///< Coup de la racine [ligne, colonne].
+    private final int score; ///< Score exact du coup.
+    private final List<int[]> principalVariation; ///< Suite de coups attendue, en commençant par le coup.
+
+    /**
+     * @brief Constructeur de la classe MoveLine.
+     * @param move Coup de la racine.
+     * @param score Score exact du coup.
+     * @param principalVariation Variante principale, en commençant par le coup.
+     */
+    public MoveLine(int[] move, int score, List<int[]> principalVariation) {
+        this.move = move;
+        this.score = score;
+        this.principalVariation = Collections.unmodifiableList(principalVariation);
+    }
+
+    /**
+     * @brief Récupère le coup de la racine.
+     * @return Le coup sous forme de tableau [ligne, colonne].
+     */
+    public int[] getMove() {
+        return move;
+    }
+
+    /**
+     * @brief Récupère le score du coup.
+     * @return Le score exact.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @brief Récupère la variante principale.
+     * @return La liste des coups [ligne, colonne] attendus, joueurs alternés.
+     */
+    public List<int[]> getPrincipalVariation() {
+        return principalVariation;
+    }
+}
@@ -0,0 +1,269 @@
+/**
+ * @file Perft.java
+ * @brief Outil de comptage des positions (perft) pour vérifier et mesurer la génération de coups.
+ */
+
+package Puissance4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @class Perft
+ * @brief Compte les feuilles de l'arbre de jeu jusqu'à une profondeur donnée.
+ *
+ * Chaque coup disponible est joué puis annulé avec Board.placePiece/removePiece. Un coup gagnant est
+ * une feuille : la partie s'y arrête et il n'est pas développé. Les nombres obtenus ne dépendent que
+ * des règles ; toute modification de Board qui les change est donc un bogue. Le mode vérification
+ * contrôle en plus, à chaque coup, les masques et les cases candidates de Board contre un recalcul
+ * indépendant, ainsi que le résultat de checkWin.
+ */
+public final class Perft {
+    /**
+     * @brief Nombres de référence : position (forme texte de PositionCodec), profondeur, nombre de feuilles.
+     *
+     * Les positions vides ne contiennent aucune victoire avant le septième demi-coup : leurs nombres
+     * sont des arrangements (36 × 35 × ...). Les autres contiennent des menaces et des victoires
+     * possibles en ligne, en colonne et en diagonale. Les nombres ont été établis par un comptage
+     * indépendant sur Position.
+     */
+    private static final Object[][] KNOWN_COUNTS = {
+        {"6/6/6/6/6/6 X", 1, 36L},
+        {"6/6/6/6/6/6 X", 2, 1_260L},
+        {"6/6/6/6/6/6 X", 3, 42_840L},
+        {"6/6/6/6/6/6 X", 4, 1_413_720L},
+        {"6/6/6/6/6/6 X", 5, 45_239_040L},
+        {"6/6/XXX3/OOO3/6/6 X", 1, 30L},
+        {"6/6/XXX3/OOO3/6/6 X", 2, 842L},
+        {"6/6/XXX3/OOO3/6/6 X", 3, 22_793L},
+        {"6/6/XXX3/OOO3/6/6 X", 4, 594_273L},
+        {"6/6/1XXX2/1OOO2/6/6 X", 2, 814L},
+        {"6/6/1XXX2/1OOO2/6/6 X", 3, 21_280L},
+        {"6/6/1XXX2/1OOO2/6/6 X", 4, 535_144L},
+        {"X5/1O4/2X3/X2O2/1X4/O5 O", 2, 812L},
+        {"X5/1O4/2X3/X2O2/1X4/O5 O", 3, 21_924L},
+        {"X5/1O4/2X3/X2O2/1X4/O5 O", 4, 570_024L},
+        {"3O2/2OX2/1O1X2/X2X2/6/6 O", 2, 812L},
+        {"3O2/2OX2/1O1X2/X2X2/6/6 O", 3, 21_196L},
+        {"3O2/2OX2/1O1X2/X2X2/6/6 O", 4, 550_396L},
+    };
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private Perft() {
+    }
+
+    /**
+     * @brief Compte les feuilles à une profondeur donnée, en répartissant les coups de la racine sur plusieurs threads.
+     * @param position La position de départ.
+     * @param depth La profondeur (en demi-coups).
+     * @param threads Le nombre de threads.
+     * @param verify true pour contrôler Board à chaque coup.
+     * @return Le nombre de feuilles.
+     * @throws IllegalStateException Si le mode vérification détecte une incohérence.
+     */
+    public static long count(Position position, int depth, int threads, boolean verify) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        Board root = position.toBoard();
+        List<int[]> moves = root.getAvailableMoves();
+        char player = position.getSideToMove();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong total = new AtomicLong();
+        RuntimeException[] failure = new RuntimeException[1];
+
+        // Chaque thread prend le prochain coup de la racine non traité, sur sa propre copie du plateau.
+        Runnable worker = () -> {
+            Board board = root.copy();
+            try {
+                for (int i = next.getAndIncrement(); i < moves.size(); i = next.getAndIncrement()) {
+                    total.addAndGet(perftMove(board, moves.get(i), player, depth, verify));
+                }
+            } catch (RuntimeException e) {
+                synchronized (failure) {
+                    failure[0] = e;
+                }
+            }
+        };
+
+        Thread[] workers = new Thread[Math.max(1, threads) - 1];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(worker, "Puissance4-perft-" + i);
+            workers[i].start();
+        }
+        worker.run();
+        for (Thread thread : workers) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Comptage interrompu", e);
+            }
+        }
+
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return total.get();
+    }
+
+    /**
+     * @brief Joue un coup, compte les feuilles du sous-arbre et annule le coup.
+     * @param board Le plateau (rendu dans son état initial).
+     * @param move Le coup à jouer.
+     * @param player Le joueur qui joue le coup.
+     * @param depth La profondeur restante, coup compris.
+     * @param verify true pour contrôler Board.
+     * @return Le nombre de feuilles.
+     */
+    private static long perftMove(Board board, int[] move, char player, int depth, boolean verify) {
+        long xBefore = verify ? board.getMask('X') : 0;
+        long oBefore = verify ? board.getMask('O') : 0;
+
+        board.placePiece(move[0], move[1], player);
+        boolean won = board.checkWin(player);
+        if (verify) {
+            verifyBoard(board, won, player);
+        }
+
+        long leaves = depth == 1 || won ? 1 : perft(board, player == 'X' ? 'O' : 'X', depth - 1, verify);
+        board.removePiece(move[0], move[1]);
+
+        if (verify && (board.getMask('X') != xBefore || board.getMask('O') != oBefore)) {
+            throw new IllegalStateException("Annulation incorrecte du coup " + move[0] + "," + move[1]);
+        }
+        return leaves;
+    }
+
+    /**
+     * @brief Compte les feuilles d'un sous-arbre.
+     * @param board Le plateau.
+     * @param player Le joueur qui doit jouer.
+     * @param depth La profondeur restante (au moins 1).
+     * @param verify true pour contrôler Board.
+     * @return Le nombre de feuilles.
+     */
+    private static long perft(Board board, char player, int depth, boolean verify) {
+        long leaves = 0;
+        for (int[] move : board.getAvailableMoves()) {
+            leaves += perftMove(board, move, player, depth, verify);
+        }
+        return leaves;
+    }
+
+    /**
+     * @brief Compare l'état de Board à un recalcul indépendant depuis le tableau des cases.
+     * @param board Le plateau après un coup.
+     * @param won Le résultat de checkWin pour le joueur qui vient de jouer.
+     * @param player Le joueur qui vient de jouer.
+     * @throws IllegalStateException En cas d'incohérence.
+     */
+    private static void verifyBoard(Board board, boolean won, char player) {
+        long x = 0;
+        long o = 0;
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            char piece = board.getPiece(cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE);
+            if (piece == 'X') {
+                x |= 1L << cell;
+            } else if (piece == 'O') {
+                o |= 1L << cell;
+            }
+        }
+        if (board.getMask('X') != x || board.getMask('O') != o) {
+            throw new IllegalStateException("Masques incohérents avec le plateau");
+        }
+
+        long own = player == 'X' ? x : o;
+        boolean expectedWin = false;
+        for (long window : Lines.WINDOW_MASKS) {
+            expectedWin |= (own & window) == window;
+        }
+        if (won != expectedWin) {
+            throw new IllegalStateException("checkWin incohérent pour " + player);
+        }
+
+        long available = 0;
+        for (int[] move : board.getAvailableMoves()) {
+            available |= 1L << (move[0] * Constants.BOARD_SIZE + move[1]);
+        }
+        if (available != (~(x | o) & Lines.FULL_MASK)) {
+            throw new IllegalStateException("getAvailableMoves incohérent avec le plateau");
+        }
+        for (int[] move : board.getCandidateMoves()) {
+            if ((available & 1L << (move[0] * Constants.BOARD_SIZE + move[1])) == 0) {
+                throw new IllegalStateException("Case candidate occupée : " + move[0] + "," + move[1]);
+            }
+        }
+    }
+
+    /**
+     * @brief Lance le comptage.
+     *
+     * Sans argument (ou avec seulement des options), la table de référence est vérifiée et le
+     * programme se termine en erreur au premier écart. Sinon, les feuilles sont comptées pour
+     * chaque profondeur de 1 à la profondeur demandée.
+     * @param args [--verify] [--threads N] [profondeur [position]]
+     */
+    public static void main(String[] args) {
+        boolean verify = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> rest = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--verify")) {
+                verify = true;
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                rest.add(args[i]);
+            }
+        }
+
+        if (rest.isEmpty()) {
+            int failures = 0;
+            for (Object[] known : KNOWN_COUNTS) {
+                Position position = PositionCodec.fromText((String) known[0]);
+                long leaves = run(position, (Integer) known[1], threads, verify);
+                if (leaves != (Long) known[2]) {
+                    System.out.println("  ÉCHEC : attendu " + known[2]);
+                    failures++;
+                }
+            }
+            System.out.println(failures == 0 ? "Tous les comptages sont corrects." : failures + " comptage(s) incorrect(s).");
+            if (failures > 0) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        int depth = Integer.parseInt(rest.get(0));
+        Position position = rest.size() > 1 ? PositionCodec.fromText(String.join(" ", rest.subList(1, rest.size())))
+                : Position.empty('X');
+        for (int d = 1; d <= depth; d++) {
+            run(position, d, threads, verify);
+        }
+    }
+
+    /**
+     * @brief Compte les feuilles d'une position et affiche le résultat et le débit.
+     * @param position La position de départ.
+     * @param depth La profondeur.
+     * @param threads Le nombre de threads.
+     * @param verify true pour contrôler Board.
+     * @return Le nombre de feuilles.
+     */
+    private static long run(Position position, int depth, int threads, boolean verify) {
+        long start = System.nanoTime();
+        long leaves = count(position, depth, threads, verify);
+        long nanos = Math.max(1, System.nanoTime() - start);
+        System.out.printf("%-28s profondeur %d : %,15d feuilles  %,8d ms  %,14d feuilles/s%n",
+                PositionCodec.toText(position), depth, leaves, nanos / 1_000_000, leaves * 1_000_000_000L / nanos);
+        return leaves;
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * @file Position.java
+ * @brief Définition de la classe Position, instantané immuable d'une position de jeu.
+ */
+
+package Puissance4;
+
+/**
+ * @class Position
+ * @brief Position de jeu immuable : pions des deux joueurs et joueur qui doit jouer.
+ *
+ * Les pions sont stockés dans deux masques de bits (bit ligne * BOARD_SIZE + colonne),
+ * un pour 'X' et un pour 'O'. Jouer un coup crée une nouvelle position sans modifier
+ * l'ancienne : un instantané peut être lu par plusieurs threads sans verrou ni copie.
+ */
+public final class Position {
+    static {
+        if (Lines.CELL_COUNT > Lines.MAX_CELLS) {
+            throw new IllegalStateException("BOARD_SIZE = " + Constants.BOARD_SIZE
+                    + " : les masques de 64 bits limitent le plateau à 8x8");
+        }
+    }
+
+    private final long xMask; ///< Cases occupées par 'X'.
+    private final long oMask; ///< Cases occupées par 'O'.
+    private final char sideToMove; ///< Joueur qui doit jouer ('X' ou 'O').
+
+    /**
+     * @brief Constructeur de la classe Position.
+     * @param xMask Cases occupées par 'X'.
+     * @param oMask Cases occupées par 'O'.
+     * @param sideToMove Joueur qui doit jouer ('X' ou 'O').
+     */
+    public Position(long xMask, long oMask, char sideToMove) {
+        if ((xMask & oMask) != 0 || ((xMask | oMask) & ~Lines.FULL_MASK) != 0) {
+            throw new IllegalArgumentException("Masques de position invalides");
+        }
+        if (sideToMove != 'X' && sideToMove != 'O') {
+            throw new IllegalArgumentException("Joueur invalide : " + sideToMove);
+        }
+        this.xMask = xMask;
+        this.oMask = oMask;
+        this.sideToMove = sideToMove;
+    }
+
+    /**
+     * @brief Crée une position vide.
+     * @param sideToMove Joueur qui commence ('X' ou 'O').
+     * @return La position vide.
+     */
+    public static Position empty(char sideToMove) {
+        return new Position(0, 0, sideToMove);
+    }
+
+    /**
+     * @brief Crée un instantané d'un plateau.
+     * @param board Le plateau.
+     * @param sideToMove Joueur qui doit jouer ('X' ou 'O').
+     * @return La position correspondante.
+     */
+    public static Position fromBoard(Board board, char sideToMove) {
+        long x = 0;
+        long o = 0;
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                char piece = board.getPiece(row, col);
+                long bit = 1L << (row * Constants.BOARD_SIZE + col);
+                if (piece == 'X') {
+                    x |= bit;
+                } else if (piece == 'O') {
+                    o |= bit;
+                }
+            }
+        }
+        return new Position(x, o, sideToMove);
+    }
+
+    /**
+     * @brief Joue un coup du joueur qui a le trait.
+     * @param row Ligne du coup.
+     * @param col Colonne du coup.
+     * @return La nouvelle position, où c'est à l'adversaire de jouer.
+     * @throws IllegalArgumentException Si la case est déjà occupée.
+     */
+    public Position play(int row, int col) {
+        long bit = 1L << (row * Constants.BOARD_SIZE + col);
+        if (((xMask | oMask) & bit) != 0) {
+            throw new IllegalArgumentException("Case déjà occupée : " + row + ", " + col);
+        }
+        return sideToMove == 'X'
+                ? new Position(xMask | bit, oMask, 'O')
+                : new Position(xMask, oMask | bit, 'X');
+    }
+
+    /**
+     * @brief Récupère le symbole d'une case.
+     * @param row Ligne de la case.
+     * @param col Colonne de la case.
+     * @return Le symbole ('X', 'O' ou ' ') présent dans la case.
+     */
+    public char getPiece(int row, int col) {
+        long bit = 1L << (row * Constants.BOARD_SIZE + col);
+        return (xMask & bit) != 0 ? 'X' : (oMask & bit) != 0 ? 'O' : ' ';
+    }
+
+    /**
+     * @brief Vérifie si une case est vide.
+     * @param row Ligne de la case.
+     * @param col Colonne de la case.
+     * @return true si la case est vide.
+     */
+    public boolean isEmpty(int row, int col) {
+        return ((xMask | oMask) & (1L << (row * Constants.BOARD_SIZE + col))) == 0;
+    }
+
+    /**
+     * @brief Vérifie si un joueur a aligné 4 pions.
+     * @param symbol Symbole du joueur ('X' ou 'O').
+     * @return true si le joueur a gagné.
+     */
+    public boolean checkWin(char symbol) {
+        long mask = symbol == 'X' ? xMask : oMask;
+        for (long window : Lines.WINDOW_MASKS) {
+            if ((mask & window) == window) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Vérifie si le plateau est plein.
+     * @return true si toutes les cases sont occupées.
+     */
+    public boolean isFull() {
+        return (xMask | oMask) == Lines.FULL_MASK;
+    }
+
+    /**
+     * @brief Vérifie si la partie est terminée.
+     * @return true si un joueur a gagné ou si le plateau est plein.
+     */
+    public boolean isGameOver() {
+        return checkWin('X') || checkWin('O') || isFull();
+    }
+
+    /**
+     * @brief Compte les pions posés.
+     * @return Le nombre de pions.
+     */
+    public int getPieceCount() {
+        return Long.bitCount(xMask | oMask);
+    }
+
+    /**
+     * @brief Récupère le joueur qui doit jouer.
+     * @return 'X' ou 'O'.
+     */
+    public char getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @brief Récupère le masque des pions de 'X'.
+     * @return Le masque (bit ligne * BOARD_SIZE + colonne).
+     */
+    public long getXMask() {
+        return xMask;
+    }
+
+    /**
+     * @brief Récupère le masque des pions de 'O'.
+     * @return Le masque (bit ligne * BOARD_SIZE + colonne).
+     */
+    public long getOMask() {
+        return oMask;
+    }
+
+    /**
+     * @brief Crée un plateau modifiable contenant cette position.
+     * @return Un nouveau plateau.
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            long bit = 1L << cell;
+            if ((xMask & bit) != 0) {
+                board.placePiece(cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE, 'X');
+            } else if ((oMask & bit) != 0) {
+                board.placePiece(cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE, 'O');
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @brief Compare deux positions.
+     * @param other L'objet à comparer.
+     * @return true si les pions et le joueur qui doit jouer sont identiques.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Position)) {
+            return false;
+        }
+        Position position = (Position) other;
+        return xMask == position.xMask && oMask == position.oMask && sideToMove == position.sideToMove;
+    }
+
+    /**
+     * @brief Calcule un code de hachage pour la position.
+     * @return Un entier représentant la position.
+     */
+    @Override
+    public int hashCode() {
+        long hash = xMask * 0x9E3779B97F4A7C15L ^ oMask * 0xC2B2AE3D27D4EB4FL ^ sideToMove;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * @file PositionCodec.java
+ * @brief Encodage compact et forme textuelle des positions de jeu.
+ */
+
+package Puissance4;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @class PositionCodec
+ * @brief Convertit une Position en entier compact, en octets ou en texte, et inversement.
+ *
+ * Forme compacte : chaque case est un chiffre en base 3 (0 = vide, 1 = 'X', 2 = 'O'), la case
+ * ligne * BOARD_SIZE + colonne ayant le poids 3^case ; le code vaut (valeur * 2 + trait), avec
+ * trait = 0 si 'X' doit jouer et 1 si 'O' doit jouer. Sur le plateau 6x6, le code tient sur 58 bits
+ * et s'écrit sur 8 octets, sans aucune allocation. Au-delà de Lines.MAX_CODED_CELLS cases (6x6),
+ * le code ne tient plus dans un long et la classe refuse de se charger.
+ *
+ * Forme textuelle (inspirée de la notation FEN) : les lignes de haut en bas séparées par '/',
+ * chaque suite de cases vides remplacée par son nombre, puis un espace et le joueur qui doit jouer.
+ * Exemple : "6/6/2XO2/6/6/6 X".
+ */
+public final class PositionCodec {
+    public static final int ENCODED_BYTES = Long.BYTES; ///< Taille de la forme binaire.
+
+    private static final long[] POWERS = createPowers(); ///< Puissances de 3 par case.
+
+    static {
+        if (Lines.CELL_COUNT > Lines.MAX_CODED_CELLS) {
+            throw new IllegalStateException("Plateau " + Constants.BOARD_SIZE + "x" + Constants.BOARD_SIZE
+                    + " trop grand pour le code de 64 bits (6x6 au plus)");
+        }
+    }
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private PositionCodec() {
+    }
+
+    /**
+     * @brief Encode une position sous forme compacte.
+     * @param position La position.
+     * @return Le code de la position.
+     */
+    public static long encode(Position position) {
+        long x = position.getXMask();
+        long o = position.getOMask();
+        long value = 0;
+        for (int cell = Lines.CELL_COUNT - 1; cell >= 0; cell--) {
+            value = value * 3 + ((x >>> cell) & 1) + 2 * ((o >>> cell) & 1);
+        }
+        return value * 2 + (position.getSideToMove() == 'O' ? 1 : 0);
+    }
+
+    /**
+     * @brief Décode une position.
+     * @param code Le code produit par encode().
+     * @return La position.
+     * @throws IllegalArgumentException Si le code ne correspond à aucune position.
+     */
+    public static Position decode(long code) {
+        if (code < 0) {
+            throw new IllegalArgumentException("Code de position invalide : " + code);
+        }
+        char side = (code & 1) == 0 ? 'X' : 'O';
+        long value = code >>> 1;
+        long x = 0;
+        long o = 0;
+        for (int cell = Lines.CELL_COUNT - 1; cell >= 0; cell--) {
+            long digit = value / POWERS[cell];
+            value -= digit * POWERS[cell];
+            if (digit == 1) {
+                x |= 1L << cell;
+            } else if (digit == 2) {
+                o |= 1L << cell;
+            } else if (digit != 0) {
+                throw new IllegalArgumentException("Code de position invalide : " + code);
+            }
+        }
+        return new Position(x, o, side);
+    }
+
+    /**
+     * @brief Écrit une position dans un tampon (ENCODED_BYTES octets, ordre du tampon).
+     * @param position La position.
+     * @param buffer Le tampon de destination.
+     */
+    public static void write(Position position, ByteBuffer buffer) {
+        buffer.putLong(encode(position));
+    }
+
+    /**
+     * @brief Lit une position depuis un tampon.
+     * @param buffer Le tampon source.
+     * @return La position lue.
+     */
+    public static Position read(ByteBuffer buffer) {
+        return decode(buffer.getLong());
+    }
+
+    /**
+     * @brief Convertit une position en texte.
+     * @param position La position.
+     * @return La forme textuelle, par exemple "6/6/2XO2/6/6/6 X".
+     */
+    public static String toText(Position position) {
+        StringBuilder text = new StringBuilder(Lines.CELL_COUNT + Constants.BOARD_SIZE + 2);
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            if (row > 0) {
+                text.append('/');
+            }
+            int empty = 0;
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                char piece = position.getPiece(row, col);
+                if (piece == ' ') {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        text.append(empty);
+                        empty = 0;
+                    }
+                    text.append(piece);
+                }
+            }
+            if (empty > 0) {
+                text.append(empty);
+            }
+        }
+        return text.append(' ').append(position.getSideToMove()).toString();
+    }
+
+    /**
+     * @brief Lit une position depuis sa forme textuelle.
+     * @param text Le texte, par exemple "6/6/2XO2/6/6/6 X".
+     * @return La position.
+     * @throws IllegalArgumentException Si le texte est mal formé.
+     */
+    public static Position fromText(String text) {
+        String trimmed = text.trim();
+        int space = trimmed.lastIndexOf(' ');
+        if (space < 0 || space != trimmed.length() - 2) {
+            throw new IllegalArgumentException("Position mal formée : " + text);
+        }
+
+        char side = Character.toUpperCase(trimmed.charAt(trimmed.length() - 1));
+        String[] rows = trimmed.substring(0, space).split("/", -1);
+        if (rows.length != Constants.BOARD_SIZE) {
+            throw new IllegalArgumentException("Nombre de lignes invalide : " + text);
+        }
+
+        long x = 0;
+        long o = 0;
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            int col = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (c >= '1' && c <= '9') {
+                    col += c - '0';
+                } else if (c == 'X' || c == 'O') {
+                    if (col >= Constants.BOARD_SIZE) {
+                        throw new IllegalArgumentException("Ligne " + (row + 1) + " trop longue : " + text);
+                    }
+                    long bit = 1L << (row * Constants.BOARD_SIZE + col);
+                    if (c == 'X') {
+                        x |= bit;
+                    } else {
+                        o |= bit;
+                    }
+                    col++;
+                } else {
+                    throw new IllegalArgumentException("Caractère invalide '" + c + "' : " + text);
+                }
+            }
+            if (col != Constants.BOARD_SIZE) {
+                throw new IllegalArgumentException("Ligne " + (row + 1) + " de longueur invalide : " + text);
+            }
+        }
+        return new Position(x, o, side);
+    }
+
+    /**
+     * @brief Calcule les puissances de 3 associées à chaque case.
+     * @return Le tableau des puissances.
+     */
+    private static long[] createPowers() {
+        long[] powers = new long[Lines.CELL_COUNT];
+        long power = 1;
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            powers[cell] = power;
+            power *= 3;
+        }
+        return powers;
+    }
+}
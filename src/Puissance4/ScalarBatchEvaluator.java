@@ -0,0 +1,39 @@
+/**
+ * @file ScalarBatchEvaluator.java
+ * @brief Implémentation scalaire de l'évaluation par lots.
+ */
+
+package Puissance4;
+
+/**
+ * @class ScalarBatchEvaluator
+ * @brief Évalue les positions une par une, sur leurs masques.
+ *
+ * Implémentation de repli, utilisable sur toute JVM. Elle travaille sur les masques plutôt que
+ * sur le tableau de caractères du plateau, mais sans parallélisme de données.
+ */
+public class ScalarBatchEvaluator extends BatchEvaluator {
+
+    /**
+     * @brief Évalue un lot de positions, une à la fois.
+     * @param xMasks Masques des pions 'X'.
+     * @param oMasks Masques des pions 'O'.
+     * @param count Nombre de positions à évaluer (depuis l'indice 0).
+     * @param scores Tableau recevant le score de chaque position.
+     */
+    @Override
+    public void evaluate(long[] xMasks, long[] oMasks, int count, int[] scores) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = evaluate(xMasks[i], oMasks[i]);
+        }
+    }
+
+    /**
+     * @brief Décrit l'implémentation.
+     * @return "scalaire".
+     */
+    @Override
+    public String getName() {
+        return "scalaire";
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * @file SearchBenchmark.java
+ * @brief Outil de mesure des options d'élagage de la recherche Minimax.
+ */
+
+package Puissance4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @class SearchBenchmark
+ * @brief Compare les configurations d'élagage sur un même jeu de positions.
+ *
+ * Les positions sont tirées au hasard à partir d'une graine fixe (parties aléatoires de quelques
+ * coups, l'IA au trait, sans coup gagnant immédiat). Chaque configuration est cherchée à la même
+ * profondeur (la dernière configuration est l'alpha-bêta seul avec l'évaluation par lots) ;
+ * l'outil rapporte les nœuds visités, le temps, le débit et la proportion de positions où le
+ * coup choisi est identique à celui de l'alpha-bêta seul. Il compare ensuite la recherche
+ * multi-variantes (MinimaxAlgorithm.getTopMoves) à la recherche d'un seul coup, sur les mêmes positions.
+ *
+ * L'élagage en avant est réglé pour chaque recherche (SearchContext.setForwardPruning()) : les
+ * deux joueurs d'une partie ne partagent aucun réglage.
+ *
+ * Un coup différent ne dit pas s'il est moins bon : l'outil fait donc enfin jouer chaque configuration
+ * d'élagage contre l'alpha-bêta seul, à budget de nœuds égal par coup. Chaque position sert
+ * d'ouverture à deux parties, en échangeant les camps.
+ */
+public final class SearchBenchmark {
+    private static final String[] NAMES = {"alpha-bêta", "LMR", "futilité", "LMR + futilité", "lots"}; ///< Configurations mesurées.
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private SearchBenchmark() {
+    }
+
+    /**
+     * @brief Lance la mesure.
+     * @param args [profondeur] [nombreDePositions] [graine] [nombreDeVariantes] [nombreDOuvertures] [nœudsParCoup]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int lines = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        int openings = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        long nodeBudget = args.length > 5 ? Long.parseLong(args[5]) : 20_000;
+
+        List<Board> positions = createPositions(count, seed);
+        int[][] reference = null;
+        System.out.printf("%d positions, profondeur %d%n", positions.size(), depth);
+        System.out.printf("%-16s %14s %10s %14s %10s%n", "configuration", "nœuds", "ms", "nœuds/s", "même coup");
+
+        for (int config = 0; config < NAMES.length; config++) {
+            MinimaxAlgorithm.setBatchEvaluation((config & 4) != 0);
+
+            int[][] moves = new int[positions.size()][];
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < positions.size(); i++) {
+                SearchContext context = new SearchContext(CancellationToken.NONE);
+                context.setForwardPruning((config & 1) != 0, (config & 2) != 0);
+                moves[i] = MinimaxAlgorithm.searchFixedDepth(positions.get(i), depth, context);
+                nodes += context.getNodes();
+            }
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+            if (reference == null) {
+                reference = moves;
+            }
+            int same = 0;
+            for (int i = 0; i < moves.length; i++) {
+                if (moves[i][0] == reference[i][0] && moves[i][1] == reference[i][1]) {
+                    same++;
+                }
+            }
+            System.out.printf("%-16s %14d %10d %14d %9.1f%%%n", NAMES[config], nodes, millis,
+                    nodes * 1000 / millis, 100.0 * same / moves.length);
+        }
+
+        MinimaxAlgorithm.setBatchEvaluation(false);
+
+        measureTopMoves(positions, depth, lines);
+        measureSelfPlay(positions.subList(0, Math.min(openings, positions.size())), nodeBudget);
+    }
+
+    /**
+     * @brief Fait jouer chaque configuration d'élagage contre l'alpha-bêta seul, à budget de nœuds égal.
+     *
+     * Les deux joueurs approfondissent itérativement jusqu'à épuisement du même budget de nœuds :
+     * une configuration qui élague davantage cherche plus profond pour le même coût.
+     * @param openings Les positions de départ (l'IA, 'O', au trait).
+     * @param nodeBudget Le nombre de nœuds par coup.
+     */
+    private static void measureSelfPlay(List<Board> openings, long nodeBudget) {
+        DifficultyProfile profile = new DifficultyProfile("Banc", Lines.CELL_COUNT, nodeBudget, 0, 0);
+        System.out.printf("parties contre l'alpha-bêta seul, %d nœuds par coup, %d parties par configuration%n",
+                nodeBudget, 2 * openings.size());
+        for (int config = 1; config < 4; config++) {
+            int wins = 0;
+            int draws = 0;
+            int losses = 0;
+            for (Board opening : openings) {
+                for (int prunedSide = 0; prunedSide < 2; prunedSide++) {
+                    char result = playGame(Position.fromBoard(opening, 'O'), profile, config, prunedSide);
+                    char prunedSymbol = prunedSide == 0 ? 'X' : 'O';
+                    if (result == MoveDiff.DRAW) {
+                        draws++;
+                    } else if (result == prunedSymbol) {
+                        wins++;
+                    } else {
+                        losses++;
+                    }
+                }
+            }
+            System.out.printf("%-16s %d gagnées, %d nulles, %d perdues, score %.1f%%%n", NAMES[config],
+                    wins, draws, losses, 100.0 * (wins + draws / 2.0) / Math.max(1, wins + draws + losses));
+        }
+    }
+
+    /**
+     * @brief Joue une partie entre une configuration d'élagage et l'alpha-bêta seul.
+     * @param position La position de départ.
+     * @param profile Le profil des deux joueurs.
+     * @param config La configuration du joueur qui élague (indice dans NAMES).
+     * @param prunedSide Le camp du joueur qui élague (0 pour 'X', 1 pour 'O').
+     * @return Le symbole du gagnant, ou MoveDiff.DRAW.
+     */
+    private static char playGame(Position position, DifficultyProfile profile, int config, int prunedSide) {
+        while (!position.isGameOver()) {
+            // L'IA cherche pour 'O' : la position est retournée quand 'X' est au trait.
+            int side = position.getSideToMove() == 'X' ? 0 : 1;
+            boolean pruned = side == prunedSide;
+            Board board = side == 0
+                    ? new Position(position.getOMask(), position.getXMask(), 'O').toBoard()
+                    : position.toBoard();
+            int[] move = MinimaxAlgorithm.getBestMove(board, profile, null, CancellationToken.NONE,
+                    pruned && (config & 1) != 0, pruned && (config & 2) != 0);
+            position = position.play(move[0], move[1]);
+        }
+        return MoveDiff.resultOf(position);
+    }
+
+    /**
+     * @brief Compare le coût de la recherche multi-variantes à celui de la recherche d'un seul coup.
+     * @param positions Les positions mesurées.
+     * @param depth La profondeur de recherche.
+     * @param lines Le nombre de variantes demandées.
+     */
+    private static void measureTopMoves(List<Board> positions, int depth, int lines) {
+        long singleNodes = 0;
+        long topNodes = 0;
+        long singleNanos = 0;
+        long topNanos = 0;
+        int same = 0;
+        for (Board position : positions) {
+            SearchContext single = new SearchContext(CancellationToken.NONE);
+            long start = System.nanoTime();
+            int[] move = MinimaxAlgorithm.searchFixedDepth(position.copy(), depth, single);
+            singleNanos += System.nanoTime() - start;
+            singleNodes += single.getNodes();
+
+            SearchContext top = new SearchContext(CancellationToken.NONE);
+            start = System.nanoTime();
+            List<MoveLine> result = MinimaxAlgorithm.searchTopMoves(position.copy(), position.getAvailableMoves(),
+                    lines, depth, top);
+            topNanos += System.nanoTime() - start;
+            topNodes += top.getNodes();
+            int[] best = result.get(0).getMove();
+            if (best[0] == move[0] && best[1] == move[1]) {
+                same++;
+            }
+        }
+        System.out.printf("%d variantes : %d nœuds, %d ms (un seul coup : %d nœuds, %d ms), rapport %.2f, même premier coup %.1f%%%n",
+                lines, topNodes, topNanos / 1_000_000, singleNodes, singleNanos / 1_000_000,
+                (double) topNodes / Math.max(1, singleNodes), 100.0 * same / positions.size());
+    }
+
+    /**
+     * @brief Tire des positions de milieu de partie reproductibles.
+     * @param count Le nombre de positions.
+     * @param seed La graine du tirage.
+     * @return Les positions, avec l'IA ('O') au trait.
+     */
+    private static List<Board> createPositions(int count, long seed) {
+        Random random = new Random(seed);
+        List<Board> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Board board = new Board();
+            int pieces = 2 * (1 + random.nextInt(5));
+            char player = 'X';
+            for (int i = 0; i < pieces; i++) {
+                List<int[]> moves = board.getAvailableMoves();
+                int[] move = moves.get(random.nextInt(moves.size()));
+                board.placePiece(move[0], move[1], player);
+                player = player == 'X' ? 'O' : 'X';
+            }
+            if (!board.isGameOver() && !hasWinningMove(board, 'O') && !hasWinningMove(board, 'X')) {
+                positions.add(board);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * @brief Indique si un joueur peut gagner en un coup.
+     * @param board Le plateau de jeu.
+     * @param player Le symbole du joueur.
+     * @return true si un coup gagnant existe.
+     */
+    private static boolean hasWinningMove(Board board, char player) {
+        for (int[] move : board.getAvailableMoves()) {
+            board.placePiece(move[0], move[1], player);
+            boolean win = board.checkWin(player);
+            board.removePiece(move[0], move[1]);
+            if (win) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
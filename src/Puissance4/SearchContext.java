@@ -0,0 +1,195 @@
+/**
+ * @file SearchContext.java
+ * @brief État d'une recherche Minimax transmis à travers la récursion.
+ */
+
+package Puissance4;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @class SearchContext
+ * @brief Compte les nœuds d'une recherche et détecte sa demande d'arrêt.
+ *
+ * La recherche s'arrête quand le jeton est annulé ou expiré, quand le budget de nœuds est
+ * épuisé ou quand le budget de temps est dépassé. Le jeton et l'horloge ne sont consultés que
+ * tous les CHECK_INTERVAL nœuds : le coût du contrôle reste négligeable. Une fois l'arrêt
+ * détecté, toute la récursion remonte immédiatement et son résultat doit être ignoré.
+ */
+class SearchContext {
+    private static final int CHECK_INTERVAL = 256; ///< Nombre de nœuds entre deux consultations du jeton.
+
+    private final CancellationToken token; ///< Jeton d'annulation de la recherche.
+    private final long nodeLimit; ///< Nombre maximal de nœuds (Long.MAX_VALUE = illimité).
+    private final long deadline; ///< Échéance en nanosecondes (System.nanoTime), ou Long.MAX_VALUE.
+    private long nodes; ///< Nombre de nœuds visités.
+    private boolean aborted; ///< Indique si la recherche a été interrompue.
+    private final int noise; ///< Amplitude du bruit ajouté à l'évaluation des feuilles (0 = aucun).
+    private final long noiseSeed; ///< Graine du bruit, tirée une fois par recherche.
+    private boolean lateMoveReductions; ///< Réduit la profondeur des coups mal classés par l'ordonnancement.
+    private boolean futilityPruning; ///< Coupe les nœuds frontières dont l'évaluation statique est sans espoir.
+    private boolean budgeted = true; ///< Indique si les budgets et l'échéance du jeton sont appliqués.
+    private int completedDepth; ///< Dernière profondeur de racine entièrement explorée (0 si aucune).
+    private int rootScore; ///< Score du meilleur coup à cette profondeur.
+
+    /**
+     * @brief Constructeur de la classe SearchContext.
+     * @param token Le jeton d'annulation de la recherche.
+     */
+    SearchContext(CancellationToken token) {
+        this(token, 0, 0);
+    }
+
+    /**
+     * @brief Constructeur d'un contexte avec budgets.
+     * @param token Le jeton d'annulation de la recherche.
+     * @param nodeBudget Nombre maximal de nœuds (0 = illimité).
+     * @param timeBudgetMillis Durée maximale en millisecondes (0 = illimitée).
+     */
+    SearchContext(CancellationToken token, long nodeBudget, long timeBudgetMillis) {
+        this(token, nodeBudget, timeBudgetMillis, 0);
+    }
+
+    /**
+     * @brief Constructeur d'un contexte avec budgets et bruit d'évaluation.
+     * @param token Le jeton d'annulation de la recherche.
+     * @param nodeBudget Nombre maximal de nœuds (0 = illimité).
+     * @param timeBudgetMillis Durée maximale en millisecondes (0 = illimitée).
+     * @param noise Amplitude du bruit ajouté à l'évaluation des feuilles (0 = aucun).
+     */
+    SearchContext(CancellationToken token, long nodeBudget, long timeBudgetMillis, int noise) {
+        this.token = token;
+        this.noise = noise;
+        this.noiseSeed = noise > 0 ? ThreadLocalRandom.current().nextLong() : 0;
+        this.nodeLimit = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+        this.deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * @brief Compte un nœud et vérifie périodiquement si la recherche doit s'arrêter.
+     * @return true si la recherche doit s'arrêter.
+     */
+    boolean visitNode() {
+        if (++nodes % CHECK_INTERVAL == 0
+                && (token.isCancelled() || (budgeted && (token.isExpired() || nodes >= nodeLimit
+                    || (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0))))) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * @brief Active ou suspend les budgets de nœuds et de temps, et l'échéance du jeton.
+     *
+     * Budgets suspendus, seule l'annulation explicite du jeton arrête la recherche : une première
+     * profondeur va ainsi toujours à son terme. Les nœuds visités restent comptés dans le budget.
+     * @param enabled true pour appliquer les budgets (valeur initiale).
+     */
+    void setBudgeted(boolean enabled) {
+        budgeted = enabled;
+    }
+
+    /**
+     * @brief Active ou désactive l'élagage en avant de cette recherche seulement.
+     *
+     * Réductions des coups tardifs (LMR) : les coups classés après les premiers par
+     * l'ordonnancement sont d'abord cherchés moins profond, puis à pleine profondeur s'ils
+     * améliorent la fenêtre. Futilité : à un demi-coup des feuilles, sans coup tactique, un nœud
+     * dont l'évaluation statique ne peut pas atteindre la fenêtre est coupé. Le coup choisi peut
+     * donc différer de l'alpha-bêta seul ; les parties de SearchBenchmark n'ont pas montré de gain
+     * de force, les deux restent désactivés par défaut.
+     * @param reductions true pour activer les réductions des coups tardifs.
+     * @param futility true pour activer l'élagage de futilité.
+     */
+    void setForwardPruning(boolean reductions, boolean futility) {
+        lateMoveReductions = reductions;
+        futilityPruning = futility;
+    }
+
+    /**
+     * @brief Indique si les réductions des coups tardifs sont activées.
+     * @return true si elles le sont.
+     */
+    boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    /**
+     * @brief Indique si l'élagage de futilité est activé.
+     * @return true s'il l'est.
+     */
+    boolean isFutilityPruning() {
+        return futilityPruning;
+    }
+
+    /**
+     * @brief Indique si l'évaluation des feuilles est bruitée.
+     * @return true si la recherche a une amplitude de bruit non nulle.
+     */
+    boolean hasNoise() {
+        return noise > 0;
+    }
+
+    /**
+     * @brief Calcule le bruit d'évaluation d'une position.
+     *
+     * Le bruit est une fonction de la position et de la graine de la recherche : une même position
+     * reçoit le même décalage à chaque profondeur, ce qui garde l'approfondissement cohérent.
+     * @param xMask Les pions 'X' de la position.
+     * @param oMask Les pions 'O' de la position.
+     * @return Un décalage dans [-noise, noise], 0 si la recherche n'est pas bruitée.
+     */
+    int noise(long xMask, long oMask) {
+        if (noise == 0) {
+            return 0;
+        }
+        // Mélange de type SplitMix64 des deux masques et de la graine.
+        long h = noiseSeed ^ (xMask * 0x9E3779B97F4A7C15L) ^ Long.rotateLeft(oMask * 0xC2B2AE3D27D4EB4FL, 31);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (int) Math.floorMod(h, 2L * noise + 1) - noise;
+    }
+
+    /**
+     * @brief Indique si la recherche a été interrompue.
+     * @return true si la recherche a été interrompue.
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * @brief Récupère le nombre de nœuds visités.
+     * @return Le nombre de nœuds.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @brief Enregistre la fin de l'exploration complète d'une profondeur à la racine.
+     * @param depth La profondeur explorée.
+     * @param score Le score du meilleur coup.
+     */
+    void completeDepth(int depth, int score) {
+        completedDepth = depth;
+        rootScore = score;
+    }
+
+    /**
+     * @brief Récupère la dernière profondeur de racine entièrement explorée.
+     * @return La profondeur, ou 0 si aucune n'a été terminée.
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @brief Récupère le score du meilleur coup de la dernière profondeur terminée.
+     * @return Le score, du point de vue de l'IA.
+     */
+    int getRootScore() {
+        return rootScore;
+    }
+}
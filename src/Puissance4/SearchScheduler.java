@@ -0,0 +1,239 @@
+/**
+ * @file SearchScheduler.java
+ * @brief Répartition équitable des recherches de l'IA entre plusieurs parties simultanées.
+ */
+
+package Puissance4;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @class SearchScheduler
+ * @brief Pool fixe de threads de recherche partagé équitablement entre les parties.
+ *
+ * Chaque partie (session) possède sa propre file de recherches. Les sessions qui ont du travail
+ * sont servies à tour de rôle, une recherche à la fois : une partie qui enchaîne des recherches
+ * coûteuses ne peut pas monopoliser le pool. Le contrôle d'admission refuse une recherche
+ * quand la session a déjà atteint son quota ou quand trop de recherches sont en attente au total.
+ * Le coût de chaque recherche est borné par les budgets du profil de difficulté.
+ *
+ * L'équité porte sur le nombre de recherches, pas sur le temps de calcul : chaque session reçoit
+ * une recherche par tour, quelle que soit sa durée. Une session dont le profil accorde des budgets
+ * plus grands consomme donc une plus grande part du pool, dans la limite de ces budgets.
+ */
+public class SearchScheduler implements AutoCloseable {
+    private final int maxPendingPerSession; ///< Nombre maximal de recherches en attente ou en cours par session.
+    private final int maxPendingTotal; ///< Nombre maximal de recherches en attente ou en cours au total.
+    private final Map<Object, SessionQueue> sessions = new HashMap<>(); ///< Files des sessions ayant du travail.
+    private final ArrayDeque<SessionQueue> ready = new ArrayDeque<>(); ///< Sessions prêtes, servies à tour de rôle.
+    private final Set<Task> running = new HashSet<>(); ///< Recherches en cours d'exécution.
+    private final Thread[] workers; ///< Threads de recherche.
+    private int pendingTotal; ///< Nombre de recherches en attente ou en cours.
+    private boolean closed; ///< Indique si le pool est arrêté.
+
+    /**
+     * @class SessionQueue
+     * @brief File des recherches d'une session.
+     */
+    private static final class SessionQueue {
+        private final Object session; ///< Clé de la session.
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>(); ///< Recherches en attente.
+        private int pending; ///< Recherches en attente ou en cours.
+
+        /**
+         * @brief Constructeur de la classe SessionQueue.
+         * @param session Clé de la session.
+         */
+        private SessionQueue(Object session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * @class Task
+     * @brief Recherche à exécuter.
+     */
+    private static final class Task {
+        private final Board board; ///< Copie de la position à analyser.
+        private final DifficultyProfile profile; ///< Profil de difficulté.
+        private final TimeManager clock; ///< Pendule de la partie, ou null.
+        private final CancellationToken token; ///< Jeton propre à la recherche, dérivé de celui de l'appelant.
+        private final CompletableFuture<int[]> result = new CompletableFuture<>(); ///< Coup trouvé.
+
+        /**
+         * @brief Constructeur de la classe Task.
+         * @param board Copie de la position à analyser.
+         * @param profile Profil de difficulté.
+         * @param clock Pendule de la partie, ou null.
+         * @param token Jeton d'annulation de l'appelant.
+         */
+        private Task(Board board, DifficultyProfile profile, TimeManager clock, CancellationToken token) {
+            this.board = board;
+            this.profile = profile;
+            this.clock = clock;
+            this.token = token.newChild();
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe SearchScheduler.
+     * @param threads Nombre de threads de recherche.
+     * @param maxPendingPerSession Nombre maximal de recherches en attente ou en cours par session.
+     * @param maxPendingTotal Nombre maximal de recherches en attente ou en cours au total.
+     */
+    public SearchScheduler(int threads, int maxPendingPerSession, int maxPendingTotal) {
+        this.maxPendingPerSession = maxPendingPerSession;
+        this.maxPendingTotal = maxPendingTotal;
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::runWorker, "Puissance4-search-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * @brief Soumet une recherche pour une session.
+     * @param session Clé identifiant la session (par exemple l'instance de Game).
+     * @param board Le plateau (copié immédiatement, il peut ensuite être modifié).
+     * @param profile Le profil de difficulté qui borne la recherche.
+     * @param token Le jeton d'annulation de la recherche.
+     * @return Le coup trouvé, ou null si la recherche a été annulée.
+     * @throws RejectedExecutionException Si le quota de la session ou la capacité totale est atteint.
+     */
+    public CompletableFuture<int[]> submit(Object session, Board board, DifficultyProfile profile,
+                                           CancellationToken token) {
+        return submit(session, board, profile, null, token);
+    }
+
+    /**
+     * @brief Soumet une recherche pour une session dont l'IA joue à la pendule.
+     *
+     * Le coup de la pendule doit avoir été commencé (TimeManager.startMove()) : l'attente dans
+     * la file est décomptée, comme sur une vraie pendule.
+     * @param session Clé identifiant la session (par exemple l'instance de Game).
+     * @param board Le plateau (copié immédiatement, il peut ensuite être modifié).
+     * @param profile Le profil de difficulté qui borne la recherche.
+     * @param clock La pendule de la partie, ou null pour le budget de temps du profil.
+     * @param token Le jeton d'annulation de la recherche.
+     * @return Le coup trouvé, ou null si la recherche a été annulée.
+     * @throws RejectedExecutionException Si le quota de la session ou la capacité totale est atteint.
+     */
+    public synchronized CompletableFuture<int[]> submit(Object session, Board board, DifficultyProfile profile,
+                                                        TimeManager clock, CancellationToken token) {
+        if (closed) {
+            throw new RejectedExecutionException("Le pool de recherche est arrêté");
+        }
+        if (pendingTotal >= maxPendingTotal) {
+            throw new RejectedExecutionException("Trop de recherches en attente");
+        }
+
+        SessionQueue queue = sessions.get(session);
+        if (queue == null) {
+            queue = new SessionQueue(session);
+            sessions.put(session, queue);
+        }
+        if (queue.pending >= maxPendingPerSession) {
+            throw new RejectedExecutionException("Quota de recherches atteint pour cette session");
+        }
+
+        Task task = new Task(board.copy(), profile, clock, token);
+        queue.tasks.add(task);
+        queue.pending++;
+        pendingTotal++;
+        // Une session est dans ready tant qu'elle a des recherches en attente : la première la fait entrer.
+        if (queue.tasks.size() == 1) {
+            ready.add(queue);
+            notify();
+        }
+        return task.result;
+    }
+
+    /**
+     * @brief Boucle d'un thread de recherche : sert les sessions prêtes à tour de rôle.
+     */
+    private void runWorker() {
+        while (true) {
+            SessionQueue queue;
+            Task task;
+            synchronized (this) {
+                while (ready.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+
+                queue = ready.poll();
+                task = queue.tasks.poll();
+                running.add(task);
+                // La session repasse en fin de file si elle a encore du travail.
+                if (!queue.tasks.isEmpty()) {
+                    ready.add(queue);
+                    notify();
+                }
+            }
+
+            try {
+                if (task.token.shouldStop()) {
+                    task.result.complete(null);
+                } else {
+                    task.result.complete(MinimaxAlgorithm.getBestMove(task.board, task.profile, task.clock, task.token));
+                }
+            } catch (RuntimeException e) {
+                task.result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    running.remove(task);
+                    queue.pending--;
+                    pendingTotal--;
+                    if (queue.pending == 0) {
+                        sessions.remove(queue.session);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Récupère le nombre de recherches en attente ou en cours.
+     * @return Le nombre de recherches.
+     */
+    public synchronized int getPendingCount() {
+        return pendingTotal;
+    }
+
+    /**
+     * @brief Arrête le pool. Les recherches en attente sont abandonnées et celles en cours annulées.
+     *
+     * Le jeton propre à chaque recherche est annulé : une recherche en cours s'arrête à sa
+     * prochaine consultation du jeton et rend null, comme une recherche annulée par son appelant.
+     * Le jeton de l'appelant n'est pas touché : sa partie peut continuer avec un autre pool ou sans pool.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Task task : running) {
+            task.token.cancel();
+        }
+        for (SessionQueue queue : sessions.values()) {
+            for (Task task : queue.tasks) {
+                task.token.cancel();
+                task.result.complete(null);
+            }
+        }
+        sessions.clear();
+        ready.clear();
+        notifyAll();
+    }
+}
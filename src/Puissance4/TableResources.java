@@ -0,0 +1,91 @@
+/**
+ * @file TableResources.java
+ * @brief Lecture et écriture des tables précalculées du moteur embarquées comme ressources.
+ */
+
+package Puissance4;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @class TableResources
+ * @brief Charge les tables du moteur depuis le classpath plutôt que de les recalculer au démarrage.
+ *
+ * Format d'une table : magie "P4TB", version, nombre de valeurs, puis les valeurs (big-endian).
+ * Une ressource absente ou incohérente n'est pas une erreur : l'appelant recalcule alors la table,
+ * ce qui donne exactement les mêmes valeurs. Les tables sont générées par la méthode main.
+ */
+public final class TableResources {
+    private static final int MAGIC = 0x50345442; ///< "P4TB".
+    private static final int VERSION = 1; ///< Version du format.
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private TableResources() {
+    }
+
+    /**
+     * @brief Charge une table de valeurs 64 bits depuis le classpath.
+     * @param name Nom de la ressource, relatif au paquet Puissance4.
+     * @param count Nombre de valeurs attendu.
+     * @return Les valeurs, ou null si la ressource est absente, illisible ou d'une autre taille.
+     */
+    static long[] loadLongs(String name, int count) {
+        try (InputStream resource = TableResources.class.getResourceAsStream(name)) {
+            if (resource == null) {
+                return null;
+            }
+
+            DataInputStream in = new DataInputStream(resource);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != count) {
+                return null;
+            }
+            long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = in.readLong();
+            }
+            return values;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @brief Écrit une table de valeurs 64 bits au format des ressources.
+     * @param values Les valeurs à écrire.
+     * @param output Le flux de destination (non fermé).
+     * @throws IOException Si l'écriture échoue.
+     */
+    static void writeLongs(long[] values, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+        out.flush();
+    }
+
+    /**
+     * @brief Régénère les tables embarquées.
+     * @param args Répertoire des ressources du paquet Puissance4 (par défaut src/Puissance4).
+     * @throws IOException Si l'écriture échoue.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "src/Puissance4");
+        Path zobrist = directory.resolve(Zobrist.RESOURCE);
+        try (OutputStream out = Files.newOutputStream(zobrist)) {
+            writeLongs(Zobrist.generateKeys(), out);
+        }
+        System.out.println("Table écrite : " + zobrist);
+    }
+}
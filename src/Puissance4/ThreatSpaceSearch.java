@@ -0,0 +1,161 @@
+/**
+ * @file ThreatSpaceSearch.java
+ * @brief Recherche de victoires forcées par une suite de menaces.
+ */
+
+package Puissance4;
+
+/**
+ * @class ThreatSpaceSearch
+ * @brief Détecte les victoires forcées en n'explorant que les coups qui créent une menace.
+ *
+ * Une menace est un alignement contenant 3 pions de l'attaquant et une case vide : l'adversaire
+ * est obligé d'y jouer. L'attaquant ne joue donc que des coups qui créent une menace, et le défenseur
+ * n'a qu'une seule réponse possible. La victoire est forcée dès que l'attaquant crée deux menaces à la fois.
+ * Le nombre de positions explorées reste très faible par rapport à une recherche Minimax complète.
+ */
+public final class ThreatSpaceSearch {
+    private static final char EMPTY = ' '; ///< Case vide.
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private ThreatSpaceSearch() {
+    }
+
+    /**
+     * @brief Cherche une victoire forcée par une suite de menaces.
+     * @param board Le plateau de jeu actuel (non modifié).
+     * @param attacker Le symbole du joueur qui doit jouer et qui attaque.
+     * @param maxThreats Nombre maximal de coups de l'attaquant dans la séquence.
+     * @return Le premier coup de la séquence gagnante [ligne, colonne], ou null s'il n'y en a pas.
+     */
+    public static int[] findForcedWin(Board board, char attacker, int maxThreats) {
+        return findForcedWin(board, attacker, maxThreats, CancellationToken.NONE);
+    }
+
+    /**
+     * @brief Cherche une victoire forcée par une suite de menaces, dans la limite d'un jeton.
+     *
+     * Une recherche arrêtée par le jeton ne conclut à aucune victoire : son résultat reste sûr,
+     * seule une victoire plus longue à trouver peut être manquée.
+     * @param board Le plateau de jeu actuel (non modifié).
+     * @param attacker Le symbole du joueur qui doit jouer et qui attaque.
+     * @param maxThreats Nombre maximal de coups de l'attaquant dans la séquence.
+     * @param token Le jeton consulté à chaque position explorée.
+     * @return Le premier coup de la séquence gagnante [ligne, colonne], ou null s'il n'y en a pas ou si la recherche a été arrêtée.
+     */
+    public static int[] findForcedWin(Board board, char attacker, int maxThreats, CancellationToken token) {
+        char[] cells = new char[Lines.CELL_COUNT];
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                cells[row * Constants.BOARD_SIZE + col] = board.getPiece(row, col);
+            }
+        }
+
+        char defender = attacker == 'X' ? 'O' : 'X';
+        int move = attack(cells, attacker, defender, maxThreats, token);
+        return move < 0 ? null : new int[]{move / Constants.BOARD_SIZE, move % Constants.BOARD_SIZE};
+    }
+
+    /**
+     * @brief Explore les coups menaçants de l'attaquant.
+     * @param cells Les cases du plateau (modifiées puis restaurées).
+     * @param attacker Le symbole de l'attaquant, qui doit jouer.
+     * @param defender Le symbole du défenseur.
+     * @param depth Nombre de coups restants pour l'attaquant.
+     * @param token Le jeton d'arrêt de la recherche.
+     * @return La case du coup qui force la victoire, ou -1 s'il n'y en a pas ou si la recherche a été arrêtée.
+     */
+    private static int attack(char[] cells, char attacker, char defender, int depth, CancellationToken token) {
+        long ownWins = winningCells(cells, attacker);
+        if (ownWins != 0) {
+            return Long.numberOfTrailingZeros(ownWins);
+        }
+        if (depth == 0 || token.shouldStop()) {
+            return -1;
+        }
+
+        // Si le défenseur menace déjà, l'attaquant n'a pas le choix de son coup.
+        long defenderWins = winningCells(cells, defender);
+        if (Long.bitCount(defenderWins) >= 2) {
+            return -1;
+        }
+        int forced = defenderWins != 0 ? Long.numberOfTrailingZeros(defenderWins) : -1;
+
+        for (int cell = 0; cell < Lines.CELL_COUNT; cell++) {
+            if (cells[cell] != EMPTY || (forced >= 0 && cell != forced) || !createsThreat(cells, cell, attacker)) {
+                continue;
+            }
+
+            cells[cell] = attacker;
+            long threats = winningCells(cells, attacker);
+            boolean win;
+            if (Long.bitCount(threats) >= 2) {
+                // Double menace : le défenseur ne peut en bloquer qu'une.
+                win = true;
+            } else {
+                int block = Long.numberOfTrailingZeros(threats);
+                cells[block] = defender;
+                win = attack(cells, attacker, defender, depth - 1, token) >= 0;
+                cells[block] = EMPTY;
+            }
+            cells[cell] = EMPTY;
+
+            if (win) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Vérifie si jouer dans une case crée au moins une menace.
+     * @param cells Les cases du plateau.
+     * @param cell La case vide envisagée.
+     * @param player Le symbole du joueur.
+     * @return true si un alignement passant par la case contient déjà 2 pions du joueur et 2 cases vides.
+     */
+    private static boolean createsThreat(char[] cells, int cell, char player) {
+        for (int w : Lines.CELL_WINDOWS[cell]) {
+            int own = 0;
+            int empty = 0;
+            for (int other : Lines.WINDOWS[w]) {
+                if (cells[other] == player) {
+                    own++;
+                } else if (cells[other] == EMPTY) {
+                    empty++;
+                }
+            }
+            if (own == 2 && empty == 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Calcule les cases où un joueur gagne immédiatement.
+     * @param cells Les cases du plateau.
+     * @param player Le symbole du joueur.
+     * @return Un masque de bits des cases gagnantes (bit i = case i).
+     */
+    static long winningCells(char[] cells, char player) {
+        long mask = 0;
+        for (int[] window : Lines.WINDOWS) {
+            int own = 0;
+            int emptyCell = -1;
+            for (int cell : window) {
+                if (cells[cell] == player) {
+                    own++;
+                } else if (cells[cell] == EMPTY) {
+                    emptyCell = cell;
+                }
+            }
+            if (own == 3 && emptyCell >= 0) {
+                mask |= 1L << emptyCell;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * @file TimeManager.java
+ * @brief Définition de la classe TimeManager, répartition d'une pendule de partie entre les coups.
+ */
+
+package Puissance4;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @class TimeManager
+ * @brief Pendule de l'IA pour toute une partie : fixe le temps de chaque coup et arrête l'approfondissement au bon moment.
+ *
+ * Au début d'un coup (startMove), le temps restant est divisé par une estimation du nombre de
+ * coups restants, tirée du nombre de cases vides : c'est le temps visé. Une limite dure, quelques
+ * fois plus grande mais jamais plus de la moitié du temps restant, interrompt la recherche
+ * (SearchContext) : la partie se termine toujours avant la chute de la pendule.
+ *
+ * Après chaque profondeur terminée (shouldContinue), le temps visé est ajusté :
+ * - un meilleur coup qui change d'une profondeur à l'autre, ou un score qui varie de plus de
+ *   SWING_SCORE, signale une position critique et allonge la recherche ;
+ * - un meilleur coup confirmé par STABLE_ITERATIONS profondeurs consécutives la raccourcit ;
+ * - un score décisif (gain ou perte forcés) l'arrête.
+ * La profondeur suivante n'est lancée que si sa durée prévue, estimée d'après le rapport entre
+ * les durées des deux dernières profondeurs, tient dans le temps visé : une profondeur interrompue
+ * serait perdue.
+ *
+ * Les coups trouvés sans recherche (victoire, blocage, base de positions) ne consomment presque
+ * rien : leur temps reste disponible pour les coups suivants. N'est pas sûr pour un usage concurrent :
+ * une pendule par partie, un coup à la fois.
+ */
+public class TimeManager {
+    private static final int MIN_MOVES_TO_GO = 2; ///< Nombre minimal de coups restants supposé.
+    private static final int MAX_MOVES_TO_GO = 12; ///< Nombre maximal de coups restants supposé.
+    private static final int EMPTY_CELLS_PER_MOVE = 3; ///< Cases vides comptées pour un coup restant de l'IA.
+    private static final double HARD_FACTOR = 4.0; ///< Limite dure, en multiple du temps de base du coup.
+    private static final double MAX_CLOCK_SHARE = 0.5; ///< Part maximale du temps restant accordée à un coup.
+    private static final double UNSTABLE_FACTOR = 1.6; ///< Allongement quand le meilleur coup change.
+    private static final double SWING_FACTOR = 1.4; ///< Allongement quand le score varie fortement.
+    private static final double STABLE_FACTOR = 0.5; ///< Raccourcissement quand le meilleur coup est stable.
+    private static final int STABLE_ITERATIONS = 1; ///< Profondeurs consécutives sans changement pour juger le coup stable.
+    public static final int SWING_SCORE = 200; ///< Variation de score entre deux profondeurs jugée forte.
+    public static final int DECISIVE_SCORE = 5000; ///< Score à partir duquel l'issue est considérée comme forcée.
+    private static final double MIN_GROWTH = 2.0; ///< Rapport minimal supposé entre les durées de deux profondeurs.
+    private static final double MAX_GROWTH = 8.0; ///< Rapport maximal supposé entre les durées de deux profondeurs.
+
+    private long remainingNanos; ///< Temps restant à la pendule.
+    private int moves; ///< Nombre de coups joués avec la pendule.
+    private long lastMoveNanos; ///< Durée du dernier coup.
+
+    private long moveStart; ///< Début du coup en cours (System.nanoTime), 0 hors d'un coup.
+    private long baseNanos; ///< Temps de base du coup en cours.
+    private long hardNanos; ///< Limite dure du coup en cours.
+    private int[] previousMove; ///< Meilleur coup de la profondeur précédente.
+    private int previousScore; ///< Score de la profondeur précédente.
+    private int stableIterations; ///< Profondeurs consécutives avec le même meilleur coup.
+    private long previousIterationEnd; ///< Fin de la profondeur précédente, relative au début du coup.
+    private long previousIterationNanos; ///< Durée de la profondeur précédente.
+
+    /**
+     * @brief Constructeur de la classe TimeManager.
+     * @param clockMillis Le temps total de l'IA pour la partie, en millisecondes.
+     */
+    public TimeManager(long clockMillis) {
+        this.remainingNanos = clockMillis * 1_000_000L;
+    }
+
+    /**
+     * @brief Commence un coup : fixe son temps de base et sa limite dure d'après le temps restant.
+     * @param emptyCells Le nombre de cases vides de la position.
+     */
+    public void startMove(int emptyCells) {
+        int movesToGo = Math.max(MIN_MOVES_TO_GO, Math.min(MAX_MOVES_TO_GO, emptyCells / EMPTY_CELLS_PER_MOVE));
+        long remaining = Math.max(0, remainingNanos);
+        baseNanos = remaining / movesToGo;
+        hardNanos = Math.min((long) (baseNanos * HARD_FACTOR), (long) (remaining * MAX_CLOCK_SHARE));
+        previousMove = null;
+        stableIterations = 0;
+        previousIterationEnd = 0;
+        previousIterationNanos = 0;
+        moveStart = System.nanoTime();
+    }
+
+    /**
+     * @brief Récupère le temps restant avant la limite dure du coup en cours.
+     * @return Le temps en millisecondes, au moins 1.
+     */
+    public long getHardLimitMillis() {
+        long left = hardNanos - (System.nanoTime() - moveStart);
+        return Math.max(1, left / 1_000_000L);
+    }
+
+    /**
+     * @brief Décide, après une profondeur terminée, si la suivante doit être lancée.
+     * @param bestMove Le meilleur coup de la profondeur terminée.
+     * @param score Son score, du point de vue de l'IA.
+     * @return true si la profondeur suivante doit être cherchée.
+     */
+    public boolean shouldContinue(int[] bestMove, int score) {
+        long elapsed = System.nanoTime() - moveStart;
+        long iterationNanos = elapsed - previousIterationEnd;
+        double growth = previousIterationNanos > 0 ? (double) iterationNanos / previousIterationNanos : MIN_GROWTH * 2;
+        growth = Math.max(MIN_GROWTH, Math.min(MAX_GROWTH, growth));
+
+        double scale = 1.0;
+        if (previousMove != null) {
+            if (Arrays.equals(previousMove, bestMove)) {
+                stableIterations++;
+            } else {
+                stableIterations = 0;
+                scale *= UNSTABLE_FACTOR;
+            }
+            if (Math.abs(score - previousScore) >= SWING_SCORE) {
+                scale *= SWING_FACTOR;
+            }
+        }
+        if (stableIterations >= STABLE_ITERATIONS) {
+            scale *= STABLE_FACTOR;
+        }
+
+        previousMove = bestMove;
+        previousScore = score;
+        previousIterationEnd = elapsed;
+        previousIterationNanos = iterationNanos;
+
+        if (Math.abs(score) >= DECISIVE_SCORE) {
+            return false;
+        }
+        long target = Math.min(hardNanos, (long) (baseNanos * scale));
+        return elapsed + (long) (iterationNanos * growth) <= target;
+    }
+
+    /**
+     * @brief Termine le coup en cours et retire sa durée de la pendule.
+     * @return La durée du coup en millisecondes.
+     */
+    public long endMove() {
+        lastMoveNanos = System.nanoTime() - moveStart;
+        remainingNanos -= lastMoveNanos;
+        moves++;
+        moveStart = 0;
+        return lastMoveNanos / 1_000_000L;
+    }
+
+    /**
+     * @brief Récupère le temps restant à la pendule.
+     * @return Le temps en millisecondes (négatif si la pendule est tombée).
+     */
+    public long getRemainingMillis() {
+        return remainingNanos / 1_000_000L;
+    }
+
+    /**
+     * @brief Récupère le nombre de coups joués avec la pendule.
+     * @return Le nombre de coups.
+     */
+    public int getMoveCount() {
+        return moves;
+    }
+
+    /**
+     * @brief Récupère la durée du dernier coup.
+     * @return La durée en millisecondes.
+     */
+    public long getLastMoveMillis() {
+        return lastMoveNanos / 1_000_000L;
+    }
+
+    /**
+     * @brief Fait jouer une pendule adaptative contre une pendule à temps fixe par coup, à temps total égal.
+     *
+     * Le temps fixe d'un coup est le temps restant divisé par la même estimation du nombre de coups
+     * restants : seule la répartition diffère. Chaque partie commence par deux coups aléatoires et
+     * est jouée deux fois, en échangeant les camps.
+     * @param args [nombreDePaires] [penduleEnMs] [profil : Facile, Moyen, Difficile, Expert]
+     */
+    public static void main(String[] args) {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long clockMillis = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+        DifficultyProfile base = DifficultyProfile.EXPERT;
+        for (DifficultyProfile profile : new DifficultyProfile[] {DifficultyProfile.EASY, DifficultyProfile.MEDIUM,
+                DifficultyProfile.HARD, DifficultyProfile.EXPERT}) {
+            if (args.length > 2 && profile.getName().equalsIgnoreCase(args[2])) {
+                base = profile;
+            }
+        }
+
+        Random random = new Random(1);
+        int[] points = new int[2]; // Demi-points : adaptative, fixe.
+        long[] totalNanos = new long[2];
+        long[] maxNanos = new long[2];
+        int[] moveCounts = new int[2];
+        int flags = 0;
+        for (int pair = 0; pair < pairs; pair++) {
+            Position opening = Position.empty('X');
+            while (opening.getPieceCount() < 2) {
+                int row = random.nextInt(Constants.BOARD_SIZE);
+                int col = random.nextInt(Constants.BOARD_SIZE);
+                if (opening.isEmpty(row, col)) {
+                    opening = opening.play(row, col);
+                }
+            }
+            for (int adaptiveSide = 0; adaptiveSide < 2; adaptiveSide++) {
+                TimeManager[] clocks = {new TimeManager(clockMillis), new TimeManager(clockMillis)};
+                Position position = opening;
+                while (!position.isGameOver()) {
+                    // Camp 0 : 'X' ; l'IA cherche pour 'O', la position est donc retournée pour 'X'.
+                    int side = position.getSideToMove() == 'X' ? 0 : 1;
+                    int player = side == adaptiveSide ? 0 : 1;
+                    Board board = side == 0
+                            ? new Position(position.getOMask(), position.getXMask(), 'O').toBoard()
+                            : position.toBoard();
+                    TimeManager clock = clocks[side];
+                    int empty = Lines.CELL_COUNT - position.getPieceCount();
+                    clock.startMove(empty);
+                    int[] move;
+                    if (player == 0) {
+                        move = MinimaxAlgorithm.getBestMove(board, base, clock, CancellationToken.NONE);
+                    } else {
+                        DifficultyProfile flat = new DifficultyProfile("Fixe", base.getDepth(), base.getNodeBudget(),
+                                Math.max(1, clock.baseNanos / 1_000_000L), 0);
+                        move = MinimaxAlgorithm.getBestMove(board, flat, CancellationToken.NONE);
+                    }
+                    clock.endMove();
+                    totalNanos[player] += clock.lastMoveNanos;
+                    maxNanos[player] = Math.max(maxNanos[player], clock.lastMoveNanos);
+                    moveCounts[player]++;
+                    position = position.play(move[0], move[1]);
+                }
+                for (int side = 0; side < 2; side++) {
+                    if (clocks[side].getRemainingMillis() < 0) {
+                        flags++;
+                    }
+                }
+                char winner = MoveDiff.resultOf(position);
+                int adaptiveSymbol = adaptiveSide == 0 ? 'X' : 'O';
+                if (winner == MoveDiff.DRAW) {
+                    points[0]++;
+                    points[1]++;
+                } else {
+                    points[winner == adaptiveSymbol ? 0 : 1] += 2;
+                }
+            }
+        }
+
+        String[] names = {"adaptative", "fixe"};
+        for (int i = 0; i < 2; i++) {
+            System.out.printf("%-10s : %.1f points sur %d, %d coups, moyenne %.1f ms, maximum %.1f ms%n",
+                    names[i], points[i] / 2.0, 2 * pairs, moveCounts[i],
+                    totalNanos[i] / 1e6 / Math.max(1, moveCounts[i]), maxNanos[i] / 1e6);
+        }
+        System.out.println("pendules tombées : " + flags);
+    }
+}
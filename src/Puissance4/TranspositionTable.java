@@ -0,0 +1,151 @@
+/**
+ * @file TranspositionTable.java
+ * @brief Table de transposition stockée hors du tas Java.
+ */
+
+package Puissance4;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @class TranspositionTable
+ * @brief Mémorise les résultats de recherche par position, dans de la mémoire native.
+ *
+ * Les entrées ont une taille fixe de 16 octets : la clé de hachage (combinée par OU exclusif
+ * avec les données) puis les données compactées (score, coup, profondeur, type de borne).
+ * La mémoire est allouée avec ByteBuffer.allocateDirect, en segments de 1 Go : le tas reste petit
+ * et le ramasse-miettes n'a jamais à parcourir la table, quelle que soit sa taille.
+ * Les accès passent par un VarHandle en mode volatile, sans verrou : une entrée écrite à moitié
+ * par un autre thread est détectée grâce au OU exclusif et ignorée.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1; ///< Le score est exact.
+    public static final int LOWER_BOUND = 2; ///< Le score est une borne inférieure (coupure beta).
+    public static final int UPPER_BOUND = 3; ///< Le score est une borne supérieure (aucun coup n'a dépassé alpha).
+    public static final int NO_MOVE = 0xFF; ///< Coup absent.
+
+    private static final int ENTRY_SIZE = 16; ///< Taille d'une entrée en octets.
+    private static final int SEGMENT_SHIFT = 26; ///< 2^26 entrées (1 Go) par segment.
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder()); ///< Accès atomique aux longs d'un segment.
+
+    private final ByteBuffer[] segments; ///< Segments de mémoire native.
+    private final long mask; ///< Masque d'indice (nombre d'entrées - 1).
+
+    /**
+     * @brief Constructeur de la classe TranspositionTable.
+     * @param sizeBytes Taille souhaitée en octets, arrondie à la puissance de 2 inférieure (au moins une entrée).
+     */
+    public TranspositionTable(long sizeBytes) {
+        long entries = Long.highestOneBit(Math.max(1, sizeBytes / ENTRY_SIZE));
+        mask = entries - 1;
+
+        long perSegment = Math.min(entries, 1L << SEGMENT_SHIFT);
+        segments = new ByteBuffer[(int) (entries / perSegment)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) (perSegment * ENTRY_SIZE)).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * @brief Cherche l'entrée associée à une position.
+     * @param hash La clé de hachage de la position.
+     * @return Les données compactées de l'entrée, ou 0 si la position est absente.
+     */
+    public long probe(long hash) {
+        long index = hash & mask;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+        int offset = (int) (index & ((1L << SEGMENT_SHIFT) - 1)) * ENTRY_SIZE;
+
+        long key = (long) LONGS.getVolatile(segment, offset);
+        long data = (long) LONGS.getVolatile(segment, offset + Long.BYTES);
+        return (key ^ data) == hash ? data : 0;
+    }
+
+    /**
+     * @brief Enregistre le résultat de la recherche d'une position.
+     *
+     * Une entrée d'une autre position est toujours remplacée ; une entrée de la même position
+     * ne l'est que par une recherche au moins aussi profonde.
+     * @param hash La clé de hachage de la position.
+     * @param move Le meilleur coup (case ligne * BOARD_SIZE + colonne) ou NO_MOVE.
+     * @param score Le score trouvé.
+     * @param depth La profondeur de la recherche.
+     * @param flag Le type de score (EXACT, LOWER_BOUND ou UPPER_BOUND).
+     */
+    public void store(long hash, int move, int score, int depth, int flag) {
+        long index = hash & mask;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+        int offset = (int) (index & ((1L << SEGMENT_SHIFT) - 1)) * ENTRY_SIZE;
+
+        long existing = probe(hash);
+        if (existing != 0 && depth(existing) > depth) {
+            return;
+        }
+
+        long data = (score & 0xFFFFFFFFL)
+                | (long) (move & 0xFF) << 32
+                | (long) (Math.min(depth, 0xFF) & 0xFF) << 40
+                | (long) (flag & 0x3) << 48;
+        LONGS.setVolatile(segment, offset, hash ^ data);
+        LONGS.setVolatile(segment, offset + Long.BYTES, data);
+    }
+
+    /**
+     * @brief Vide la table.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity(); offset += Long.BYTES) {
+                LONGS.setVolatile(segment, offset, 0L);
+            }
+        }
+    }
+
+    /**
+     * @brief Récupère le nombre d'entrées de la table.
+     * @return Le nombre d'entrées.
+     */
+    public long capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @brief Extrait le score d'une entrée.
+     * @param entry Les données compactées.
+     * @return Le score.
+     */
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * @brief Extrait le meilleur coup d'une entrée.
+     * @param entry Les données compactées.
+     * @return La case du coup, ou NO_MOVE.
+     */
+    public static int move(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * @brief Extrait la profondeur d'une entrée.
+     * @param entry Les données compactées.
+     * @return La profondeur.
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 40) & 0xFF;
+    }
+
+    /**
+     * @brief Extrait le type de score d'une entrée.
+     * @param entry Les données compactées.
+     * @return EXACT, LOWER_BOUND ou UPPER_BOUND.
+     */
+    public static int flag(long entry) {
+        return (int) (entry >>> 48) & 0x3;
+    }
+}
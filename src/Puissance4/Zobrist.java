@@ -0,0 +1,73 @@
+/**
+ * @file Zobrist.java
+ * @brief Hachage de Zobrist des positions du plateau.
+ */
+
+package Puissance4;
+
+import java.util.SplittableRandom;
+
+/**
+ * @class Zobrist
+ * @brief Calcule une clé de hachage 64 bits pour une position.
+ *
+ * Chaque couple (case, joueur) est associé à un nombre aléatoire fixe ; la clé d'une position
+ * est le OU exclusif des nombres des pions présents et de celui du joueur qui doit jouer.
+ *
+ * Les clés ne sont construites qu'au premier hachage (chargement paresseux de la classe) et
+ * proviennent de la ressource zobrist.bin quand elle est présente ; à défaut, elles sont
+ * recalculées à partir de la graine fixe, ce qui donne les mêmes valeurs.
+ */
+public final class Zobrist {
+    static final String RESOURCE = "zobrist.bin"; ///< Nom de la ressource contenant les clés précalculées.
+    private static final long SEED = 0x50756973736e6334L; ///< Graine fixe : les clés sont identiques d'une exécution à l'autre.
+    private static final int SIDE_INDEX = Lines.CELL_COUNT * 2; ///< Indice de la clé ajoutée quand c'est à 'O' de jouer.
+    private static final long[] KEYS = loadKeys(); ///< Clés par case (pour 'X' puis 'O'), puis clé du joueur 'O'.
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * @brief Charge les clés depuis la ressource, ou les calcule si elle est absente.
+     * @return Les clés.
+     */
+    private static long[] loadKeys() {
+        long[] keys = TableResources.loadLongs(RESOURCE, SIDE_INDEX + 1);
+        return keys != null ? keys : generateKeys();
+    }
+
+    /**
+     * @brief Calcule les clés à partir de la graine fixe.
+     * @return Les clés par case (pour 'X' puis 'O'), puis la clé du joueur 'O'.
+     */
+    static long[] generateKeys() {
+        long[] keys = new long[SIDE_INDEX + 1];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    /**
+     * @brief Calcule la clé de hachage d'une position.
+     * @param board Le plateau de jeu.
+     * @param sideToMove Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @return La clé de hachage.
+     */
+    public static long hash(Board board, char sideToMove) {
+        long hash = sideToMove == 'O' ? KEYS[SIDE_INDEX] : 0;
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                char piece = board.getPiece(row, col);
+                if (piece != ' ') {
+                    hash ^= KEYS[(row * Constants.BOARD_SIZE + col) * 2 + (piece == 'X' ? 0 : 1)];
+                }
+            }
+        }
+        return hash;
+    }
+}
@@ -6,6 +6,7 @@
 package Puissance4.gui;
 
 import Puissance4.*;
+import Puissance4.monitoring.RepaintEvent;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,6 +14,11 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @class GameWindow
@@ -23,16 +29,36 @@ import java.awt.event.MouseEvent;
  */
 public class GameWindow extends JFrame {
     private static final int TILE_SIZE = 100; ///< Taille des tuiles du plateau.
+    private static final Color PLAYER_X_COLOR = new Color(175, 0, 0); ///< Couleur des pions du joueur 'X'.
+    private static final Color PLAYER_O_COLOR = new Color(0, 0, 139); ///< Couleur des pions du joueur 'O'.
+    private static final Color TILE_COLOR = new Color(230, 190, 255); ///< Couleur de fond des tuiles.
+    private static final int MAX_CACHED_DISCS = 16; ///< Nombre maximal d'images de pions conservées.
+    private static final int ANALYSIS_MAX_DEPTH = 8; ///< Profondeur maximale atteinte par le mode analyse.
+    private static final int ANALYSIS_FRAME_DELAY = 1000 / 60; ///< Intervalle (ms) entre deux rafraîchissements de l'analyse.
+    private static final Color[] HEAT_COLORS = createHeatColors(32); ///< Palette de la carte de chaleur, du pire au meilleur coup.
+    private static final Font ANALYSIS_FONT = new Font("Helvetica", Font.PLAIN, 11); ///< Police des scores affichés.
+    private static final Font PV_FONT = new Font("Helvetica", Font.BOLD, 16); ///< Police des numéros de la variante principale.
+    private static final Map<Integer, BufferedImage> discCache = new HashMap<>(); ///< Pions pré-rendus par joueur et par taille (accès depuis l'EDT uniquement).
     private Board board; ///< Plateau de jeu.
     private Game game; ///< Instance du jeu.
     private JFrame frame; ///< Fenêtre principale.
     private JSpinner depthSpinner; ///< Sélecteur de profondeur pour l'IA.
     private JLabel[][] tiles; ///< Tableau de labels représentant les tuiles du plateau.
+    private char[][] displayedPieces; ///< Dernier état du plateau affiché, pour ne redessiner que les cases modifiées.
     private JPanel boardPanel; ///< Panneau contenant le plateau de jeu.
     private JLabel statusLabel; ///< Label affichant le statut du jeu.
+    private JLabel analysisLabel; ///< Label affichant la profondeur et le score de l'analyse, à côté de son interrupteur.
     private Player player; ///< Joueur humain.
     private Player aiPlayer; ///< Joueur IA.
     private boolean isHumanVsHuman = false; ///< Indique si le mode de jeu est Humain vs Humain.
+    private boolean analysisMode = false; ///< Indique si le mode analyse est activé.
+    private CancellationToken analysisToken; ///< Jeton d'annulation de l'analyse en cours.
+    private AtomicReference<AnalysisResult> pendingAnalysis = new AtomicReference<>(); ///< Dernier résultat publié par l'analyse en cours.
+    private AnalysisResult displayedAnalysis; ///< Résultat actuellement affiché.
+    private int analysisMin; ///< Plus petit score du résultat affiché.
+    private int analysisMax; ///< Plus grand score du résultat affiché.
+    private int[][] pvOrder; ///< Rang de chaque case dans la variante principale (0 si absente).
+    private Timer analysisTimer; ///< Timer limitant le rafraîchissement de l'analyse à la fréquence d'affichage.
 
     /**
      * @brief Constructeur de la classe GameWindow.
@@ -43,6 +69,20 @@ public class GameWindow extends JFrame {
         start();
     }
 
+    /**
+     * @brief Ferme la fenêtre de jeu et abandonne la partie en cours.
+     *
+     * La recherche de l'IA et l'analyse éventuellement en cours sont annulées.
+     */
+    @Override
+    public void dispose() {
+        if (game != null) {
+            game.abandon();
+        }
+        stopAnalysis();
+        super.dispose();
+    }
+
     /**
      * @brief Affiche le menu de choix du mode de jeu.
      */
@@ -180,7 +220,7 @@ public class GameWindow extends JFrame {
      */
     public void initializeGame() {
         setTitle("Puissance 4");
-        setSize(Constants.BOARD_SIZE * TILE_SIZE, Constants.BOARD_SIZE * TILE_SIZE + 50);
+        setSize(Constants.BOARD_SIZE * TILE_SIZE, Constants.BOARD_SIZE * TILE_SIZE + 80);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         getContentPane().setBackground(new Color(200, 160, 230));
@@ -194,50 +234,28 @@ public class GameWindow extends JFrame {
         boardPanel = new JPanel(new GridLayout(Constants.BOARD_SIZE, Constants.BOARD_SIZE));
 
         tiles = new JLabel[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
+        displayedPieces = new char[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
         for (int row = 0; row < Constants.BOARD_SIZE; row++) {
             for (int col = 0; col < Constants.BOARD_SIZE; col++) {
                 final int r = row;
                 final int c = col;
 
-                JLabel tileLabel = new JLabel(" ", SwingConstants.CENTER) {
-                    @Override
-                    protected void paintComponent(Graphics g) {
-                        super.paintComponent(g);
-                        char piece = board.getPiece(r, c);
-                        if (piece != ' ') {
-                            g.setColor(piece == 'X' ? new Color(175 , 0, 0) : new Color(0, 0, 139));
-                            int baseSize = Math.min(getWidth(), getHeight()) / 2;
-                            int size = (int) (baseSize * 1.2);
-                            int x = (getWidth() - size) / 2;
-                            int y = (getHeight() - size) / 2;
-                            g.fillOval(x, y, size, size);
-                        }
-                    }
-                };
-
-                tileLabel.setPreferredSize(new Dimension(TILE_SIZE, TILE_SIZE));
-                tileLabel.setBackground(new Color(230, 190, 255));
-                tileLabel.setOpaque(true);
-                tileLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
+                JLabel tileLabel = createTileLabel(r, c);
 
                 tileLabel.addMouseListener(new MouseAdapter() {
                     @Override
                     public void mousePressed(MouseEvent e) {
-                        if (game.isGameOver() || board.getPiece(r, c) != ' ') {
+                        // Pendant la recherche de l'IA, les clics sont ignorés.
+                        if (game.isGameOver() || game.getCurrentPlayer().getSymbol() != Constants.PLAYER_X
+                                || board.getPiece(r, c) != ' ') {
                             return;
                         }
 
+                        // Le coup du joueur lance le tour de l'IA, hors de l'EDT ; la partie met
+                        // ensuite l'affichage à jour.
                         game.handleCellClick(r, c);
                         updateBoardDisplay();
                         updateStatus();
-
-                        if (game.isGameOver()) {
-                            return;
-                        }
-
-                        game.aiTurn();
-                        updateBoardDisplay();
-                        updateStatus();
                     }
                 });
 
@@ -247,6 +265,7 @@ public class GameWindow extends JFrame {
         }
 
         add(boardPanel, BorderLayout.CENTER);
+        add(createAnalysisToggle(), BorderLayout.NORTH);
 
         statusLabel = new JLabel("C'est à votre tour !", JLabel.CENTER);
         add(statusLabel, BorderLayout.SOUTH);
@@ -259,7 +278,7 @@ public class GameWindow extends JFrame {
      */
     public void initializeHumanVsHumanGame() {
         setTitle("Puissance 4");
-        setSize(Constants.BOARD_SIZE * TILE_SIZE, Constants.BOARD_SIZE * TILE_SIZE + 50);
+        setSize(Constants.BOARD_SIZE * TILE_SIZE, Constants.BOARD_SIZE * TILE_SIZE + 80);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         getContentPane().setBackground(new Color(200, 160, 230));
@@ -273,31 +292,13 @@ public class GameWindow extends JFrame {
         boardPanel = new JPanel(new GridLayout(Constants.BOARD_SIZE, Constants.BOARD_SIZE));
 
         tiles = new JLabel[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
+        displayedPieces = new char[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
         for (int row = 0; row < Constants.BOARD_SIZE; row++) {
             for (int col = 0; col < Constants.BOARD_SIZE; col++) {
                 final int r = row;
                 final int c = col;
 
-                JLabel tileLabel = new JLabel(" ", SwingConstants.CENTER) {
-                    @Override
-                    protected void paintComponent(Graphics g) {
-                        super.paintComponent(g);
-                        char piece = board.getPiece(r, c);
-                        if (piece != ' ') {
-                            g.setColor(piece == 'X' ? new Color(175 , 0, 0) : new Color(0, 0, 139));
-                            int baseSize = Math.min(getWidth(), getHeight()) / 2;
-                            int size = (int) (baseSize * 1.2);
-                            int x = (getWidth() - size) / 2;
-                            int y = (getHeight() - size) / 2;
-                            g.fillOval(x, y, size, size);
-                        }
-                    }
-                };
-
-                tileLabel.setPreferredSize(new Dimension(TILE_SIZE, TILE_SIZE));
-                tileLabel.setBackground(new Color(230, 190, 255));
-                tileLabel.setOpaque(true);
-                tileLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
+                JLabel tileLabel = createTileLabel(r, c);
 
                 tileLabel.addMouseListener(new MouseAdapter() {
                     @Override
@@ -318,6 +319,7 @@ public class GameWindow extends JFrame {
         }
 
         add(boardPanel, BorderLayout.CENTER);
+        add(createAnalysisToggle(), BorderLayout.NORTH);
 
         statusLabel = new JLabel("C'est au tour du joueur 'X'", JLabel.CENTER);
         add(statusLabel, BorderLayout.SOUTH);
@@ -325,20 +327,301 @@ public class GameWindow extends JFrame {
         setVisible(true);
     }
 
+    /**
+     * @brief Crée la tuile graphique associée à une case du plateau.
+     * @param r Ligne de la case.
+     * @param c Colonne de la case.
+     * @return Le label représentant la case.
+     */
+    private JLabel createTileLabel(final int r, final int c) {
+        JLabel tileLabel = new JLabel(" ", SwingConstants.CENTER) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                RepaintEvent event = new RepaintEvent();
+                event.begin();
+                super.paintComponent(g);
+                // Lecture d'un instantané : jamais une position en cours de recherche.
+                char piece = game.getPosition().getPiece(r, c);
+                if (piece != ' ') {
+                    int baseSize = Math.min(getWidth(), getHeight()) / 2;
+                    int size = (int) (baseSize * 1.2);
+                    if (size > 0) {
+                        int x = (getWidth() - size) / 2;
+                        int y = (getHeight() - size) / 2;
+                        g.drawImage(getDiscImage(piece, size), x, y, null);
+                    }
+                } else if (displayedAnalysis != null) {
+                    paintAnalysis(g, r, c, getWidth(), getHeight());
+                }
+                commitRepaint(event, "paint", 1);
+            }
+        };
+
+        tileLabel.setPreferredSize(new Dimension(TILE_SIZE, TILE_SIZE));
+        tileLabel.setBackground(TILE_COLOR);
+        tileLabel.setOpaque(true);
+        tileLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
+        return tileLabel;
+    }
+
+    /**
+     * @brief Retourne l'image pré-rendue d'un pion, en la créant si nécessaire.
+     *
+     * Les images sont mises en cache par joueur et par taille : une tuile n'a plus
+     * qu'à copier l'image au lieu de recalculer la forme à chaque affichage.
+     * @param piece Symbole du joueur ('X' ou 'O').
+     * @param size Diamètre du pion en pixels.
+     * @return L'image du pion.
+     */
+    private static BufferedImage getDiscImage(char piece, int size) {
+        int key = (size << 1) | (piece == 'X' ? 1 : 0);
+        BufferedImage image = discCache.get(key);
+        if (image == null) {
+            // Les tailles changent au redimensionnement : on évite une croissance illimitée du cache.
+            if (discCache.size() >= MAX_CACHED_DISCS) {
+                discCache.clear();
+            }
+
+            image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = image.createGraphics();
+            g2.setColor(piece == 'X' ? PLAYER_X_COLOR : PLAYER_O_COLOR);
+            g2.fillOval(0, 0, size, size);
+            g2.dispose();
+            discCache.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * @brief Crée la case à cocher activant le mode analyse et le label de son résultat.
+     * @return Le panneau contenant la case à cocher et le label de l'analyse.
+     */
+    private JPanel createAnalysisToggle() {
+        JCheckBox analysisCheckBox = new JCheckBox("Mode analyse");
+        analysisCheckBox.setFont(new Font("Helvetica", Font.PLAIN, 14));
+        analysisCheckBox.setOpaque(false);
+        analysisCheckBox.setSelected(analysisMode);
+        analysisCheckBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                analysisMode = analysisCheckBox.isSelected();
+                if (analysisMode) {
+                    restartAnalysis();
+                } else {
+                    stopAnalysis();
+                }
+            }
+        });
+
+        analysisLabel = new JLabel(" ");
+        analysisLabel.setFont(new Font("Helvetica", Font.PLAIN, 14));
+
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        panel.setBackground(new Color(200, 160, 230));
+        panel.add(analysisCheckBox);
+        panel.add(analysisLabel);
+        return panel;
+    }
+
+    /**
+     * @brief Relance l'analyse de la position courante en arrière-plan.
+     *
+     * L'analyse précédente est interrompue. Les résultats de chaque profondeur sont
+     * déposés dans pendingAnalysis puis affichés par analysisTimer, au plus une fois par image.
+     */
+    private void restartAnalysis() {
+        stopAnalysis();
+        if (!analysisMode || game == null || game.isGameOver()) {
+            return;
+        }
+
+        final Position position = game.getPosition();
+        final Board snapshot = position.toBoard();
+        final CancellationToken token = new CancellationToken();
+        final char player = position.getSideToMove();
+        // Chaque analyse publie dans sa propre référence : une ancienne analyse ne peut plus rien afficher.
+        final AtomicReference<AnalysisResult> target = new AtomicReference<>();
+        pendingAnalysis = target;
+
+        analysisToken = token;
+        Thread analysisThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                MinimaxAlgorithm.analyze(snapshot, player, ANALYSIS_MAX_DEPTH, new AnalysisListener() {
+                    @Override
+                    public void onDepthCompleted(AnalysisResult result) {
+                        target.set(result);
+                    }
+                }, token);
+            }
+        }, "Puissance4-analyse");
+        analysisThread.setDaemon(true);
+        analysisThread.setPriority(Thread.MIN_PRIORITY);
+        analysisThread.start();
+
+        if (analysisTimer == null) {
+            analysisTimer = new Timer(ANALYSIS_FRAME_DELAY, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    AnalysisResult result = pendingAnalysis.getAndSet(null);
+                    if (result != null) {
+                        showAnalysis(result);
+                    }
+                }
+            });
+        }
+        analysisTimer.start();
+    }
+
+    /**
+     * @brief Arrête l'analyse en cours et efface la carte de chaleur.
+     */
+    private void stopAnalysis() {
+        if (analysisToken != null) {
+            analysisToken.cancel();
+            analysisToken = null;
+        }
+        if (analysisTimer != null) {
+            analysisTimer.stop();
+        }
+        pendingAnalysis = new AtomicReference<>();
+        if (analysisLabel != null) {
+            analysisLabel.setText(" ");
+        }
+        if (displayedAnalysis != null) {
+            displayedAnalysis = null;
+            repaintAllTiles();
+        }
+    }
+
+    /**
+     * @brief Affiche un résultat d'analyse sur le plateau.
+     * @param result Le résultat à afficher.
+     */
+    private void showAnalysis(AnalysisResult result) {
+        analysisMin = Integer.MAX_VALUE;
+        analysisMax = Integer.MIN_VALUE;
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                int score = result.getScore(row, col);
+                if (score != AnalysisResult.NO_SCORE) {
+                    analysisMin = Math.min(analysisMin, score);
+                    analysisMax = Math.max(analysisMax, score);
+                }
+            }
+        }
+
+        pvOrder = new int[Constants.BOARD_SIZE][Constants.BOARD_SIZE];
+        List<int[]> principalVariation = result.getPrincipalVariation();
+        for (int i = 0; i < principalVariation.size(); i++) {
+            int[] move = principalVariation.get(i);
+            pvOrder[move[0]][move[1]] = i + 1;
+        }
+
+        displayedAnalysis = result;
+        analysisLabel.setText("Profondeur " + result.getDepth() + ", score " + result.getBestScore());
+        repaintAllTiles();
+    }
+
+    /**
+     * @brief Dessine la carte de chaleur et la variante principale sur une case vide.
+     * @param g Le contexte graphique de la tuile.
+     * @param r Ligne de la case.
+     * @param c Colonne de la case.
+     * @param width Largeur de la tuile.
+     * @param height Hauteur de la tuile.
+     */
+    private void paintAnalysis(Graphics g, int r, int c, int width, int height) {
+        int score = displayedAnalysis.getScore(r, c);
+        if (score == AnalysisResult.NO_SCORE) {
+            return;
+        }
+
+        int range = analysisMax - analysisMin;
+        int index = range == 0 ? HEAT_COLORS.length - 1
+                : (int) ((long) (score - analysisMin) * (HEAT_COLORS.length - 1) / range);
+        g.setColor(HEAT_COLORS[index]);
+        g.fillRect(0, 0, width, height);
+
+        g.setColor(Color.BLACK);
+        g.setFont(ANALYSIS_FONT);
+        g.drawString(String.valueOf(score), 4, height - 4);
+
+        int order = pvOrder[r][c];
+        if (order > 0) {
+            g.setFont(PV_FONT);
+            g.drawString(String.valueOf(order), width / 2 - 4, height / 2 + 6);
+        }
+    }
+
+    /**
+     * @brief Crée la palette de la carte de chaleur, du rouge (mauvais coup) au vert (meilleur coup).
+     * @param size Nombre de couleurs.
+     * @return La palette.
+     */
+    private static Color[] createHeatColors(int size) {
+        Color[] colors = new Color[size];
+        for (int i = 0; i < size; i++) {
+            float t = i / (float) (size - 1);
+            colors[i] = new Color(1f - t, t, 0f, 0.45f);
+        }
+        return colors;
+    }
+
+    /**
+     * @brief Redessine toutes les tuiles du plateau.
+     */
+    private void repaintAllTiles() {
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                tiles[row][col].repaint();
+            }
+        }
+    }
+
+    /**
+     * @brief Termine un événement JFR d'affichage.
+     * @param event L'événement commencé au début de la phase.
+     * @param phase "update" (recherche des cases modifiées) ou "paint" (dessin d'une tuile).
+     * @param cells Le nombre de cases concernées.
+     */
+    private static void commitRepaint(RepaintEvent event, String phase, int cells) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.cells = cells;
+            event.commit();
+        }
+    }
+
     /**
      * @brief Met à jour l'affichage du plateau de jeu.
+     *
+     * Seules les cases dont le contenu a changé depuis le dernier affichage sont redessinées.
      */
     public void updateBoardDisplay() {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
+                RepaintEvent event = new RepaintEvent();
+                event.begin();
+                Position snapshot = game.getPosition();
+                int changed = 0;
                 for (int row = 0; row < Constants.BOARD_SIZE; row++) {
                     for (int col = 0; col < Constants.BOARD_SIZE; col++) {
-                        tiles[row][col].repaint();
+                        char piece = snapshot.getPiece(row, col);
+                        if (displayedPieces[row][col] != piece) {
+                            displayedPieces[row][col] = piece;
+                            tiles[row][col].repaint();
+                            changed++;
+                        }
                     }
                 }
-                boardPanel.revalidate();
-                boardPanel.repaint();
+                commitRepaint(event, "update", changed);
+
+                if (analysisMode) {
+                    restartAnalysis();
+                }
             }
         });
     }
@@ -346,11 +629,12 @@ public class GameWindow extends JFrame {
     /**
      * @brief Met à jour le statut du jeu affiché dans la fenêtre.
      */
-    private void updateStatus() {
+    public void updateStatus() {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
                 if (game.isGameOver()) {
+                    stopAnalysis();
                     char winner = game.getWinner();
                     if (winner == ' ') {
                         statusLabel.setText("Match nul !");
@@ -380,7 +664,10 @@ public class GameWindow extends JFrame {
                             Timer aiStatusTimer = new Timer(500, new ActionListener() {
                                 @Override
                                 public void actionPerformed(ActionEvent e) {
-                                    statusLabel.setText("L'IA joue...");
+                                    // L'IA a pu jouer entre-temps.
+                                    if (!game.isGameOver() && game.getCurrentPlayer().getSymbol() != Constants.PLAYER_X) {
+                                        statusLabel.setText("L'IA joue...");
+                                    }
                                 }
                             });
                             aiStatusTimer.setRepeats(false);
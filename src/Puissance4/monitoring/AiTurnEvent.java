@@ -0,0 +1,40 @@
+/**
+ * @file AiTurnEvent.java
+ * @brief Événement JFR d'un tour de l'IA.
+ */
+
+package Puissance4.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @class AiTurnEvent
+ * @brief Durée d'un tour de l'IA : recherche, coup joué et demande d'affichage.
+ *
+ * La durée de l'événement couvre Game.aiTurn (recherche, attente dans le pool, coup joué, demande
+ * de rafraîchissement) ; le délai entre le coup humain et le début du tour est mesuré à part.
+ */
+@Name("Puissance4.AiTurn")
+@Label("Tour de l'IA")
+@Description("Tour complet de l'IA dans Game.aiTurn")
+@Category({"Puissance 4", "Partie"})
+@StackTrace(false)
+public final class AiTurnEvent extends Event {
+    @Label("Attente")
+    @Description("Délai entre la fin du coup précédent et le début du tour (file de l'EDT)")
+    @Timespan(Timespan.NANOSECONDS)
+    public long waitTime; ///< Délai entre la demande du tour et son début.
+
+    @Label("Difficulté")
+    public String difficulty; ///< Nom du profil de difficulté, ou null.
+
+    @Label("Coup")
+    @Description("Case jouée, ligne * taille + colonne (-1 si aucun coup n'a été joué)")
+    public int move; ///< Case jouée.
+}
@@ -0,0 +1,143 @@
+/**
+ * @file LatencyHistogram.java
+ * @brief Histogramme de latences sans verrou.
+ */
+
+package Puissance4.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @class LatencyHistogram
+ * @brief Compte des durées dans des intervalles log-linéaires, enregistrables depuis plusieurs threads.
+ *
+ * Chaque puissance de deux est découpée en SUB_BUCKETS intervalles égaux : l'erreur relative d'un
+ * percentile est donc au plus 1 / SUB_BUCKETS (environ 6 %), de la nanoseconde à plusieurs heures.
+ * Un enregistrement coûte quelques incréments atomiques, sans allocation ni verrou. Les lectures
+ * (percentiles, nombre, maximum) peuvent être faites pendant les enregistrements ; elles voient
+ * alors un état légèrement en retard, sans jamais bloquer les threads de recherche.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4; ///< Log2 du nombre d'intervalles par puissance de deux.
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; ///< Nombre d'intervalles par puissance de deux.
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS; ///< Nombre total d'intervalles.
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); ///< Nombre de durées par intervalle.
+    private final AtomicLong count = new AtomicLong(); ///< Nombre total de durées.
+    private final AtomicLong sum = new AtomicLong(); ///< Somme des durées, en nanosecondes.
+    private final AtomicLong max = new AtomicLong(); ///< Plus grande durée, en nanosecondes.
+
+    /**
+     * @brief Enregistre une durée.
+     * @param nanos La durée en nanosecondes (les valeurs négatives sont comptées comme 0).
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @brief Récupère le nombre de durées enregistrées.
+     * @return Le nombre de durées.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @brief Récupère la durée moyenne.
+     * @return La moyenne en nanosecondes, ou 0 si aucune durée n'a été enregistrée.
+     */
+    public long getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : sum.get() / n;
+    }
+
+    /**
+     * @brief Récupère la plus grande durée enregistrée.
+     * @return Le maximum en nanosecondes.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @brief Estime un percentile.
+     *
+     * Le résultat est la borne supérieure de l'intervalle qui contient le percentile, limitée au
+     * maximum observé : il ne sous-estime jamais la latence réelle de plus d'un intervalle.
+     * @param percentile Le percentile, entre 0 et 100 (par exemple 99.9).
+     * @return La durée en nanosecondes, ou 0 si aucune durée n'a été enregistrée.
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @brief Remet l'histogramme à zéro.
+     *
+     * Les durées enregistrées pendant la remise à zéro peuvent être perdues ou conservées.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @brief Calcule l'intervalle d'une durée.
+     * @param value La durée (positive ou nulle).
+     * @return L'indice de l'intervalle.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @brief Calcule la plus grande durée d'un intervalle.
+     * @param bucket L'indice de l'intervalle.
+     * @return La borne supérieure incluse, en nanosecondes.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * @file MoveLatencyRecorder.java
+ * @brief Latences des coups de l'IA par profondeur et par nombre de cases vides.
+ */
+
+package Puissance4.monitoring;
+
+import Puissance4.Lines;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @class MoveLatencyRecorder
+ * @brief Histogrammes des durées de MinimaxAlgorithm.getBestMove, un par profondeur et tranche de cases vides.
+ *
+ * La durée d'une recherche dépend autant de la position que de la profondeur : une même profondeur
+ * coûte bien plus en début de partie qu'en fin. Les durées sont donc classées par profondeur
+ * demandée et par tranche de EMPTY_CELLS_PER_SLICE cases vides, ce qui permet de lire les p50, p99
+ * et p99.9 d'une profondeur sur une machine donnée et d'en déduire une profondeur par défaut sûre.
+ *
+ * L'enregistrement est sans verrou (LatencyHistogram) ; les histogrammes sont créés à la première
+ * durée de leur case. Un objectif de latence (SLO) peut être fixé : chaque dépassement est compté
+ * et, si un journal est défini, signalé sur une ligne. Les instantanés sont exportés en texte,
+ * à la demande (snapshot()) ou périodiquement dans un fichier (startExport()).
+ *
+ * Propriétés système lues par configureFromSystemProperties() :
+ * - puissance4.latency.file : fichier d'export périodique ;
+ * - puissance4.latency.period : période d'export en secondes (60 par défaut) ;
+ * - puissance4.latency.slo : objectif de latence en millisecondes (dépassements signalés sur la sortie d'erreur).
+ */
+public final class MoveLatencyRecorder {
+    public static final int MAX_DEPTH = 16; ///< Profondeurs suivies séparément ; les plus grandes sont comptées avec MAX_DEPTH.
+    public static final int EMPTY_CELLS_PER_SLICE = 6; ///< Nombre de cases vides par tranche.
+    private static final int SLICES = Lines.CELL_COUNT / EMPTY_CELLS_PER_SLICE + 1; ///< Nombre de tranches (la dernière contient le plateau vide).
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9}; ///< Percentiles exportés.
+
+    private static volatile boolean enabled = true; ///< Indique si les durées sont enregistrées.
+    private static volatile long sloNanos; ///< Objectif de latence en nanosecondes (0 = aucun).
+    private static volatile PrintStream breachLog; ///< Journal des dépassements (null = comptés sans être signalés).
+    private static final AtomicReferenceArray<LatencyHistogram> HISTOGRAMS =
+            new AtomicReferenceArray<>((MAX_DEPTH + 1) * SLICES); ///< Histogrammes indexés depth * SLICES + tranche.
+    private static final AtomicLongArray BREACHES = new AtomicLongArray((MAX_DEPTH + 1) * SLICES); ///< Dépassements, indexés comme HISTOGRAMS.
+    private static ScheduledExecutorService exporter; ///< Tâche d'export périodique (null si inactive).
+    private static Thread exportHook; ///< Écriture du dernier instantané à l'arrêt de la JVM (null si inactive).
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private MoveLatencyRecorder() {
+    }
+
+    /**
+     * @brief Active ou désactive l'enregistrement.
+     * @param value true pour enregistrer les durées (valeur par défaut).
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * @brief Indique si l'enregistrement est actif.
+     * @return true si les durées sont enregistrées.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @brief Fixe l'objectif de latence.
+     * @param millis La durée maximale acceptable d'un coup, en millisecondes (0 pour aucun objectif).
+     * @param log Le journal des dépassements, ou null pour seulement les compter.
+     */
+    public static void setSlo(long millis, PrintStream log) {
+        sloNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        breachLog = log;
+    }
+
+    /**
+     * @brief Enregistre la durée d'une recherche.
+     * @param depth La profondeur demandée.
+     * @param emptyCells Le nombre de cases vides de la position cherchée.
+     * @param nanos La durée de la recherche en nanosecondes.
+     */
+    public static void record(int depth, int emptyCells, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        int index = indexOf(depth, emptyCells);
+        LatencyHistogram histogram = HISTOGRAMS.get(index);
+        if (histogram == null) {
+            HISTOGRAMS.compareAndSet(index, null, new LatencyHistogram());
+            histogram = HISTOGRAMS.get(index);
+        }
+        histogram.record(nanos);
+
+        long slo = sloNanos;
+        if (slo > 0 && nanos > slo) {
+            BREACHES.incrementAndGet(index);
+            PrintStream log = breachLog;
+            if (log != null) {
+                log.printf("SLO dépassé : %.1f ms > %d ms (profondeur %d, %d cases vides)%n",
+                        nanos / 1e6, TimeUnit.NANOSECONDS.toMillis(slo), depth, emptyCells);
+            }
+        }
+    }
+
+    /**
+     * @brief Récupère l'histogramme d'une profondeur et d'une tranche de cases vides.
+     * @param depth La profondeur demandée.
+     * @param emptyCells Un nombre de cases vides de la tranche.
+     * @return L'histogramme, ou null si aucune durée n'y a été enregistrée.
+     */
+    public static LatencyHistogram getHistogram(int depth, int emptyCells) {
+        return HISTOGRAMS.get(indexOf(depth, emptyCells));
+    }
+
+    /**
+     * @brief Produit un instantané texte de tous les histogrammes non vides.
+     *
+     * Une ligne d'en-tête commençant par '#', puis une ligne par profondeur et tranche, colonnes
+     * séparées par des espaces : profondeur, tranche de cases vides, nombre, moyenne, p50, p90, p99,
+     * p99.9 et maximum en millisecondes, nombre de dépassements de l'objectif.
+     * @return L'instantané.
+     */
+    public static String snapshot() {
+        StringBuilder text = new StringBuilder();
+        text.append("# latences des coups ").append(Instant.now());
+        long slo = sloNanos;
+        if (slo > 0) {
+            text.append(" slo_ms=").append(TimeUnit.NANOSECONDS.toMillis(slo));
+        }
+        text.append('\n');
+        text.append("# profondeur cases_vides nombre moyenne_ms p50_ms p90_ms p99_ms p99.9_ms max_ms depassements\n");
+
+        for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+            for (int slice = 0; slice < SLICES; slice++) {
+                int index = depth * SLICES + slice;
+                LatencyHistogram histogram = HISTOGRAMS.get(index);
+                if (histogram == null || histogram.getCount() == 0) {
+                    continue;
+                }
+                int low = slice * EMPTY_CELLS_PER_SLICE;
+                text.append(depth).append(' ')
+                        .append(low).append('-').append(Math.min(Lines.CELL_COUNT, low + EMPTY_CELLS_PER_SLICE - 1)).append(' ')
+                        .append(histogram.getCount()).append(' ')
+                        .append(millis(histogram.getMean()));
+                for (double percentile : PERCENTILES) {
+                    text.append(' ').append(millis(histogram.getPercentile(percentile)));
+                }
+                text.append(' ').append(millis(histogram.getMax()))
+                        .append(' ').append(BREACHES.get(index)).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * @brief Remet tous les histogrammes et compteurs de dépassements à zéro.
+     */
+    public static void reset() {
+        for (int i = 0; i < HISTOGRAMS.length(); i++) {
+            LatencyHistogram histogram = HISTOGRAMS.get(i);
+            if (histogram != null) {
+                histogram.reset();
+            }
+            BREACHES.set(i, 0);
+        }
+    }
+
+    /**
+     * @brief Écrit un instantané dans un fichier, en remplaçant atomiquement le précédent.
+     * @param file Le fichier.
+     * @throws IOException Si l'écriture échoue.
+     */
+    public static void export(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temp, snapshot().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @brief Exporte périodiquement un instantané dans un fichier, sur un thread démon.
+     *
+     * Un export précédent est arrêté, y compris son écriture à l'arrêt de la JVM. Un dernier
+     * instantané est écrit à l'arrêt de la JVM, sauf si stopExport() est appelée avant.
+     * @param file Le fichier.
+     * @param periodSeconds La période en secondes.
+     */
+    public static synchronized void startExport(Path file, long periodSeconds) {
+        stopExport();
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Puissance4-latences");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runnable write = () -> {
+            try {
+                export(file);
+            } catch (IOException e) {
+                System.err.println("Export des latences impossible : " + e.getMessage());
+            }
+        };
+        long period = Math.max(1, periodSeconds);
+        exporter.scheduleAtFixedRate(write, period, period, TimeUnit.SECONDS);
+        exportHook = new Thread(write, "Puissance4-latences-fin");
+        Runtime.getRuntime().addShutdownHook(exportHook);
+    }
+
+    /**
+     * @brief Arrête l'export périodique et retire l'écriture prévue à l'arrêt de la JVM.
+     */
+    public static synchronized void stopExport() {
+        if (exporter != null) {
+            exporter.shutdownNow();
+            exporter = null;
+        }
+        if (exportHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(exportHook);
+            } catch (IllegalStateException e) {
+                // Arrêt de la JVM en cours : l'écriture est déjà lancée.
+            }
+            exportHook = null;
+        }
+    }
+
+    /**
+     * @brief Configure l'objectif de latence et l'export depuis les propriétés système (voir la description de la classe).
+     */
+    public static void configureFromSystemProperties() {
+        String slo = System.getProperty("puissance4.latency.slo");
+        if (slo != null) {
+            setSlo(Long.parseLong(slo), System.err);
+        }
+        String file = System.getProperty("puissance4.latency.file");
+        if (file != null) {
+            startExport(Paths.get(file), Long.getLong("puissance4.latency.period", 60));
+        }
+    }
+
+    /**
+     * @brief Calcule l'indice d'une profondeur et d'un nombre de cases vides.
+     * @param depth La profondeur (limitée à 0..MAX_DEPTH).
+     * @param emptyCells Le nombre de cases vides (limité à 0..Lines.CELL_COUNT).
+     * @return L'indice dans HISTOGRAMS.
+     */
+    private static int indexOf(int depth, int emptyCells) {
+        int d = Math.min(MAX_DEPTH, Math.max(0, depth));
+        int slice = Math.min(SLICES - 1, Math.max(0, emptyCells) / EMPTY_CELLS_PER_SLICE);
+        return d * SLICES + slice;
+    }
+
+    /**
+     * @brief Formate une durée en millisecondes avec trois décimales.
+     * @param nanos La durée en nanosecondes.
+     * @return La durée formatée.
+     */
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * @file RepaintEvent.java
+ * @brief Événement JFR d'un rafraîchissement du plateau sur l'EDT.
+ */
+
+package Puissance4.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @class RepaintEvent
+ * @brief Durée d'un travail d'affichage du plateau sur le thread de Swing (EDT).
+ *
+ * Émis pour la mise à jour du plateau après un coup (cells = nombre de cases modifiées) et pour
+ * le dessin de chaque tuile (cells = 1). Un long événement signale une interface figée.
+ */
+@Name("Puissance4.Repaint")
+@Label("Rafraîchissement du plateau")
+@Description("Mise à jour ou dessin du plateau sur l'EDT")
+@Category({"Puissance 4", "Interface"})
+@StackTrace(false)
+public final class RepaintEvent extends Event {
+    @Label("Phase")
+    @Description("update : comparaison et invalidation des cases ; paint : dessin d'une tuile")
+    public String phase; ///< Phase mesurée.
+
+    @Label("Cases")
+    public int cells; ///< Nombre de cases concernées.
+}
@@ -0,0 +1,50 @@
+/**
+ * @file SearchEvent.java
+ * @brief Événement JFR d'une recherche du meilleur coup.
+ */
+
+package Puissance4.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * @class SearchEvent
+ * @brief Durée et résultat d'un appel à MinimaxAlgorithm.getBestMove.
+ *
+ * L'événement couvre toute la recherche, raccourcis compris (victoire immédiate, base de positions,
+ * menaces, Monte Carlo). Quand l'enregistrement est inactif, begin() et commit() ne coûtent rien
+ * et les champs ne sont pas calculés.
+ */
+@Name("Puissance4.Search")
+@Label("Recherche de l'IA")
+@Description("Recherche du meilleur coup par MinimaxAlgorithm.getBestMove")
+@Category({"Puissance 4", "IA"})
+@StackTrace(false)
+public final class SearchEvent extends Event {
+    @Label("Profondeur")
+    @Description("Dernière profondeur entièrement explorée (0 si le coup a été trouvé sans recherche Minimax)")
+    public int depth; ///< Dernière profondeur entièrement explorée.
+
+    @Label("Nœuds")
+    public long nodes; ///< Nombre de nœuds visités.
+
+    @Label("Score")
+    @Description("Score du coup choisi, du point de vue de l'IA (0 si le coup a été trouvé sans recherche Minimax)")
+    public int score; ///< Score du coup choisi.
+
+    @Label("Coup")
+    @Description("Case choisie, ligne * taille + colonne (-1 si aucun coup)")
+    public int move; ///< Case choisie.
+
+    @Label("Raccourci")
+    @Description("Coup trouvé sans recherche Minimax")
+    public boolean shortcut; ///< Indique si le coup a été trouvé sans recherche Minimax.
+
+    @Label("Annulée")
+    public boolean cancelled; ///< Indique si la recherche a été annulée ou a épuisé son budget.
+}
@@ -0,0 +1,258 @@
+/**
+ * @file AnalysisServer.java
+ * @brief Point d'accès local (socket) au service d'analyse de lots.
+ */
+
+package Puissance4.service;
+
+import Puissance4.AnalysisResult;
+import Puissance4.CancellationToken;
+import Puissance4.Position;
+import Puissance4.PositionCodec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @class AnalysisServer
+ * @brief Expose un AnalysisService sur une socket de l'interface locale.
+ *
+ * Protocole texte, une ligne par message (UTF-8) :
+ * - le client envoie un lot sous forme d'une position par ligne (forme texte de PositionCodec,
+ *   par exemple "6/6/2XO2/6/6/6 X"), puis une ligne vide ;
+ * - le serveur répond une ligne par position dès que son analyse est terminée, dans l'ordre de fin :
+ *   "indice ligne colonne score profondeur variante", où la variante est une suite de "ligne,colonne",
+ *   ou "indice -" si la position n'a pas de coup à analyser ;
+ * - une position illisible donne "ERR indice message" ;
+ * - la fin du lot est signalée par "END nombre".
+ *
+ * Une connexion peut enchaîner plusieurs lots. La fermeture de la connexion annule le lot en cours.
+ * Un lot que la fin du flux interrompt avant sa ligne vide n'est pas analysé : le serveur répond
+ * "ERR - message" (erreur sans indice de position) avant de terminer.
+ */
+public class AnalysisServer implements AutoCloseable {
+    private final AnalysisService service; ///< Service qui exécute les analyses.
+    private final ServerSocket serverSocket; ///< Socket d'écoute sur l'interface locale.
+    private final Thread acceptThread; ///< Thread qui accepte les connexions.
+
+    /**
+     * @brief Constructeur de la classe AnalysisServer : ouvre la socket et commence à accepter les connexions.
+     * @param service Le service qui exécute les analyses.
+     * @param port Le port d'écoute (0 = port libre choisi par le système).
+     * @throws IOException Si la socket ne peut pas être ouverte.
+     */
+    public AnalysisServer(AnalysisService service, int port) throws IOException {
+        this.service = service;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::acceptConnections, "Puissance4-analysis-server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * @brief Récupère le port d'écoute effectif.
+     * @return Le port local de la socket.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @brief Boucle d'acceptation : chaque connexion est servie par son propre thread.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread connection = new Thread(() -> serveConnection(socket), "Puissance4-analysis-client");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                // Socket fermée par close() : fin de la boucle.
+                return;
+            }
+        }
+    }
+
+    /**
+     * @brief Sert une connexion de la socket d'écoute.
+     * @param socket La connexion du client.
+     */
+    private void serveConnection(Socket socket) {
+        try (socket) {
+            serve(service, socket.getInputStream(), socket.getOutputStream());
+        } catch (IOException e) {
+            // Client déconnecté : rien à renvoyer.
+        }
+    }
+
+    /**
+     * @brief Applique le protocole sur un couple de flux : lit les lots et renvoie les résultats au fil de l'eau.
+     *
+     * Sert aussi bien une connexion qu'un processus de travail piloté par son entrée et sa sortie standard.
+     * @param service Le service qui exécute les analyses.
+     * @param input Le flux des requêtes, lu jusqu'à sa fin.
+     * @param output Le flux des réponses (non fermé).
+     * @throws IOException Si l'un des flux échoue.
+     */
+    public static void serve(AnalysisService service, InputStream input, OutputStream output) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        List<Position> batch = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        int count = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!line.isEmpty()) {
+                try {
+                    batch.add(PositionCodec.fromText(line));
+                    indices.add(count);
+                } catch (IllegalArgumentException e) {
+                    send(out, "ERR " + count + " " + e.getMessage());
+                }
+                count++;
+                continue;
+            }
+
+            runBatch(service, batch, indices, out);
+            send(out, "END " + count);
+            batch.clear();
+            indices.clear();
+            count = 0;
+        }
+        if (count > 0) {
+            // Lot sans ligne vide finale : rejeté explicitement plutôt qu'abandonné en silence.
+            send(out, "ERR - Lot incomplet : " + count + " ligne(s) reçue(s) sans ligne vide finale");
+        }
+    }
+
+    /**
+     * @brief Analyse un lot et écrit chaque résultat dès qu'il est prêt.
+     * @param service Le service qui exécute les analyses.
+     * @param batch Les positions lisibles du lot.
+     * @param indices L'indice d'origine de chaque position dans le lot reçu.
+     * @param out Le flux de réponse.
+     * @throws IOException Si le client s'est déconnecté.
+     */
+    private static void runBatch(AnalysisService service, List<Position> batch, List<Integer> indices, Writer out) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        CancellationToken token = new CancellationToken();
+        IOException[] failure = new IOException[1];
+        try {
+            service.submit(batch, (index, position, result) -> {
+                try {
+                    send(out, format(indices.get(index), result));
+                } catch (IOException e) {
+                    // Client parti : inutile de poursuivre le lot.
+                    failure[0] = e;
+                    token.cancel();
+                }
+            }, token).join();
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Service d'analyse arrêté", e);
+        } catch (CompletionException e) {
+            token.cancel();
+            throw new IOException("Échec de l'analyse", e.getCause());
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    /**
+     * @brief Met en forme le résultat d'une position.
+     * @param index L'indice de la position dans le lot reçu.
+     * @param result Le résultat de l'analyse, ou null.
+     * @return La ligne de réponse.
+     */
+    private static String format(int index, AnalysisResult result) {
+        if (result == null || result.getBestMove() == null) {
+            return index + " -";
+        }
+
+        StringBuilder line = new StringBuilder();
+        line.append(index).append(' ')
+            .append(result.getBestMove()[0]).append(' ').append(result.getBestMove()[1]).append(' ')
+            .append(result.getBestScore()).append(' ')
+            .append(result.getDepth());
+        for (int[] move : result.getPrincipalVariation()) {
+            line.append(' ').append(move[0]).append(',').append(move[1]);
+        }
+        return line.toString();
+    }
+
+    /**
+     * @brief Écrit une ligne de réponse et la transmet immédiatement.
+     *
+     * Les threads d'analyse écrivent en parallèle : l'écriture est sérialisée sur le flux.
+     * @param out Le flux de réponse.
+     * @param line La ligne à écrire.
+     * @throws IOException Si le client s'est déconnecté.
+     */
+    private static void send(Writer out, String line) throws IOException {
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    /**
+     * @brief Arrête d'accepter des connexions. Le service n'est pas arrêté.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Fermeture best-effort.
+        }
+    }
+
+    /**
+     * @brief Lance un serveur d'analyse autonome.
+     *
+     * Avec le port "-", le protocole est servi sur l'entrée et la sortie standard jusqu'à la fin
+     * de l'entrée : c'est le mode des processus de travail lancés par un autre programme.
+     * @param args port|- [threads] [profondeur] [budgetMillisParPosition]
+     * @throws Exception Si le serveur ne peut pas démarrer.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage : AnalysisServer port|- [threads] [profondeur] [budgetMillisParPosition]");
+            System.exit(1);
+        }
+
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        long budget = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        AnalysisService service = new AnalysisService(threads, depth, 0, budget);
+
+        if (args[0].equals("-")) {
+            serve(service, System.in, System.out);
+            service.close();
+            return;
+        }
+
+        AnalysisServer server = new AnalysisServer(service, Integer.parseInt(args[0]));
+        System.out.println("Serveur d'analyse à l'écoute sur le port " + server.getPort());
+        server.acceptThread.join();
+    }
+}
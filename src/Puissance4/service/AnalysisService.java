@@ -0,0 +1,246 @@
+/**
+ * @file AnalysisService.java
+ * @brief Service d'analyse de lots de positions réparti sur un pool de threads.
+ */
+
+package Puissance4.service;
+
+import Puissance4.AnalysisResult;
+import Puissance4.CancellationToken;
+import Puissance4.MinimaxAlgorithm;
+import Puissance4.Position;
+import Puissance4.PositionCodec;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @class AnalysisService
+ * @brief Analyse des lots de positions et transmet chaque résultat dès qu'il est prêt.
+ *
+ * Les positions identiques d'un même lot (même code PositionCodec) ne sont analysées qu'une fois :
+ * le résultat est transmis pour chacun de leurs indices. Les positions uniques sont réparties sur
+ * un pool fixe de threads, dans l'ordre d'arrivée des lots. Chaque analyse est bornée par la
+ * profondeur et les budgets du service ; le résultat transmis est celui de la dernière profondeur terminée.
+ */
+public class AnalysisService implements AutoCloseable {
+    private final int maxDepth; ///< Profondeur maximale de chaque analyse.
+    private final long nodeBudget; ///< Nombre maximal de nœuds par position (0 = illimité).
+    private final long timeBudgetMillis; ///< Durée maximale par position en millisecondes (0 = illimitée).
+    private final ArrayDeque<Task> queue = new ArrayDeque<>(); ///< Positions uniques en attente.
+    private final Thread[] workers; ///< Threads d'analyse.
+    private boolean closed; ///< Indique si le service est arrêté.
+
+    /**
+     * @interface Listener
+     * @brief Reçoit les résultats d'un lot au fil de l'eau.
+     *
+     * Les méthodes sont appelées depuis les threads d'analyse, dans l'ordre de fin des analyses
+     * et non dans l'ordre du lot. Elles doivent rester brèves.
+     */
+    public interface Listener {
+
+        /**
+         * @brief Appelée quand l'analyse d'une position du lot est terminée.
+         * @param index L'indice de la position dans le lot.
+         * @param position La position analysée.
+         * @param result Le résultat de la dernière profondeur terminée, ou null si la partie est
+         *               terminée dans cette position ou si aucune profondeur n'a pu être terminée.
+         */
+        void onResult(int index, Position position, AnalysisResult result);
+    }
+
+    /**
+     * @class Batch
+     * @brief État d'un lot soumis : indices des doublons et positions restantes.
+     */
+    private static final class Batch {
+        private final Listener listener; ///< Destinataire des résultats.
+        private final CancellationToken token; ///< Jeton d'annulation du lot.
+        private final int[] nextDuplicate; ///< Indice suivant de la même position dans le lot, ou -1.
+        private final AtomicInteger remaining; ///< Positions uniques pas encore traitées.
+        private final CompletableFuture<Void> done = new CompletableFuture<>(); ///< Fin du lot.
+
+        /**
+         * @brief Constructeur de la classe Batch.
+         * @param listener Destinataire des résultats.
+         * @param token Jeton d'annulation du lot.
+         * @param nextDuplicate Indice suivant de la même position pour chaque indice du lot, ou -1.
+         * @param unique Nombre de positions uniques.
+         */
+        private Batch(Listener listener, CancellationToken token, int[] nextDuplicate, int unique) {
+            this.listener = listener;
+            this.token = token;
+            this.nextDuplicate = nextDuplicate;
+            this.remaining = new AtomicInteger(unique);
+        }
+    }
+
+    /**
+     * @class Task
+     * @brief Position unique d'un lot à analyser.
+     */
+    private static final class Task {
+        private final Batch batch; ///< Lot d'origine.
+        private final Position position; ///< Position à analyser.
+        private final int firstIndex; ///< Premier indice de la position dans le lot.
+
+        /**
+         * @brief Constructeur de la classe Task.
+         * @param batch Lot d'origine.
+         * @param position Position à analyser.
+         * @param firstIndex Premier indice de la position dans le lot.
+         */
+        private Task(Batch batch, Position position, int firstIndex) {
+            this.batch = batch;
+            this.position = position;
+            this.firstIndex = firstIndex;
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe AnalysisService.
+     * @param threads Nombre de threads d'analyse.
+     * @param maxDepth Profondeur maximale de chaque analyse.
+     * @param nodeBudget Nombre maximal de nœuds par position (0 = illimité).
+     * @param timeBudgetMillis Durée maximale par position en millisecondes (0 = illimitée).
+     */
+    public AnalysisService(int threads, int maxDepth, long nodeBudget, long timeBudgetMillis) {
+        this.maxDepth = maxDepth;
+        this.nodeBudget = nodeBudget;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::runWorker, "Puissance4-analysis-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * @brief Soumet un lot de positions.
+     *
+     * Les doublons sont détectés avant la mise en file : chaque position unique n'occupe
+     * qu'un seul créneau du pool.
+     * @param positions Les positions à analyser.
+     * @param listener Le destinataire des résultats, appelé une fois par indice du lot.
+     * @param token Le jeton d'annulation du lot : les positions pas encore commencées sont alors
+     *              abandonnées sans résultat, et l'analyse en cours s'arrête.
+     * @return Un futur terminé quand toutes les positions ont été traitées ou abandonnées.
+     * @throws RejectedExecutionException Si le service est arrêté.
+     */
+    public CompletableFuture<Void> submit(List<Position> positions, Listener listener, CancellationToken token) {
+        // Regroupement des doublons : chaque indice pointe vers l'occurrence suivante de sa position.
+        Map<Long, Integer> lastIndex = new HashMap<>();
+        int[] firstIndex = new int[positions.size()];
+        int[] nextDuplicate = new int[positions.size()];
+        int unique = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            nextDuplicate[i] = -1;
+            Integer previous = lastIndex.put(PositionCodec.encode(positions.get(i)), i);
+            if (previous == null) {
+                firstIndex[unique++] = i;
+            } else {
+                nextDuplicate[previous] = i;
+            }
+        }
+
+        Batch batch = new Batch(listener, token, nextDuplicate, unique);
+        if (unique == 0) {
+            batch.done.complete(null);
+            return batch.done;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                throw new RejectedExecutionException("Le service d'analyse est arrêté");
+            }
+            for (int i = 0; i < unique; i++) {
+                queue.add(new Task(batch, positions.get(firstIndex[i]), firstIndex[i]));
+            }
+            notifyAll();
+        }
+        return batch.done;
+    }
+
+    /**
+     * @brief Boucle d'un thread d'analyse : traite les positions uniques dans l'ordre d'arrivée.
+     */
+    private void runWorker() {
+        while (true) {
+            Task task;
+            synchronized (this) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                task = queue.poll();
+            }
+
+            Batch batch = task.batch;
+            try {
+                if (!batch.token.shouldStop()) {
+                    AnalysisResult result = analyze(task.position, batch.token);
+                    if (!batch.token.shouldStop()) {
+                        for (int i = task.firstIndex; i >= 0; i = batch.nextDuplicate[i]) {
+                            batch.listener.onResult(i, task.position, result);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                batch.done.completeExceptionally(e);
+            } finally {
+                if (batch.remaining.decrementAndGet() == 0) {
+                    batch.done.complete(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Analyse une position dans les limites du service.
+     * @param position La position à analyser.
+     * @param token Le jeton d'annulation du lot.
+     * @return Le résultat de la dernière profondeur terminée, ou null s'il n'y en a aucune.
+     */
+    private AnalysisResult analyze(Position position, CancellationToken token) {
+        AnalysisResult[] last = new AnalysisResult[1];
+        MinimaxAlgorithm.analyze(position.toBoard(), position.getSideToMove(), maxDepth, nodeBudget,
+                timeBudgetMillis, result -> last[0] = result, token);
+        return last[0];
+    }
+
+    /**
+     * @brief Récupère le nombre de positions uniques en attente d'un thread d'analyse.
+     * @return Le nombre de positions en attente.
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @brief Arrête le service. Les lots en attente sont terminés sans leurs positions restantes.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Task task : queue) {
+            if (task.batch.remaining.decrementAndGet() == 0) {
+                task.batch.done.complete(null);
+            }
+        }
+        queue.clear();
+        notifyAll();
+    }
+}
@@ -0,0 +1,758 @@
+/**
+ * @file DistributedSearch.java
+ * @brief Coordinateur de la recherche répartie sur plusieurs processus locaux.
+ */
+
+package Puissance4.service;
+
+import Puissance4.Board;
+import Puissance4.CancellationToken;
+import Puissance4.MinimaxAlgorithm;
+import Puissance4.Position;
+import Puissance4.PositionCodec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class DistributedSearch
+ * @brief Répartit la recherche du meilleur coup de l'IA ('O') sur des processus SearchWorker.
+ *
+ * Les coups de la racine (demi-coup de découpe 1), ou chaque couple coup de l'IA et réponse de 'X'
+ * (demi-coup de découpe 2, plus de tâches plus petites), deviennent des tâches confiées aux
+ * travailleurs connectés à la socket locale du coordinateur. Le résultat est celui de
+ * MinimaxAlgorithm à profondeur fixe (getBestMove sans raccourci), au choix près entre coups de
+ * même score, départagés comme lui par l'ordre des coups.
+ *
+ * Les bornes se resserrent au fil des résultats : chaque meilleur score de la racine relève alpha
+ * pour toutes les tâches, et chaque réponse de 'X' terminée abaisse beta pour les autres réponses
+ * au même coup. Les tâches en cours reçoivent la nouvelle fenêtre (BOUND) ; un coup réfuté voit
+ * ses tâches restantes abandonnées. Un travailleur qui se déconnecte ou meurt rend sa tâche, qui
+ * est confiée au suivant ; quand la file est vide, une tâche anormalement longue est dupliquée sur
+ * un travailleur libre et le premier résultat l'emporte. Sans aucun travailleur, les tâches sont
+ * cherchées dans le processus du coordinateur.
+ *
+ * Les travailleurs peuvent être lancés par le coordinateur ou séparément
+ * (java Puissance4.Main --worker port). N'est pas sûr pour des recherches concurrentes :
+ * getBestMove est synchronisée.
+ */
+public class DistributedSearch implements AutoCloseable {
+    private static final long POLL_MILLIS = 50; ///< Attente maximale d'un message avant de réexaminer les tâches.
+    private static final long CONNECT_TIMEOUT_MILLIS = 10_000; ///< Délai laissé aux processus lancés pour se connecter.
+    private static final long SPECULATION_MIN_MILLIS = 200; ///< Durée minimale d'une tâche avant qu'elle puisse être dupliquée.
+    private static final int SPECULATION_FACTOR = 3; ///< Une tâche est dupliquée au-delà de ce multiple de la durée moyenne.
+
+    private final int splitPly; ///< Demi-coup de découpe (1 ou 2).
+    private final ServerSocket serverSocket; ///< Socket d'écoute des travailleurs.
+    private final List<Process> processes = new ArrayList<>(); ///< Processus de travail lancés par le coordinateur.
+    private final BlockingQueue<Message> inbox = new LinkedBlockingQueue<>(); ///< Messages reçus des travailleurs.
+    private final long createdAt = System.nanoTime(); ///< Instant de création, pour le délai de connexion.
+
+    // État de la recherche : uniquement manipulé par le thread qui appelle getBestMove.
+    private final List<WorkerLink> links = new ArrayList<>(); ///< Travailleurs connectés et prêts.
+    private final Deque<WorkerLink> idle = new ArrayDeque<>(); ///< Travailleurs sans tâche.
+    private final Deque<Task> queue = new ArrayDeque<>(); ///< Tâches en attente d'un travailleur.
+    private long nextTaskId; ///< Identifiant de la prochaine tâche.
+    private long completedTasks; ///< Nombre de tâches terminées par un travailleur.
+    private long completedNanos; ///< Durée cumulée de ces tâches.
+    private Root[] roots; ///< Coups de la racine de la recherche en cours.
+    private int bestIndex; ///< Indice du meilleur coup exact, -1 si aucun.
+    private int bestScore; ///< Score de ce coup, bonus stratégique compris.
+    private int unresolved; ///< Nombre de coups de la racine encore indéterminés.
+
+    private long statTasks; ///< Tâches créées par la dernière recherche.
+    private long statNodes; ///< Nœuds visités par les travailleurs pour la dernière recherche.
+    private int statReassigned; ///< Tâches rendues par un travailleur perdu.
+    private int statSpeculative; ///< Tâches dupliquées sur un second travailleur.
+    private int statLocal; ///< Tâches cherchées par le coordinateur.
+
+    /**
+     * @class Message
+     * @brief Ligne reçue d'un travailleur ; une ligne null signale la perte de la connexion.
+     */
+    private static final class Message {
+        final WorkerLink link; ///< Travailleur émetteur.
+        final String line; ///< Contenu, ou null.
+
+        /**
+         * @brief Constructeur de la classe Message.
+         * @param link Le travailleur émetteur.
+         * @param line La ligne reçue, ou null.
+         */
+        Message(WorkerLink link, String line) {
+            this.link = link;
+            this.line = line;
+        }
+    }
+
+    /**
+     * @class WorkerLink
+     * @brief Connexion à un travailleur et tâche qui lui est confiée.
+     */
+    private static final class WorkerLink {
+        final Socket socket; ///< Connexion.
+        final Writer out; ///< Flux vers le travailleur.
+        Task task; ///< Tâche en cours, ou null.
+
+        /**
+         * @brief Constructeur de la classe WorkerLink.
+         * @param socket La connexion.
+         * @throws IOException Si le flux ne peut pas être ouvert.
+         */
+        WorkerLink(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @brief Envoie une ligne ; une connexion en échec est fermée, ce que son thread de lecture signale.
+         * @param line La ligne.
+         */
+        void send(String line) {
+            try {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // Fermeture best-effort.
+                }
+            }
+        }
+    }
+
+    /**
+     * @class Root
+     * @brief Coup de la racine : bonus stratégique, tâches et bornes de ses réponses.
+     */
+    private static final class Root {
+        final int index; ///< Rang du coup dans Board.getAvailableMoves (départage des égalités).
+        final int[] move; ///< Le coup.
+        final int bonus; ///< Bonus stratégique ajouté au score Minimax.
+        final List<Task> tasks = new ArrayList<>(); ///< Tâches du coup.
+        int pending; ///< Tâches non terminées.
+        int replyMin = Integer.MAX_VALUE; ///< Plus petit score exact des réponses terminées (découpe 2).
+        boolean resolved; ///< Indique si le coup est évalué ou réfuté.
+
+        /**
+         * @brief Constructeur de la classe Root.
+         * @param index Le rang du coup.
+         * @param move Le coup.
+         * @param bonus Le bonus stratégique.
+         */
+        Root(int index, int[] move, int bonus) {
+            this.index = index;
+            this.move = move;
+            this.bonus = bonus;
+        }
+    }
+
+    /**
+     * @class Task
+     * @brief Sous-arbre à chercher : position, profondeur restante et travailleurs qui s'en chargent.
+     */
+    private static final class Task {
+        final long id; ///< Identifiant unique.
+        final Root root; ///< Coup de la racine concerné.
+        final boolean reply; ///< true si la tâche est une réponse de 'X' (découpe 2).
+        final Position position; ///< Position à chercher.
+        final int depth; ///< Profondeur restante.
+        final List<WorkerLink> runners = new ArrayList<>(); ///< Travailleurs qui la cherchent.
+        long startedAt; ///< Instant de la première attribution.
+        boolean finished; ///< Indique si son résultat a été pris en compte ou n'est plus utile.
+
+        /**
+         * @brief Constructeur de la classe Task.
+         * @param id L'identifiant.
+         * @param root Le coup de la racine.
+         * @param reply true pour une réponse de 'X'.
+         * @param position La position.
+         * @param depth La profondeur restante.
+         */
+        Task(long id, Root root, boolean reply, Position position, int depth) {
+            this.id = id;
+            this.root = root;
+            this.reply = reply;
+            this.position = position;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe DistributedSearch : ouvre la socket et lance les processus de travail.
+     * @param port Le port d'écoute sur l'interface locale (0 = port libre).
+     * @param workers Le nombre de processus de travail à lancer (0 pour n'utiliser que des travailleurs lancés à part).
+     * @param splitPly Le demi-coup de découpe : 1 (coups de la racine) ou 2 (réponses de 'X').
+     * @param jvmOptions Les options de la JVM des travailleurs (par exemple -Xmx).
+     * @throws IOException Si la socket ne peut pas être ouverte ou un processus pas lancé.
+     */
+    public DistributedSearch(int port, int workers, int splitPly, List<String> jvmOptions) throws IOException {
+        if (splitPly != 1 && splitPly != 2) {
+            throw new IllegalArgumentException("Demi-coup de découpe invalide : " + splitPly);
+        }
+        this.splitPly = splitPly;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptConnections, "Puissance4-coordinator");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmOptions);
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && !jvmOptions.contains("--add-modules")) {
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("Puissance4.Main");
+        command.add("--worker");
+        command.add(Integer.toString(getPort()));
+        for (int i = 0; i < workers; i++) {
+            processes.add(new ProcessBuilder(command).inheritIO().start());
+        }
+    }
+
+    /**
+     * @brief Récupère le port d'écoute effectif.
+     * @return Le port local de la socket.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @brief Boucle d'acceptation : chaque travailleur a un thread de lecture qui dépose ses messages.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                WorkerLink link = new WorkerLink(socket);
+                Thread reader = new Thread(() -> readMessages(link), "Puissance4-coordinator-link");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                // Socket fermée par close() : fin de la boucle.
+                return;
+            }
+        }
+    }
+
+    /**
+     * @brief Lit les lignes d'un travailleur jusqu'à la fin de la connexion.
+     * @param link Le travailleur.
+     */
+    private void readMessages(WorkerLink link) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(link.socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                inbox.add(new Message(link, line));
+            }
+        } catch (IOException e) {
+            // Connexion perdue : signalée ci-dessous.
+        }
+        inbox.add(new Message(link, null));
+    }
+
+    /**
+     * @brief Cherche le meilleur coup de l'IA ('O') à profondeur fixe sur les travailleurs.
+     * @param board Le plateau de jeu (non modifié).
+     * @param depth La profondeur, au sens de MinimaxAlgorithm (demi-coups après le coup de l'IA).
+     * @param token Le jeton d'annulation.
+     * @return Le meilleur coup, ou null s'il n'y a aucun coup ou que la recherche a été annulée.
+     */
+    public synchronized int[] getBestMove(Board board, int depth, CancellationToken token) {
+        Board work = board.copy();
+        List<int[]> moves = work.getAvailableMoves();
+        statTasks = 0;
+        statNodes = 0;
+        statReassigned = 0;
+        statSpeculative = 0;
+        statLocal = 0;
+        bestIndex = -1;
+        bestScore = Integer.MIN_VALUE;
+        if (moves.isEmpty()) {
+            return null;
+        }
+
+        roots = new Root[moves.size()];
+        unresolved = roots.length;
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = new Root(i, moves.get(i), MinimaxAlgorithm.evaluateStrategicPosition(work, moves.get(i)));
+        }
+
+        // Les coups les mieux placés d'abord : un bon score tôt resserre alpha pour tous les autres.
+        Root[] order = roots.clone();
+        Arrays.sort(order, (a, b) -> b.bonus != a.bonus ? b.bonus - a.bonus : a.index - b.index);
+        List<Root> immediate = new ArrayList<>();
+        for (Root root : order) {
+            createTasks(work, root, depth, token);
+            if (root.pending == 0) {
+                immediate.add(root);
+            }
+        }
+        for (Root root : immediate) {
+            completeRoot(root);
+        }
+
+        try {
+            while (unresolved > 0) {
+                if (token.shouldStop()) {
+                    return stop();
+                }
+                drainInbox(0);
+                assignTasks();
+                if (links.isEmpty() && !workersExpected() && !queue.isEmpty()) {
+                    runLocally(queue.poll(), token);
+                    continue;
+                }
+                drainInbox(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return stop();
+        }
+        return bestIndex < 0 ? null : roots[bestIndex].move;
+    }
+
+    /**
+     * @brief Crée les tâches d'un coup de la racine ; les positions terminales sont évaluées sur place.
+     * @param board Le plateau de la racine (rendu dans son état initial).
+     * @param root Le coup de la racine.
+     * @param depth La profondeur de la recherche.
+     * @param token Le jeton d'annulation.
+     */
+    private void createTasks(Board board, Root root, int depth, CancellationToken token) {
+        int[] move = root.move;
+        board.placePiece(move[0], move[1], 'O');
+        if (board.isGameOver()) {
+            long[] result = MinimaxAlgorithm.searchWindow(board, depth, false,
+                    () -> Integer.MIN_VALUE, () -> Integer.MAX_VALUE, token);
+            root.replyMin = result != null ? (int) result[0] : Integer.MIN_VALUE;
+        } else if (splitPly == 1 || depth == 0) {
+            addTask(root, false, Position.fromBoard(board, 'X'), depth);
+        } else {
+            for (int[] reply : board.getCandidateMoves()) {
+                board.placePiece(reply[0], reply[1], 'X');
+                if (board.isGameOver()) {
+                    long[] result = MinimaxAlgorithm.searchWindow(board, depth - 1, true,
+                            () -> Integer.MIN_VALUE, () -> Integer.MAX_VALUE, token);
+                    if (result != null) {
+                        root.replyMin = Math.min(root.replyMin, (int) result[0]);
+                    }
+                } else {
+                    addTask(root, true, Position.fromBoard(board, 'O'), depth - 1);
+                }
+                board.removePiece(reply[0], reply[1]);
+            }
+        }
+        board.removePiece(move[0], move[1]);
+    }
+
+    /**
+     * @brief Ajoute une tâche à la file.
+     * @param root Le coup de la racine.
+     * @param reply true pour une réponse de 'X'.
+     * @param position La position à chercher.
+     * @param depth La profondeur restante.
+     */
+    private void addTask(Root root, boolean reply, Position position, int depth) {
+        Task task = new Task(nextTaskId++, root, reply, position, depth);
+        root.tasks.add(task);
+        root.pending++;
+        queue.add(task);
+        statTasks++;
+    }
+
+    /**
+     * @brief Calcule la borne inférieure des tâches d'un coup de la racine.
+     *
+     * Un coup n'est utile que s'il bat le meilleur score connu ; à score égal, seul un coup de rang
+     * inférieur l'emporte, comme dans MinimaxAlgorithm : sa borne est abaissée d'un point.
+     * @param root Le coup de la racine.
+     * @return alpha.
+     */
+    private int alpha(Root root) {
+        if (bestIndex < 0) {
+            return Integer.MIN_VALUE;
+        }
+        return bestScore - root.bonus - (root.index < bestIndex ? 1 : 0);
+    }
+
+    /**
+     * @brief Calcule la borne supérieure d'une tâche.
+     * @param task La tâche.
+     * @return beta : le plus petit score des réponses déjà terminées pour une réponse, l'infini sinon.
+     */
+    private static int beta(Task task) {
+        return task.reply ? task.root.replyMin : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @brief Traite les messages reçus.
+     * @param waitMillis L'attente maximale du premier message (0 pour ne traiter que ceux déjà reçus).
+     * @throws InterruptedException Si le thread est interrompu pendant l'attente.
+     */
+    private void drainInbox(long waitMillis) throws InterruptedException {
+        Message message = waitMillis > 0 ? inbox.poll(waitMillis, TimeUnit.MILLISECONDS) : inbox.poll();
+        while (message != null) {
+            handle(message);
+            message = inbox.poll();
+        }
+    }
+
+    /**
+     * @brief Traite un message d'un travailleur.
+     * @param message Le message.
+     */
+    private void handle(Message message) {
+        WorkerLink link = message.link;
+        if (message.line == null) {
+            lose(link);
+            return;
+        }
+
+        String[] fields = message.line.split(" ");
+        if (fields[0].equals("READY")) {
+            links.add(link);
+            idle.add(link);
+            return;
+        }
+
+        Task task = link.task;
+        if (task == null || fields.length < 2 || !fields[1].equals(Long.toString(task.id))) {
+            // Réponse à une tâche d'une recherche précédente ou déjà abandonnée.
+            return;
+        }
+        link.task = null;
+        task.runners.remove(link);
+        if (!fields[0].equals("ERR")) {
+            idle.add(link);
+        }
+
+        if (fields[0].equals("DONE") && !task.finished) {
+            completedTasks++;
+            completedNanos += System.nanoTime() - task.startedAt;
+            statNodes += Long.parseLong(fields[5]);
+            finish(task, Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+        } else if (fields[0].equals("ERR")) {
+            // Travailleur défaillant : il est arrêté et sa tâche rendue, comme s'il s'était déconnecté.
+            System.err.println("Travailleur en erreur : " + message.line);
+            link.send("QUIT");
+            if (!task.finished && task.runners.isEmpty()) {
+                queue.addFirst(task);
+                statReassigned++;
+            }
+        }
+    }
+
+    /**
+     * @brief Retire un travailleur perdu et remet sa tâche en file si personne d'autre ne la cherche.
+     * @param link Le travailleur.
+     */
+    private void lose(WorkerLink link) {
+        links.remove(link);
+        idle.remove(link);
+        Task task = link.task;
+        link.task = null;
+        if (task != null) {
+            task.runners.remove(link);
+            if (!task.finished && task.runners.isEmpty()) {
+                queue.addFirst(task);
+                statReassigned++;
+            }
+        }
+    }
+
+    /**
+     * @brief Confie les tâches en file aux travailleurs libres, puis duplique les tâches trop longues.
+     */
+    private void assignTasks() {
+        while (!idle.isEmpty() && !queue.isEmpty()) {
+            Task task = queue.poll();
+            if (!task.finished) {
+                assign(idle.poll(), task);
+            }
+        }
+        if (idle.isEmpty() || !queue.isEmpty()) {
+            return;
+        }
+
+        long threshold = Math.max(TimeUnit.MILLISECONDS.toNanos(SPECULATION_MIN_MILLIS),
+                completedTasks == 0 ? 0 : SPECULATION_FACTOR * completedNanos / completedTasks);
+        long now = System.nanoTime();
+        for (WorkerLink link : new ArrayList<>(links)) {
+            Task task = link.task;
+            if (idle.isEmpty()) {
+                return;
+            }
+            if (task != null && !task.finished && task.runners.size() == 1 && now - task.startedAt > threshold) {
+                assign(idle.poll(), task);
+                statSpeculative++;
+            }
+        }
+    }
+
+    /**
+     * @brief Envoie une tâche à un travailleur.
+     * @param link Le travailleur.
+     * @param task La tâche.
+     */
+    private void assign(WorkerLink link, Task task) {
+        if (task.runners.isEmpty()) {
+            task.startedAt = System.nanoTime();
+        }
+        task.runners.add(link);
+        link.task = task;
+        link.send("TASK " + task.id + " " + task.depth + " " + alpha(task.root) + " " + beta(task) + " "
+                + PositionCodec.toText(task.position));
+    }
+
+    /**
+     * @brief Cherche une tâche dans le processus du coordinateur (aucun travailleur disponible).
+     * @param task La tâche.
+     * @param token Le jeton d'annulation.
+     */
+    private void runLocally(Task task, CancellationToken token) {
+        if (task.finished) {
+            return;
+        }
+        statLocal++;
+        long[] result = MinimaxAlgorithm.searchWindow(task.position.toBoard(), task.depth, task.reply,
+                () -> alpha(task.root), () -> beta(task), token);
+        if (result != null) {
+            statNodes += result[1];
+            finish(task, (int) result[0], alpha(task.root), beta(task));
+        }
+    }
+
+    /**
+     * @brief Prend en compte le résultat d'une tâche.
+     * @param task La tâche.
+     * @param score Le score obtenu.
+     * @param alpha La borne inférieure finale de la recherche.
+     * @param beta La borne supérieure finale de la recherche.
+     */
+    private void finish(Task task, int score, int alpha, int beta) {
+        task.finished = true;
+        for (WorkerLink runner : task.runners) {
+            // Doublon encore en cours : son résultat n'est plus utile.
+            runner.send("CANCEL " + task.id);
+        }
+        Root root = task.root;
+        if (root.resolved) {
+            return;
+        }
+        root.pending--;
+
+        if (score <= alpha) {
+            // Borne supérieure sous alpha : le coup ne peut pas battre le meilleur score.
+            refute(root);
+            return;
+        }
+        if (!task.reply) {
+            root.replyMin = score;
+        } else if (score < beta) {
+            // Score exact d'une réponse : la fenêtre des autres réponses au même coup se resserre.
+            root.replyMin = Math.min(root.replyMin, score);
+            sendBounds(root);
+        }
+        if (root.pending == 0) {
+            completeRoot(root);
+        }
+    }
+
+    /**
+     * @brief Termine l'évaluation d'un coup de la racine dont toutes les tâches sont terminées.
+     * @param root Le coup.
+     */
+    private void completeRoot(Root root) {
+        root.resolved = true;
+        unresolved--;
+        int score = root.replyMin + root.bonus;
+        if (bestIndex < 0 || score > bestScore || (score == bestScore && root.index < bestIndex)) {
+            bestScore = score;
+            bestIndex = root.index;
+
+            // Alpha monte pour tous les coups : ceux déjà réfutés sont abandonnés, les autres prévenus.
+            for (Root other : roots) {
+                if (!other.resolved && other.replyMin != Integer.MAX_VALUE && other.replyMin <= alpha(other)) {
+                    refute(other);
+                } else if (!other.resolved) {
+                    sendBounds(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Abandonne un coup de la racine qui ne peut plus battre le meilleur score.
+     * @param root Le coup.
+     */
+    private void refute(Root root) {
+        root.resolved = true;
+        unresolved--;
+        for (Task task : root.tasks) {
+            if (!task.finished) {
+                task.finished = true;
+                for (WorkerLink runner : task.runners) {
+                    runner.send("CANCEL " + task.id);
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Transmet la fenêtre courante aux travailleurs qui cherchent les tâches d'un coup.
+     * @param root Le coup.
+     */
+    private void sendBounds(Root root) {
+        for (Task task : root.tasks) {
+            if (!task.finished) {
+                for (WorkerLink runner : task.runners) {
+                    runner.send("BOUND " + task.id + " " + alpha(task.root) + " " + beta(task));
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Indique si des travailleurs peuvent encore se connecter.
+     *
+     * Pendant le délai de connexion, on attend les processus lancés encore vivants, ou, si aucun
+     * n'a été lancé, des travailleurs démarrés à part.
+     * @return true si la recherche doit attendre un travailleur plutôt que chercher sur place.
+     */
+    private boolean workersExpected() {
+        if (System.nanoTime() - createdAt > TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS)) {
+            return false;
+        }
+        if (processes.isEmpty()) {
+            return true;
+        }
+        for (Process process : processes) {
+            if (process.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Abandonne la recherche en cours.
+     * @return null.
+     */
+    private int[] stop() {
+        for (Root root : roots) {
+            if (!root.resolved) {
+                refute(root);
+            }
+        }
+        queue.clear();
+        return null;
+    }
+
+    /**
+     * @brief Décrit la dernière recherche.
+     * @return Une ligne : tâches, nœuds, tâches rendues, dupliquées et locales, travailleurs connectés.
+     */
+    public synchronized String getStatistics() {
+        return String.format("%d tâches, %d nœuds, %d réattribuées, %d dupliquées, %d locales, %d travailleurs",
+                statTasks, statNodes, statReassigned, statSpeculative, statLocal, links.size());
+    }
+
+    /**
+     * @brief Récupère le score du meilleur coup de la dernière recherche.
+     * @return Le score, bonus stratégique compris.
+     */
+    public synchronized int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @brief Arrête les travailleurs et ferme la socket.
+     */
+    @Override
+    public synchronized void close() {
+        for (WorkerLink link : links) {
+            link.send("QUIT");
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Fermeture best-effort.
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @brief Cherche le meilleur coup d'une position sur des processus locaux et le compare à la recherche locale.
+     * @param args travailleurs profondeur [demiCoupDeDécoupe] [position] [--compare]
+     * @throws Exception Si les processus ne peuvent pas être lancés.
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> rest = new ArrayList<>(List.of(args));
+        boolean compare = rest.remove("--compare");
+        if (rest.size() < 2) {
+            System.err.println("Usage : DistributedSearch travailleurs profondeur [demiCoupDeDécoupe] [position] [--compare]");
+            System.exit(1);
+        }
+        int workers = Integer.parseInt(rest.get(0));
+        int depth = Integer.parseInt(rest.get(1));
+        int splitPly = rest.size() > 2 ? Integer.parseInt(rest.get(2)) : 2;
+        Position position = rest.size() > 3 ? PositionCodec.fromText(String.join(" ", rest.subList(3, rest.size())))
+                : PositionCodec.fromText("6/6/2X3/6/6/6 O");
+        Board board = position.toBoard();
+
+        try (DistributedSearch search = new DistributedSearch(0, workers, splitPly, List.of())) {
+            long start = System.nanoTime();
+            int[] move = search.getBestMove(board, depth, CancellationToken.NONE);
+            System.out.printf("réparti : %s score %d en %d ms (%s)%n", formatMove(move), search.getBestScore(),
+                    (System.nanoTime() - start) / 1_000_000, search.getStatistics());
+        }
+
+        if (compare) {
+            long start = System.nanoTime();
+            int[] move = MinimaxAlgorithm.searchFixedDepth(board, depth, CancellationToken.NONE);
+            System.out.printf("local   : %s en %d ms%n", formatMove(move), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * @brief Met en forme un coup.
+     * @param move Le coup, ou null.
+     * @return "ligne,colonne", ou "-".
+     */
+    private static String formatMove(int[] move) {
+        return move == null ? "-" : move[0] + "," + move[1];
+    }
+}
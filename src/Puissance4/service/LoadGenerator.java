@@ -0,0 +1,782 @@
+/**
+ * @file LoadGenerator.java
+ * @brief Générateur de charge : joueurs simulés contre le moteur de jeu.
+ */
+
+package Puissance4.service;
+
+import Puissance4.Board;
+import Puissance4.Constants;
+import Puissance4.DifficultyProfile;
+import Puissance4.Game;
+import Puissance4.Lines;
+import Puissance4.Position;
+import Puissance4.PositionCodec;
+import Puissance4.SearchScheduler;
+import Puissance4.monitoring.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @class LoadGenerator
+ * @brief Simule des joueurs humains qui arrivent, jouent une partie contre l'IA puis repartent.
+ *
+ * Les joueurs arrivent selon un processus de Poisson (débit moyen --rate par seconde), pendant
+ * --duration secondes au plus. Les parties en cours ont ensuite --drain secondes pour se terminer ;
+ * celles qui durent encore sont abandonnées et comptées à part. Chaque joueur tire un profil
+ * de difficulté dans le mélange --mix, puis joue une partie complète : il réfléchit pendant
+ * une durée tirée de la loi --think, joue une case vide au hasard, puis l'IA répond. Deux cibles :
+ * - en processus (par défaut), chaque joueur pilote une Game sans interface par
+ *   handleCellClick() et aiTurn(), avec un SearchScheduler partagé si --search-threads > 0 ;
+ * - avec --endpoint port, chaque joueur ouvre une connexion vers un AnalysisServer local et
+ *   demande le coup de l'IA pour chaque position. La profondeur est alors celle du serveur, et
+ *   le mélange de difficultés ne s'applique pas.
+ *
+ * Chaque joueur s'exécute sur un thread virtuel quand la JVM en propose (Java 21 et plus ;
+ * recherché par réflexion, le code reste compilable en Java 17). Sinon, les tours des joueurs
+ * sont planifiés sur un pool de --pool threads : un joueur qui réfléchit n'occupe aucun thread.
+ *
+ * Le rapport donne le débit de coups, les percentiles de latence des coups de l'IA (global et
+ * par profil), le tas et les collectes du ramasse-miettes, et la saturation du processeur : temps
+ * CPU du processus rapporté au temps écoulé multiplié par le nombre de cœurs, et charge moyenne
+ * du système par cœur (au-delà de 1, des threads attendent un cœur). La latence d'un coup de
+ * l'IA court depuis l'instant où il est dû (coup du joueur joué) : l'attente d'un thread du pool
+ * ou du pool de recherche en fait partie, un système saturé n'est donc pas masqué.
+ */
+public class LoadGenerator {
+    private static final DifficultyProfile[] PROFILES = {
+        DifficultyProfile.EASY, DifficultyProfile.MEDIUM, DifficultyProfile.HARD, DifficultyProfile.EXPERT
+    }; ///< Profils utilisables dans le mélange.
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9}; ///< Percentiles rapportés.
+    private static final long RETRY_MILLIS = 50; ///< Attente avant de redemander un coup refusé par le pool.
+
+    private final int players; ///< Nombre total de joueurs simulés.
+    private final double rate; ///< Arrivées par seconde.
+    private final long durationNanos; ///< Durée de l'arrivée des joueurs.
+    private final long drainNanos; ///< Temps laissé aux parties en cours après la fin des arrivées.
+    private final ThinkTime think; ///< Loi du temps de réflexion.
+    private final double[] mix; ///< Poids cumulés des profils (même ordre que PROFILES).
+    private final int endpointPort; ///< Port de l'AnalysisServer visé, ou 0 pour le mode en processus.
+    private final SearchScheduler scheduler; ///< Pool de recherche partagé, ou null.
+    private final int poolThreads; ///< Taille du pool des tours.
+    private final ScheduledExecutorService pool; ///< Pool des tours en l'absence de threads virtuels, ou null.
+    private final Method startVirtualThread; ///< Thread.startVirtualThread(Runnable), ou null.
+
+    private final LatencyHistogram latencies = new LatencyHistogram(); ///< Latences de tous les coups de l'IA.
+    private final LatencyHistogram[] profileLatencies = new LatencyHistogram[PROFILES.length]; ///< Latences par profil.
+    private final AtomicLong humanMoves = new AtomicLong(); ///< Coups joués par les joueurs simulés.
+    private final AtomicLong aiMoves = new AtomicLong(); ///< Coups joués par l'IA.
+    private final AtomicLong games = new AtomicLong(); ///< Parties terminées.
+    private final AtomicLong rejected = new AtomicLong(); ///< Coups de l'IA refusés par le pool de recherche.
+    private final AtomicLong abandoned = new AtomicLong(); ///< Parties abandonnées à la fin du temps laissé aux parties en cours.
+    private final AtomicLong failures = new AtomicLong(); ///< Joueurs arrêtés par une erreur.
+    private final AtomicInteger active = new AtomicInteger(); ///< Joueurs en cours de partie.
+    private final AtomicInteger peakActive = new AtomicInteger(); ///< Plus grand nombre de joueurs simultanés.
+    private volatile long deadline; ///< Fin des arrivées (System.nanoTime).
+    private volatile long drainEnd; ///< Fin du temps laissé aux parties en cours (System.nanoTime).
+
+    /**
+     * @class ThinkTime
+     * @brief Loi du temps de réflexion d'un joueur, en millisecondes.
+     *
+     * Formes acceptées : "fixe:ms", "uniforme:min:max", "exp:moyenne",
+     * "lognormal:médiane:sigma".
+     */
+    static final class ThinkTime {
+        private final String kind; ///< Nom de la loi.
+        private final double a; ///< Premier paramètre.
+        private final double b; ///< Second paramètre (0 si la loi n'en a qu'un).
+
+        /**
+         * @brief Lit une loi.
+         * @param spec La description de la loi.
+         * @throws IllegalArgumentException Si la description est invalide.
+         */
+        ThinkTime(String spec) {
+            String[] parts = spec.split(":");
+            kind = parts[0];
+            int expected = kind.equals("uniforme") || kind.equals("lognormal") ? 3 : 2;
+            if (parts.length != expected || !List.of("fixe", "uniforme", "exp", "lognormal").contains(kind)) {
+                throw new IllegalArgumentException("Loi de réflexion invalide : " + spec);
+            }
+            a = Double.parseDouble(parts[1]);
+            b = expected == 3 ? Double.parseDouble(parts[2]) : 0;
+        }
+
+        /**
+         * @brief Tire un temps de réflexion.
+         * @param random Le générateur du joueur.
+         * @return Le temps en millisecondes.
+         */
+        long sample(Random random) {
+            double millis;
+            switch (kind) {
+                case "fixe":
+                    millis = a;
+                    break;
+                case "uniforme":
+                    millis = a + random.nextDouble() * (b - a);
+                    break;
+                case "exp":
+                    millis = -a * Math.log(1 - random.nextDouble());
+                    break;
+                default:
+                    millis = a * Math.exp(b * random.nextGaussian());
+            }
+            return Math.max(0, Math.round(millis));
+        }
+
+        /**
+         * @brief Décrit la loi.
+         * @return La description lue.
+         */
+        @Override
+        public String toString() {
+            return kind + ":" + (long) a + (kind.equals("uniforme") || kind.equals("lognormal") ? ":" + b : "");
+        }
+    }
+
+    /**
+     * @interface Player
+     * @brief Joueur simulé, exécuté tour par tour.
+     */
+    private interface Player {
+
+        /**
+         * @brief Joue le tour suivant du joueur.
+         * @return Le délai avant le tour suivant en millisecondes, ou -1 si la partie est finie.
+         * @throws IOException Si la connexion au serveur échoue.
+         */
+        long step() throws IOException;
+
+        /**
+         * @brief Abandonne la partie et libère ses ressources.
+         */
+        void close();
+    }
+
+    /**
+     * @class LocalPlayer
+     * @brief Joueur qui pilote une Game sans interface dans le processus.
+     */
+    private final class LocalPlayer implements Player {
+        private final Random random = new Random(ThreadLocalRandom.current().nextLong()); ///< Générateur du joueur.
+        private final int profile; ///< Indice du profil dans PROFILES.
+        private final Game game; ///< La partie.
+        private long aiDue = System.nanoTime(); ///< Instant où le coup de l'IA est devenu dû.
+
+        /**
+         * @brief Constructeur de la classe LocalPlayer.
+         * @param profile L'indice du profil de difficulté.
+         */
+        LocalPlayer(int profile) {
+            this.profile = profile;
+            this.game = new Game(new Board(), null, false);
+            game.setDifficulty(PROFILES[profile]);
+            game.setScheduler(scheduler);
+        }
+
+        /**
+         * @brief Joue le tour suivant : le coup de l'IA si elle est au trait, sinon un coup du joueur.
+         * @return Le délai avant le tour suivant, ou -1 si la partie est finie.
+         */
+        @Override
+        public long step() {
+            if (game.isGameOver()) {
+                return -1;
+            }
+            if (game.getPosition().getSideToMove() == 'O') {
+                game.aiTurn();
+                if (!game.isGameOver() && game.getPosition().getSideToMove() == 'O') {
+                    // Pool saturé : le coup n'a pas été joué, le joueur attend puis redemande.
+                    rejected.incrementAndGet();
+                    return RETRY_MILLIS;
+                }
+                recordAiMove(profile, System.nanoTime() - aiDue);
+                return game.isGameOver() ? -1 : think.sample(random);
+            }
+            Position position = game.getPosition();
+            int[] move = randomMove(position, random);
+            game.handleCellClick(move[0], move[1]);
+            humanMoves.incrementAndGet();
+            aiDue = System.nanoTime();
+            return game.isGameOver() ? -1 : 0;
+        }
+
+        /**
+         * @brief Abandonne la partie.
+         */
+        @Override
+        public void close() {
+            game.abandon();
+        }
+    }
+
+    /**
+     * @class RemotePlayer
+     * @brief Joueur qui demande les coups de l'IA à un AnalysisServer local.
+     */
+    private final class RemotePlayer implements Player {
+        private final Random random = new Random(ThreadLocalRandom.current().nextLong()); ///< Générateur du joueur.
+        private final Socket socket; ///< Connexion au serveur.
+        private final BufferedReader in; ///< Réponses du serveur.
+        private final Writer out; ///< Requêtes vers le serveur.
+        private Position position; ///< Position de la partie.
+        private long aiDue = System.nanoTime(); ///< Instant où le coup de l'IA est devenu dû.
+
+        /**
+         * @brief Constructeur de la classe RemotePlayer : ouvre la connexion.
+         * @throws IOException Si la connexion échoue.
+         */
+        RemotePlayer() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), endpointPort);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            position = Position.empty(random.nextBoolean() ? 'X' : 'O');
+        }
+
+        /**
+         * @brief Joue le tour suivant : la réponse du serveur si l'IA est au trait, sinon un coup du joueur.
+         * @return Le délai avant le tour suivant, ou -1 si la partie est finie.
+         * @throws IOException Si la connexion échoue ou si la réponse est illisible.
+         */
+        @Override
+        public long step() throws IOException {
+            if (position.isGameOver()) {
+                return -1;
+            }
+            if (position.getSideToMove() == 'O') {
+                out.write(PositionCodec.toText(position));
+                out.write("\n\n");
+                out.flush();
+                int[] move = null;
+                String line;
+                while ((line = in.readLine()) != null && !line.startsWith("END")) {
+                    String[] fields = line.split(" ");
+                    if (fields.length >= 3 && !fields[0].equals("ERR")) {
+                        move = new int[]{Integer.parseInt(fields[1]), Integer.parseInt(fields[2])};
+                    }
+                }
+                if (line == null || move == null) {
+                    throw new IOException("Réponse du serveur incomplète");
+                }
+                recordAiMove(-1, System.nanoTime() - aiDue);
+                position = position.play(move[0], move[1]);
+                return position.isGameOver() ? -1 : think.sample(random);
+            }
+            int[] move = randomMove(position, random);
+            position = position.play(move[0], move[1]);
+            humanMoves.incrementAndGet();
+            aiDue = System.nanoTime();
+            return position.isGameOver() ? -1 : 0;
+        }
+
+        /**
+         * @brief Ferme la connexion.
+         */
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Fermeture best-effort.
+            }
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe LoadGenerator.
+     * @param players Le nombre total de joueurs simulés.
+     * @param rate Le nombre moyen d'arrivées par seconde.
+     * @param durationSeconds La durée des arrivées, en secondes.
+     * @param drainSeconds Le temps laissé aux parties en cours après la fin des arrivées, en secondes.
+     * @param think La loi du temps de réflexion.
+     * @param mix Le poids de chaque profil (même ordre que PROFILES).
+     * @param endpointPort Le port de l'AnalysisServer visé, ou 0 pour le mode en processus.
+     * @param searchThreads Le nombre de threads du pool de recherche partagé (0 = recherche sur le thread du joueur).
+     * @param poolThreads Le nombre de threads du pool des tours, si les threads virtuels sont indisponibles ou refusés.
+     * @param useVirtualThreads Indique si les threads virtuels doivent être utilisés quand ils existent.
+     */
+    LoadGenerator(int players, double rate, long durationSeconds, long drainSeconds, ThinkTime think, double[] mix,
+                  int endpointPort, int searchThreads, int poolThreads, boolean useVirtualThreads) {
+        this.players = players;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.drainNanos = TimeUnit.SECONDS.toNanos(Math.max(0, drainSeconds));
+        this.think = think;
+        this.mix = new double[mix.length];
+        double total = 0;
+        for (int i = 0; i < mix.length; i++) {
+            total += mix[i];
+            this.mix[i] = total;
+        }
+        this.endpointPort = endpointPort;
+        this.scheduler = endpointPort == 0 && searchThreads > 0
+                ? new SearchScheduler(searchThreads, 1, Math.max(1, players)) : null;
+        this.poolThreads = poolThreads;
+        this.startVirtualThread = useVirtualThreads ? findVirtualThreads() : null;
+        this.pool = startVirtualThread == null ? Executors.newScheduledThreadPool(poolThreads, r -> {
+            Thread thread = new Thread(r, "Puissance4-load");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        for (int i = 0; i < PROFILES.length; i++) {
+            profileLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @brief Cherche Thread.startVirtualThread et vérifie qu'il est utilisable.
+     * @return La méthode, ou null si la JVM n'a pas de threads virtuels (ou seulement en préversion désactivée).
+     */
+    private static Method findVirtualThreads() {
+        try {
+            Method method = Thread.class.getMethod("startVirtualThread", Runnable.class);
+            method.invoke(null, (Runnable) () -> { });
+            return method;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @brief Déroule l'essai : arrivées, parties, puis rapport sur la sortie standard.
+     * @throws InterruptedException Si le thread est interrompu pendant l'attente des parties.
+     */
+    void run() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Sampler sampler = new Sampler();
+        long start = System.nanoTime();
+        deadline = start + durationNanos;
+        drainEnd = deadline + drainNanos;
+        System.out.printf(Locale.ROOT, "%d joueurs, %.1f arrivées/s, réflexion %s, %s, %s%n", players, rate, think,
+                endpointPort != 0 ? "serveur d'analyse sur le port " + endpointPort : "en processus",
+                startVirtualThread != null ? "threads virtuels" : "pool de " + poolThreads + " threads");
+
+        // Arrivées de Poisson : intervalles exponentiels de moyenne 1 / rate.
+        Random random = new Random();
+        long nextArrival = start;
+        long nextReport = start + TimeUnit.SECONDS.toNanos(5);
+        int arrived = 0;
+        while (arrived < players && System.nanoTime() - deadline < 0) {
+            nextArrival += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+            long now;
+            while ((now = System.nanoTime()) - nextArrival < 0) {
+                if (now - nextReport >= 0) {
+                    sampler.sample(memory);
+                    progress(start, arrived);
+                    nextReport += TimeUnit.SECONDS.toNanos(5);
+                }
+                LockSupport.parkNanos(Math.min(nextArrival - now, TimeUnit.MILLISECONDS.toNanos(100)));
+            }
+            launch(pickProfile(random));
+            arrived++;
+        }
+
+        // Fin des arrivées : les parties en cours continuent jusqu'à drainEnd, puis sont abandonnées.
+        while (active.get() > 0 && System.nanoTime() - drainEnd < 0) {
+            sampler.sample(memory);
+            if (System.nanoTime() - nextReport >= 0) {
+                progress(start, arrived);
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+            Thread.sleep(100);
+        }
+        sampler.sample(memory);
+        report(start, arrived, sampler, memory);
+
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    /**
+     * @brief Démarre un joueur.
+     * @param profile L'indice de son profil de difficulté.
+     */
+    private void launch(int profile) {
+        int now = active.incrementAndGet();
+        peakActive.accumulateAndGet(now, Math::max);
+        Player player;
+        try {
+            player = endpointPort != 0 ? new RemotePlayer() : new LocalPlayer(profile);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            active.decrementAndGet();
+            return;
+        }
+
+        if (startVirtualThread != null) {
+            Runnable loop = () -> {
+                try {
+                    long delay;
+                    while ((delay = turn(player)) >= 0) {
+                        if (delay > 0) {
+                            Thread.sleep(delay);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    finish(player, false);
+                }
+            };
+            try {
+                startVirtualThread.invoke(null, loop);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                finish(player, false);
+            }
+        } else {
+            pool.execute(() -> schedule(player));
+        }
+    }
+
+    /**
+     * @brief Joue un tour sur le pool puis planifie le suivant (mode sans threads virtuels).
+     * @param player Le joueur.
+     */
+    private void schedule(Player player) {
+        long delay = turn(player);
+        if (delay >= 0) {
+            pool.schedule(() -> schedule(player), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @brief Joue un tour d'un joueur et termine sa partie si besoin.
+     * @param player Le joueur.
+     * @return Le délai avant le tour suivant, ou -1 si le joueur est parti.
+     */
+    private long turn(Player player) {
+        if (System.nanoTime() - drainEnd >= 0) {
+            // Temps écoulé : la partie est abandonnée sans être comptée comme terminée.
+            abandoned.incrementAndGet();
+            finish(player, false);
+            return -1;
+        }
+        try {
+            long delay = player.step();
+            if (delay < 0) {
+                finish(player, true);
+            }
+            return delay;
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            finish(player, false);
+            return -1;
+        }
+    }
+
+    /**
+     * @brief Termine la partie d'un joueur.
+     * @param player Le joueur.
+     * @param completed Indique si la partie est allée à son terme.
+     */
+    private void finish(Player player, boolean completed) {
+        player.close();
+        if (completed) {
+            games.incrementAndGet();
+        }
+        active.decrementAndGet();
+    }
+
+    /**
+     * @brief Enregistre la latence d'un coup de l'IA.
+     * @param profile L'indice du profil, ou -1 en mode serveur.
+     * @param nanos La latence en nanosecondes.
+     */
+    private void recordAiMove(int profile, long nanos) {
+        aiMoves.incrementAndGet();
+        latencies.record(nanos);
+        if (profile >= 0) {
+            profileLatencies[profile].record(nanos);
+        }
+    }
+
+    /**
+     * @brief Tire un profil de difficulté selon le mélange.
+     * @param random Le générateur.
+     * @return L'indice du profil.
+     */
+    private int pickProfile(Random random) {
+        double draw = random.nextDouble() * mix[mix.length - 1];
+        for (int i = 0; i < mix.length; i++) {
+            if (draw < mix[i]) {
+                return i;
+            }
+        }
+        return mix.length - 1;
+    }
+
+    /**
+     * @brief Tire une case vide au hasard.
+     * @param position La position.
+     * @param random Le générateur.
+     * @return La case [ligne, colonne].
+     */
+    private static int[] randomMove(Position position, Random random) {
+        int empty = Lines.CELL_COUNT - position.getPieceCount();
+        int skip = random.nextInt(empty);
+        for (int row = 0; row < Constants.BOARD_SIZE; row++) {
+            for (int col = 0; col < Constants.BOARD_SIZE; col++) {
+                if (position.isEmpty(row, col) && skip-- == 0) {
+                    return new int[]{row, col};
+                }
+            }
+        }
+        throw new IllegalStateException("Aucune case vide");
+    }
+
+    /**
+     * @class Sampler
+     * @brief Relève le tas et le temps CPU du processus pendant l'essai.
+     */
+    private static final class Sampler {
+        private final long startCpu = processCpuNanos(); ///< Temps CPU du processus au début de l'essai.
+        private final long startGcCount = gcCount(); ///< Collectes au début de l'essai.
+        private final long startGcMillis = gcMillis(); ///< Temps de collecte au début de l'essai.
+        private long peakHeap; ///< Plus grand tas utilisé observé.
+
+        /**
+         * @brief Relève le tas utilisé.
+         * @param memory Le bean de la mémoire.
+         */
+        void sample(MemoryMXBean memory) {
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+        }
+
+        /**
+         * @brief Récupère le temps CPU consommé par le processus.
+         * @return Le temps en nanosecondes, ou -1 s'il n'est pas disponible.
+         */
+        static long processCpuNanos() {
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+            }
+            return -1;
+        }
+
+        /**
+         * @brief Compte les collectes de tous les ramasse-miettes.
+         * @return Le nombre de collectes.
+         */
+        static long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+            }
+            return count;
+        }
+
+        /**
+         * @brief Cumule le temps de collecte de tous les ramasse-miettes.
+         * @return Le temps en millisecondes.
+         */
+        static long gcMillis() {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return millis;
+        }
+    }
+
+    /**
+     * @brief Affiche une ligne d'avancement.
+     * @param start Le début de l'essai (System.nanoTime).
+     * @param arrived Le nombre de joueurs arrivés.
+     */
+    private void progress(long start, int arrived) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "[%5.1f s] %d arrivés, %d en partie, %d coups IA (%.1f/s), p99 %.1f ms%n",
+                seconds, arrived, active.get(), aiMoves.get(), aiMoves.get() / seconds,
+                latencies.getPercentile(99) / 1e6);
+    }
+
+    /**
+     * @brief Affiche le rapport final.
+     * @param start Le début de l'essai (System.nanoTime).
+     * @param arrived Le nombre de joueurs arrivés.
+     * @param sampler Les relevés de l'essai.
+     * @param memory Le bean de la mémoire.
+     */
+    private void report(long start, int arrived, Sampler sampler, MemoryMXBean memory) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf(Locale.ROOT, "durée %.1f s : %d joueurs arrivés, %d parties terminées, %d abandonnées à la fin, %d encore en cours, %d erreurs, %d joueurs simultanés au plus%n",
+                seconds, arrived, games.get(), abandoned.get(), active.get(), failures.get(), peakActive.get());
+        System.out.printf(Locale.ROOT, "coups : %d du joueur (%.1f/s), %d de l'IA (%.1f/s), %d refusés par le pool de recherche%n",
+                humanMoves.get(), humanMoves.get() / seconds, aiMoves.get(), aiMoves.get() / seconds, rejected.get());
+
+        System.out.printf(Locale.ROOT, "%-12s %8s %10s %10s %10s %10s %10s %10s%n",
+                "latence IA", "nombre", "moy. ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        printLatencies("tous", latencies);
+        if (endpointPort == 0) {
+            for (int i = 0; i < PROFILES.length; i++) {
+                if (profileLatencies[i].getCount() > 0) {
+                    printLatencies(PROFILES[i].getName(), profileLatencies[i]);
+                }
+            }
+        }
+
+        long heapMax = memory.getHeapMemoryUsage().getMax();
+        System.out.printf(Locale.ROOT, "tas : %.1f Mo utilisés, pic %.1f Mo, maximum %s ; ramasse-miettes : %d collectes, %d ms (%.2f %% du temps)%n",
+                memory.getHeapMemoryUsage().getUsed() / 1e6, sampler.peakHeap / 1e6,
+                heapMax > 0 ? String.format(Locale.ROOT, "%.1f Mo", heapMax / 1e6) : "illimité",
+                Sampler.gcCount() - sampler.startGcCount, Sampler.gcMillis() - sampler.startGcMillis,
+                100.0 * (Sampler.gcMillis() - sampler.startGcMillis) / (seconds * 1000));
+
+        long cpu = Sampler.processCpuNanos();
+        double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        System.out.printf(Locale.ROOT, "CPU : %s des %d cœurs utilisés par le processus, charge système %s par cœur%n",
+                cpu >= 0 && sampler.startCpu >= 0
+                        ? String.format(Locale.ROOT, "%.1f %%", 100.0 * (cpu - sampler.startCpu) / (seconds * 1e9 * cores))
+                        : "n/d",
+                cores, load >= 0 ? String.format(Locale.ROOT, "%.2f", load / cores) : "n/d");
+    }
+
+    /**
+     * @brief Affiche une ligne de latences.
+     * @param name Le nom de la ligne.
+     * @param histogram L'histogramme.
+     */
+    private static void printLatencies(String name, LatencyHistogram histogram) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-12s %8d %10.1f", name, histogram.getCount(),
+                histogram.getMean() / 1e6));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(Locale.ROOT, " %10.1f", histogram.getPercentile(percentile) / 1e6));
+        }
+        line.append(String.format(Locale.ROOT, " %10.1f", histogram.getMax() / 1e6));
+        System.out.println(line);
+    }
+
+    /**
+     * @brief Lance un essai de charge.
+     * @param args [--players N] [--rate R] [--duration S] [--drain S] [--think loi] [--mix Facile:p,Moyen:p,...]
+     *             [--endpoint port] [--search-threads N] [--pool N] [--platform]
+     * @throws InterruptedException Si le thread principal est interrompu.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int players = 1000;
+        double rate = 50;
+        long duration = 60;
+        long drain = 60;
+        ThinkTime think = new ThinkTime("lognormal:1500:0.5");
+        double[] mix = {40, 40, 15, 5};
+        int endpoint = 0;
+        int searchThreads = Runtime.getRuntime().availableProcessors();
+        int poolThreads = 4 * Runtime.getRuntime().availableProcessors();
+        boolean virtual = true;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--platform")) {
+                virtual = false;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                usage();
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--players":
+                    players = Integer.parseInt(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--duration":
+                    duration = Long.parseLong(value);
+                    break;
+                case "--drain":
+                    drain = Long.parseLong(value);
+                    break;
+                case "--think":
+                    think = new ThinkTime(value);
+                    break;
+                case "--mix":
+                    mix = parseMix(value);
+                    break;
+                case "--endpoint":
+                    endpoint = Integer.parseInt(value);
+                    break;
+                case "--search-threads":
+                    searchThreads = Integer.parseInt(value);
+                    break;
+                case "--pool":
+                    poolThreads = Integer.parseInt(value);
+                    break;
+                default:
+                    usage();
+            }
+        }
+
+        new LoadGenerator(players, rate, duration, drain, think, mix, endpoint, searchThreads, poolThreads, virtual).run();
+    }
+
+    /**
+     * @brief Lit un mélange de profils, par exemple "Facile:40,Moyen:40,Difficile:15,Expert:5".
+     * @param text Le mélange ; les profils absents ont un poids nul.
+     * @return Le poids de chaque profil (même ordre que PROFILES).
+     * @throws IllegalArgumentException Si un profil est inconnu ou si tous les poids sont nuls.
+     */
+    private static double[] parseMix(String text) {
+        double[] weights = new double[PROFILES.length];
+        List<String> names = new ArrayList<>();
+        for (DifficultyProfile profile : PROFILES) {
+            names.add(profile.getName());
+        }
+        double total = 0;
+        for (String entry : text.split(",")) {
+            String[] parts = entry.split(":");
+            int index = names.indexOf(parts[0]);
+            if (index < 0 || parts.length != 2) {
+                throw new IllegalArgumentException("Profil inconnu dans le mélange : " + entry);
+            }
+            weights[index] = Double.parseDouble(parts[1]);
+            total += weights[index];
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Mélange vide : " + text);
+        }
+        return weights;
+    }
+
+    /**
+     * @brief Affiche l'usage et termine le programme.
+     */
+    private static void usage() {
+        System.err.println("Usage : LoadGenerator [--players N] [--rate arrivées/s] [--duration s] [--drain s] "
+                + "[--think fixe:ms|uniforme:min:max|exp:moyenne|lognormal:médiane:sigma] "
+                + "[--mix Facile:p,Moyen:p,Difficile:p,Expert:p] [--endpoint port] "
+                + "[--search-threads N] [--pool N] [--platform]");
+        System.exit(1);
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * @file SearchWorker.java
+ * @brief Processus de travail de la recherche répartie.
+ */
+
+package Puissance4.service;
+
+import Puissance4.Board;
+import Puissance4.CancellationToken;
+import Puissance4.MinimaxAlgorithm;
+import Puissance4.Position;
+import Puissance4.PositionCodec;
+import Puissance4.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @class SearchWorker
+ * @brief Se connecte à un coordinateur DistributedSearch et cherche les sous-arbres qu'il lui confie.
+ *
+ * Protocole texte sur la socket, une ligne par message (UTF-8) :
+ * - le travailleur s'annonce par "READY" ;
+ * - "TASK id profondeur alpha beta position" lance la recherche d'un sous-arbre (forme texte de
+ *   PositionCodec, scores du point de vue de 'O') ; une seule tâche est en cours à la fois ;
+ * - "BOUND id alpha beta" resserre la fenêtre de la tâche en cours ;
+ * - "CANCEL id" l'abandonne ;
+ * - "QUIT" termine le processus.
+ * Le travailleur répond "DONE id score alpha beta nœuds" avec la fenêtre finale, qui permet au
+ * coordinateur de savoir si le score est exact ou une borne, ou "STOPPED id" après une annulation.
+ *
+ * Chaque travailleur a son propre moteur et sa propre table de transposition, hors du tas Java :
+ * la mémoire et le ramasse-miettes ne sont pas partagés entre processus.
+ */
+public class SearchWorker {
+    private final Writer out; ///< Flux vers le coordinateur.
+    private volatile Task current; ///< Tâche en cours, ou null.
+
+    /**
+     * @class Task
+     * @brief Tâche en cours : fenêtre modifiable par le coordinateur et jeton d'annulation.
+     */
+    private static final class Task {
+        final String id; ///< Identifiant donné par le coordinateur.
+        final CancellationToken token = new CancellationToken(); ///< Annulé par CANCEL ou QUIT.
+        volatile int alpha; ///< Borne inférieure courante.
+        volatile int beta; ///< Borne supérieure courante.
+
+        /**
+         * @brief Constructeur de la classe Task.
+         * @param id L'identifiant de la tâche.
+         * @param alpha La borne inférieure initiale.
+         * @param beta La borne supérieure initiale.
+         */
+        Task(String id, int alpha, int beta) {
+            this.id = id;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe SearchWorker.
+     * @param out Le flux vers le coordinateur.
+     */
+    private SearchWorker(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * @brief Se connecte au coordinateur et traite ses messages jusqu'à QUIT ou la fermeture de la connexion.
+     * @param port Le port du coordinateur sur l'interface locale.
+     * @throws IOException Si la connexion échoue.
+     */
+    public static void run(int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            SearchWorker worker = new SearchWorker(
+                    new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+            worker.send("READY");
+            try {
+                worker.dispatch(in);
+            } finally {
+                Task task = worker.current;
+                if (task != null) {
+                    task.token.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Lit les messages du coordinateur. Les recherches s'exécutent sur un autre thread pour
+     *        que BOUND et CANCEL soient pris en compte pendant qu'elles tournent.
+     * @param in Le flux du coordinateur.
+     * @throws IOException Si la connexion échoue.
+     */
+    private void dispatch(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] fields = line.split(" ", 6);
+            Task task = current;
+            switch (fields[0]) {
+                case "TASK":
+                    start(fields[1], Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                            Integer.parseInt(fields[4]), fields[5]);
+                    break;
+                case "BOUND":
+                    if (task != null && task.id.equals(fields[1])) {
+                        // Les bornes ne font que se resserrer, même si les messages se croisent.
+                        task.alpha = Math.max(task.alpha, Integer.parseInt(fields[2]));
+                        task.beta = Math.min(task.beta, Integer.parseInt(fields[3]));
+                    }
+                    break;
+                case "CANCEL":
+                    if (task != null && task.id.equals(fields[1])) {
+                        task.token.cancel();
+                    }
+                    break;
+                case "QUIT":
+                    return;
+                default:
+                    send("ERR message inconnu : " + line);
+            }
+        }
+    }
+
+    /**
+     * @brief Lance la recherche d'une tâche sur un thread dédié.
+     * @param id L'identifiant de la tâche.
+     * @param depth La profondeur restante.
+     * @param alpha La borne inférieure initiale.
+     * @param beta La borne supérieure initiale.
+     * @param text La position, sous forme texte.
+     */
+    private void start(String id, int depth, int alpha, int beta, String text) {
+        Task task = new Task(id, alpha, beta);
+        Task previous = current;
+        if (previous != null) {
+            // Le coordinateur n'envoie une tâche qu'à un travailleur libre ; par sécurité, l'ancienne est abandonnée.
+            previous.token.cancel();
+        }
+        current = task;
+
+        Thread thread = new Thread(() -> {
+            String reply;
+            try {
+                Position position = PositionCodec.fromText(text);
+                Board board = position.toBoard();
+                boolean aiToMove = position.getSideToMove() == 'O';
+                long[] result = MinimaxAlgorithm.searchWindow(board, depth, aiToMove,
+                        () -> task.alpha, () -> task.beta, task.token);
+                reply = result == null ? "STOPPED " + id
+                        : "DONE " + id + " " + result[0] + " " + task.alpha + " " + task.beta + " " + result[1];
+            } catch (RuntimeException e) {
+                reply = "ERR " + id + " " + e;
+            }
+            if (current == task) {
+                current = null;
+            }
+            try {
+                send(reply);
+            } catch (IOException e) {
+                // Coordinateur parti : le processus se termine à la fin de la lecture.
+            }
+        }, "Puissance4-worker-" + id);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @brief Écrit une ligne vers le coordinateur et la transmet immédiatement.
+     * @param line La ligne à écrire.
+     * @throws IOException Si la connexion échoue.
+     */
+    private void send(String line) throws IOException {
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    /**
+     * @brief Lance un processus de travail.
+     * @param args port [tailleTableDeTranspositionEnMo]
+     * @throws IOException Si la connexion au coordinateur échoue.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage : SearchWorker port [tailleTableDeTranspositionEnMo]");
+            System.exit(1);
+        }
+        long tableMegabytes = args.length > 1 ? Long.parseLong(args[1]) : 64;
+        if (tableMegabytes > 0) {
+            MinimaxAlgorithm.setTranspositionTable(new TranspositionTable(tableMegabytes << 20));
+        }
+        run(Integer.parseInt(args[0]));
+    }
+}
@@ -0,0 +1,386 @@
+/**
+ * @file SessionManager.java
+ * @brief Parties sans interface, mises en sommeil sur disque quand elles sont inactives.
+ */
+
+package Puissance4.service;
+
+import Puissance4.Board;
+import Puissance4.Constants;
+import Puissance4.DifficultyProfile;
+import Puissance4.Game;
+import Puissance4.Position;
+import Puissance4.SearchScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class SessionManager
+ * @brief Héberge des parties sans interface et libère la mémoire de celles qui restent inactives.
+ *
+ * Une partie inactive depuis plus de idleMillis est écrite dans son emplacement du SessionStore
+ * (plateau, joueur au trait, historique des coups, mode et difficulté), puis ses objets sont
+ * libérés. L'identifiant de session contient l'emplacement et sa génération : une partie en
+ * sommeil ne coûte aucun objet dans le tas, seulement 64 octets dans le fichier projeté. Elle est
+ * recréée au prochain coup, sans que l'appelant ait à le savoir ; getPosition() la lit directement
+ * dans le fichier, sans la réveiller.
+ *
+ * Les coups de parties différentes s'exécutent en parallèle ; ceux d'une même partie sont
+ * sérialisés. Une partie en cours d'utilisation n'est jamais mise en sommeil. Les parties avec un
+ * profil de difficulté personnalisé restent en mémoire (voir Game.canWriteRecord()).
+ */
+public class SessionManager implements AutoCloseable {
+    private final SessionStore store; ///< Emplacements des parties.
+    private final long idleNanos; ///< Inactivité avant la mise en sommeil automatique (0 = jamais).
+    private final SearchScheduler scheduler; ///< Pool de recherche des parties, ou null.
+    private final Map<Integer, Session> live = new HashMap<>(); ///< Parties en mémoire, par emplacement.
+    private final ScheduledExecutorService sweeper; ///< Tâche de mise en sommeil périodique, ou null.
+    private int hibernated; ///< Nombre de parties en sommeil.
+
+    /**
+     * @class Session
+     * @brief Partie en mémoire, avec sa date de dernière utilisation.
+     */
+    private static final class Session {
+        final Game game; ///< La partie.
+        long lastUsed = System.nanoTime(); ///< Fin de la dernière utilisation (System.nanoTime).
+        int users; ///< Nombre d'appels en cours sur la partie.
+
+        /**
+         * @brief Constructeur de la classe Session.
+         * @param game La partie.
+         */
+        Session(Game game) {
+            this.game = game;
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe SessionManager.
+     * @param storeFile Le fichier des parties en sommeil (vidé à l'ouverture).
+     * @param idleMillis L'inactivité avant la mise en sommeil automatique, en millisecondes (0 pour la désactiver).
+     * @param scheduler Le pool de recherche des parties, ou null pour chercher sur le thread appelant.
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    public SessionManager(Path storeFile, long idleMillis, SearchScheduler scheduler) throws IOException {
+        this.store = new SessionStore(storeFile);
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.scheduler = scheduler;
+        if (idleMillis > 0) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "Puissance4-sessions");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(100, idleMillis / 2);
+            sweeper.scheduleWithFixedDelay(() -> hibernateIdle(idleMillis), period, period, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    /**
+     * @brief Crée une partie sans interface sur un plateau vide. Si l'IA commence, elle joue son premier coup.
+     * @param isHumanVsHuman Indique si la partie est en mode Humain vs Humain.
+     * @param difficulty Le profil de difficulté de l'IA, ou null pour la profondeur globale.
+     * @return L'identifiant de la session.
+     * @throws UncheckedIOException Si le fichier des parties ne peut pas grandir.
+     */
+    public long createSession(boolean isHumanVsHuman, DifficultyProfile difficulty) {
+        Game game = new Game(new Board(), null, isHumanVsHuman);
+        game.setDifficulty(difficulty);
+        game.setScheduler(scheduler);
+
+        Session session = new Session(game);
+        long id;
+        synchronized (this) {
+            int slot;
+            try {
+                slot = store.allocate();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            live.put(slot, session);
+            session.users++;
+            id = (long) store.generation(slot) << 32 | slot;
+        }
+        try {
+            synchronized (session) {
+                game.aiTurn();
+            }
+        } finally {
+            release(session);
+        }
+        return id;
+    }
+
+    /**
+     * @brief Joue un coup du joueur au trait puis, en mode Humain vs IA, la réponse de l'IA.
+     *
+     * Une partie en sommeil est d'abord recréée depuis le fichier.
+     * @param id L'identifiant de la session.
+     * @param row La ligne du coup.
+     * @param col La colonne du coup.
+     * @return La position après le ou les coups (inchangée si le coup est invalide).
+     * @throws IllegalArgumentException Si la session n'existe pas.
+     */
+    public Position play(long id, int row, int col) {
+        Session session = acquire(id);
+        try {
+            synchronized (session) {
+                Game game = session.game;
+                game.handleCellClick(row, col);
+                // Sans effet si c'est au joueur humain ou en mode Humain vs Humain.
+                game.aiTurn();
+                return game.getPosition();
+            }
+        } finally {
+            release(session);
+        }
+    }
+
+    /**
+     * @brief Récupère la position d'une session, sans réveiller une partie en sommeil.
+     * @param id L'identifiant de la session.
+     * @return La position courante.
+     * @throws IllegalArgumentException Si la session n'existe pas.
+     */
+    public synchronized Position getPosition(long id) {
+        int slot = checkId(id);
+        Session session = live.get(slot);
+        if (session != null) {
+            return session.game.getPosition();
+        }
+        ByteBuffer record = recordOf(slot);
+        return Game.readRecord(record, null).getPosition();
+    }
+
+    /**
+     * @brief Récupère l'historique des coups d'une session, sans réveiller une partie en sommeil.
+     * @param id L'identifiant de la session.
+     * @return Les cases jouées dans l'ordre (ligne * BOARD_SIZE + colonne).
+     * @throws IllegalArgumentException Si la session n'existe pas.
+     */
+    public synchronized int[] getMoveHistory(long id) {
+        int slot = checkId(id);
+        Session session = live.get(slot);
+        Game game = session != null ? session.game : Game.readRecord(recordOf(slot), null);
+        return game.getMoveHistory();
+    }
+
+    /**
+     * @brief Termine une session : la partie est abandonnée et son emplacement libéré.
+     * @param id L'identifiant de la session.
+     * @throws IllegalArgumentException Si la session n'existe pas.
+     */
+    public synchronized void closeSession(long id) {
+        int slot = checkId(id);
+        Session session = live.remove(slot);
+        if (session != null) {
+            session.game.abandon();
+        } else {
+            hibernated--;
+        }
+        store.release(slot);
+    }
+
+    /**
+     * @brief Met en sommeil les parties inutilisées depuis au moins une durée donnée.
+     * @param idleMillis L'inactivité minimale, en millisecondes (0 pour toutes les parties inutilisées).
+     * @return Le nombre de parties mises en sommeil.
+     */
+    public synchronized int hibernateIdle(long idleMillis) {
+        long now = System.nanoTime();
+        long idle = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        int count = 0;
+        for (Iterator<Map.Entry<Integer, Session>> it = live.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Session> entry = it.next();
+            Session session = entry.getValue();
+            if (session.users > 0 || now - session.lastUsed < idle || !session.game.canWriteRecord()) {
+                continue;
+            }
+            ByteBuffer slot = store.slot(entry.getKey());
+            slot.position(SessionStore.RECORD_OFFSET);
+            session.game.writeRecord(slot);
+            it.remove();
+            hibernated++;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @brief Récupère le nombre de parties en mémoire.
+     * @return Le nombre de parties.
+     */
+    public synchronized int getLiveCount() {
+        return live.size();
+    }
+
+    /**
+     * @brief Récupère le nombre de parties en sommeil.
+     * @return Le nombre de parties.
+     */
+    public synchronized int getHibernatedCount() {
+        return hibernated;
+    }
+
+    /**
+     * @brief Réserve une session pour un appel, en recréant la partie si elle est en sommeil.
+     * @param id L'identifiant de la session.
+     * @return La session.
+     * @throws IllegalArgumentException Si la session n'existe pas.
+     */
+    private synchronized Session acquire(long id) {
+        int slot = checkId(id);
+        Session session = live.get(slot);
+        if (session == null) {
+            session = new Session(Game.readRecord(recordOf(slot), scheduler));
+            live.put(slot, session);
+            hibernated--;
+        }
+        session.users++;
+        return session;
+    }
+
+    /**
+     * @brief Termine un appel sur une session.
+     * @param session La session.
+     */
+    private synchronized void release(Session session) {
+        session.users--;
+        session.lastUsed = System.nanoTime();
+    }
+
+    /**
+     * @brief Vérifie un identifiant de session.
+     * @param id L'identifiant.
+     * @return L'emplacement de la session.
+     * @throws IllegalArgumentException Si la session n'existe pas ou a été fermée.
+     */
+    private int checkId(long id) {
+        int slot = (int) id;
+        if (!store.isAllocated(slot) || store.generation(slot) != (int) (id >>> 32)) {
+            throw new IllegalArgumentException("Session inconnue : " + id);
+        }
+        return slot;
+    }
+
+    /**
+     * @brief Donne accès à l'enregistrement d'une partie en sommeil.
+     * @param slot L'emplacement.
+     * @return Le tampon, positionné au début de l'enregistrement.
+     */
+    private ByteBuffer recordOf(int slot) {
+        ByteBuffer buffer = store.slot(slot);
+        buffer.position(SessionStore.RECORD_OFFSET);
+        return buffer;
+    }
+
+    /**
+     * @brief Arrête la mise en sommeil périodique et ferme le fichier. Les parties sont perdues.
+     * @throws IOException Si la fermeture du fichier échoue.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        for (Session session : live.values()) {
+            session.game.abandon();
+        }
+        live.clear();
+        store.close();
+    }
+
+    /**
+     * @brief Mesure la mémoire occupée par des parties actives puis en sommeil, et vérifie leur réveil.
+     * @param args [nombreDeParties] [fichier]
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("puissance4-sessions", ".bin");
+
+        try (SessionManager manager = new SessionManager(file, 0, null)) {
+            DifficultyProfile[] profiles = {DifficultyProfile.EASY, DifficultyProfile.MEDIUM,
+                    DifficultyProfile.HARD, DifficultyProfile.EXPERT};
+            Random random = new Random(1);
+            // Tableaux alloués avant la mesure de référence : seules les parties sont comptées.
+            long[] ids = new long[count];
+            long[] expected = new long[2 * count];
+            long baseline = usedHeap();
+            for (int i = 0; i < count; i++) {
+                // Parties Humain vs Humain : aucune recherche, seule la mémoire est mesurée.
+                long id = manager.createSession(true, profiles[i % profiles.length]);
+                Position position = null;
+                for (int move = 0; move < 8; move++) {
+                    position = manager.play(id, random.nextInt(6), random.nextInt(6));
+                }
+                ids[i] = id;
+                expected[2 * i] = position.getXMask();
+                expected[2 * i + 1] = position.getOMask();
+            }
+            long liveHeap = usedHeap() - baseline;
+            System.out.printf("%d parties actives : %,d octets de tas (%d par partie)%n", count, liveHeap, liveHeap / count);
+
+            long start = System.nanoTime();
+            manager.hibernateIdle(0);
+            long hibernateMillis = (System.nanoTime() - start) / 1_000_000;
+            long idleHeap = usedHeap() - baseline;
+            System.out.printf("%d parties en sommeil (%d ms) : %,d octets de tas (%d par partie), %,d octets projetés%n",
+                    manager.getHibernatedCount(), hibernateMillis, idleHeap, idleHeap / count, manager.store.getMappedBytes());
+
+            start = System.nanoTime();
+            int mismatches = 0;
+            for (int i = 0; i < count; i++) {
+                if (!sameMasks(manager.getPosition(ids[i]), expected, i)) {
+                    mismatches++;
+                }
+                // Un coup sur une case déjà occupée réveille la partie sans la modifier.
+                int first = manager.getMoveHistory(ids[i])[0];
+                if (!sameMasks(manager.play(ids[i], first / Constants.BOARD_SIZE, first % Constants.BOARD_SIZE), expected, i)) {
+                    mismatches++;
+                }
+            }
+            System.out.printf("réveil de %d parties : %d µs par partie, %d écarts%n",
+                    manager.getLiveCount(), (System.nanoTime() - start) / 1000 / count, mismatches);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @brief Compare une position aux masques attendus.
+     * @param position La position.
+     * @param expected Les masques 'X' et 'O' attendus, deux par partie.
+     * @param index L'indice de la partie.
+     * @return true si les pions sont identiques.
+     */
+    private static boolean sameMasks(Position position, long[] expected, int index) {
+        return position.getXMask() == expected[2 * index] && position.getOMask() == expected[2 * index + 1];
+    }
+
+    /**
+     * @brief Mesure le tas occupé après un ramasse-miettes.
+     * @return Le nombre d'octets utilisés.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * @file SessionStore.java
+ * @brief Stockage des parties en sommeil dans un fichier projeté en mémoire.
+ */
+
+package Puissance4.service;
+
+import Puissance4.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @class SessionStore
+ * @brief Emplacements de taille fixe dans un fichier projeté, un par session.
+ *
+ * Chaque emplacement contient un numéro de génération (4 octets, impair quand l'emplacement est
+ * attribué, incrémenté à chaque attribution et libération), puis
+ * l'enregistrement compact de la partie (Game.writeRecord) ; un octet de version nul signale une
+ * partie non enregistrée. Le fichier grandit par morceaux de CHUNK_SLOTS emplacements ; les pages
+ * projetées appartiennent au cache du système, pas au tas Java. Le fichier est vidé à l'ouverture :
+ * il prolonge la mémoire du processus, il ne sert pas de sauvegarde.
+ *
+ * N'est pas sûr pour un usage concurrent : SessionManager sérialise les accès.
+ */
+final class SessionStore implements AutoCloseable {
+    static final int SLOT_SIZE = 64; ///< Taille d'un emplacement en octets.
+    static final int RECORD_OFFSET = Integer.BYTES; ///< Position de l'enregistrement dans l'emplacement.
+    private static final int CHUNK_SLOTS = 16_384; ///< Emplacements par morceau projeté (1 Mo).
+
+    private final FileChannel channel; ///< Fichier du stockage.
+    private final List<MappedByteBuffer> chunks = new ArrayList<>(); ///< Morceaux projetés.
+    private int nextSlot; ///< Premier emplacement jamais utilisé.
+    private int[] freeSlots = new int[16]; ///< Pile des emplacements libérés.
+    private int freeCount; ///< Nombre d'emplacements libérés.
+
+    /**
+     * @brief Ouvre (et vide) le fichier du stockage.
+     * @param file Le fichier.
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    SessionStore(Path file) throws IOException {
+        if (Game.RECORD_SIZE > SLOT_SIZE - RECORD_OFFSET) {
+            throw new IllegalStateException("Emplacement trop petit pour l'enregistrement d'une partie");
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * @brief Réserve un emplacement ; sa génération devient impaire.
+     * @return L'emplacement.
+     * @throws IOException Si le fichier ne peut pas grandir.
+     */
+    int allocate() throws IOException {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = nextSlot++;
+            if (slot / CHUNK_SLOTS >= chunks.size()) {
+                long offset = (long) chunks.size() * CHUNK_SLOTS * SLOT_SIZE;
+                chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) CHUNK_SLOTS * SLOT_SIZE));
+            }
+        }
+        ByteBuffer buffer = slot(slot);
+        buffer.putInt(0, buffer.getInt(0) + 1);
+        buffer.put(RECORD_OFFSET, (byte) 0);
+        return slot;
+    }
+
+    /**
+     * @brief Libère un emplacement ; sa génération devient paire, ce qui invalide les anciens identifiants.
+     * @param slot L'emplacement.
+     */
+    void release(int slot) {
+        ByteBuffer buffer = slot(slot);
+        buffer.putInt(0, buffer.getInt(0) + 1);
+        buffer.put(RECORD_OFFSET, (byte) 0);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * @brief Indique si un emplacement a été attribué et n'est pas libre.
+     * @param slot L'emplacement.
+     * @return true si l'emplacement est en usage.
+     */
+    boolean isAllocated(int slot) {
+        return slot >= 0 && slot < nextSlot && (generation(slot) & 1) != 0;
+    }
+
+    /**
+     * @brief Récupère la génération d'un emplacement.
+     * @param slot L'emplacement.
+     * @return La génération.
+     */
+    int generation(int slot) {
+        return slot(slot).getInt(0);
+    }
+
+    /**
+     * @brief Donne accès à un emplacement.
+     * @param slot L'emplacement.
+     * @return Une vue de SLOT_SIZE octets, positionnée au début de l'emplacement.
+     */
+    ByteBuffer slot(int slot) {
+        MappedByteBuffer chunk = chunks.get(slot / CHUNK_SLOTS);
+        return chunk.slice((slot % CHUNK_SLOTS) * SLOT_SIZE, SLOT_SIZE);
+    }
+
+    /**
+     * @brief Récupère la taille du fichier utilisée par les emplacements attribués.
+     * @return Le nombre d'octets projetés.
+     */
+    long getMappedBytes() {
+        return (long) chunks.size() * CHUNK_SLOTS * SLOT_SIZE;
+    }
+
+    /**
+     * @brief Ferme le fichier. Les projections restent valides jusqu'à leur libération par le ramasse-miettes.
+     * @throws IOException Si la fermeture échoue.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * @file SpectatorHub.java
+ * @brief Diffusion des coups d'une partie à un grand nombre de spectateurs.
+ */
+
+package Puissance4.service;
+
+import Puissance4.Board;
+import Puissance4.Constants;
+import Puissance4.Game;
+import Puissance4.GameObserver;
+import Puissance4.MoveDiff;
+import Puissance4.Position;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @class SpectatorHub
+ * @brief Observe une partie et distribue ses coups à des spectateurs, sans coût par spectateur à la publication.
+ *
+ * Chaque coup est sérialisé une seule fois (MoveDiff) et rangé dans un anneau partagé de
+ * capacity coups. Un spectateur n'est qu'un curseur dans cet anneau : publier un coup ne touche
+ * aucun spectateur, et lire une trame ne copie pas d'octets. La file de chaque spectateur est donc
+ * bornée par la taille de l'anneau. Un spectateur en retard de plus de capacity coups ne bloque
+ * pas la partie : ses coups manquants sont remplacés par un instantané de la position courante,
+ * lui aussi sérialisé une seule fois pour tous les retardataires, puis il reprend au coup suivant.
+ * Un nouveau spectateur commence par cet instantané.
+ *
+ * La publication est sans verrou : le thread du coup range le MoveDiff dans l'anneau puis avance
+ * le numéro de tête (volatile). Un spectateur compare son curseur à la tête ; s'il est à jour,
+ * take() se gare par intervalles croissants (LockSupport.parkNanos) au lieu d'attendre un
+ * réveil, si bien que le joueur ne prend aucun verrou et ne réveille personne.
+ *
+ * Trames rendues par Spectator.poll(), en lecture seule et partagées entre tous les spectateurs :
+ * elles se lisent en accès absolu (get(int)), sans toucher à leur position.
+ * - coup : voir MoveDiff (MoveDiff.FRAME_MOVE, MoveDiff.ENCODED_SIZE octets) ;
+ * - instantané : FRAME_SNAPSHOT, numéro du dernier coup (nombre de pions), joueur au trait,
+ *   résultat, masques des pions 'X' et 'O' (SNAPSHOT_SIZE octets).
+ * applyFrame() reconstruit la position d'un spectateur à partir de ces trames.
+ */
+public class SpectatorHub implements GameObserver, AutoCloseable {
+    public static final byte FRAME_SNAPSHOT = 2; ///< Type de trame d'un instantané.
+    public static final int SNAPSHOT_SIZE = 4 + 2 * Long.BYTES; ///< Taille d'un instantané, en octets.
+
+    private static final long MIN_PARK_NANOS = 10_000; ///< Première attente d'un spectateur à jour (10 µs).
+    private static final long MAX_PARK_NANOS = 1_000_000; ///< Attente maximale entre deux vérifications (1 ms).
+
+    private final Game game; ///< Partie observée.
+    private final AtomicReferenceArray<MoveDiff> ring; ///< Derniers coups, indexés par numéro de coup modulo la capacité.
+    private final Position initial; ///< Position à la création du diffuseur.
+    private volatile int head; ///< Numéro du dernier coup publié ; écrit après le coup dans l'anneau.
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(); ///< Dernier instantané sérialisé.
+    private final AtomicInteger spectators = new AtomicInteger(); ///< Nombre de spectateurs abonnés.
+    private final LongAdder snapshotsSent = new LongAdder(); ///< Nombre d'instantanés remis (abonnements et retards).
+    private volatile boolean closed; ///< Indique si la diffusion est terminée.
+
+    /**
+     * @class Snapshot
+     * @brief Instantané sérialisé de la position après un coup donné.
+     */
+    private static final class Snapshot {
+        final int ply; ///< Numéro du coup de la position.
+        final ByteBuffer frame; ///< Trame en lecture seule.
+
+        /**
+         * @brief Constructeur de la classe Snapshot : sérialise la position.
+         * @param ply Le numéro du coup.
+         * @param position La position après ce coup.
+         */
+        Snapshot(int ply, Position position) {
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_SIZE);
+            buffer.put(FRAME_SNAPSHOT)
+                    .put((byte) ply)
+                    .put((byte) position.getSideToMove())
+                    .put((byte) MoveDiff.resultOf(position))
+                    .putLong(position.getXMask())
+                    .putLong(position.getOMask());
+            buffer.flip();
+            this.ply = ply;
+            this.frame = buffer.asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * @class Spectator
+     * @brief Curseur d'un spectateur dans l'anneau des coups.
+     *
+     * Un spectateur est lu par un seul thread à la fois.
+     */
+    public final class Spectator implements AutoCloseable {
+        private int next = -1; ///< Numéro du prochain coup à remettre (-1 : instantané d'abord).
+        private volatile long snapshots; ///< Nombre d'instantanés reçus.
+        private volatile boolean open = true; ///< Indique si le spectateur est abonné.
+
+        /**
+         * @brief Constructeur privé : utiliser SpectatorHub.subscribe().
+         */
+        private Spectator() {
+        }
+
+        /**
+         * @brief Récupère la trame suivante sans attendre.
+         * @return La trame, ou null si le spectateur est à jour ou désabonné.
+         */
+        public ByteBuffer poll() {
+            if (!open) {
+                return null;
+            }
+            while (true) {
+                int last = head;
+                if (next >= 0 && next > last) {
+                    return null;
+                }
+                if (next >= 0) {
+                    MoveDiff diff = ring.get(next % ring.length());
+                    if (diff != null && diff.getPly() == next) {
+                        next++;
+                        return diff.getEncoded();
+                    }
+                }
+                // Abonnement, retard plus grand que l'anneau ou trou : instantané, puis reprise au coup suivant.
+                Snapshot current = snapshotAt(last);
+                if (current != null) {
+                    next = current.ply + 1;
+                    snapshots++;
+                    snapshotsSent.increment();
+                    return current.frame;
+                }
+                // La tête a fait le tour de l'anneau pendant la lecture : recommencer avec la nouvelle tête.
+            }
+        }
+
+        /**
+         * @brief Récupère la trame suivante, en attendant un coup si le spectateur est à jour.
+         *
+         * L'attente se fait par intervalles de 10 µs à 1 ms, sans verrou ni réveil par le joueur.
+         * @param timeout La durée maximale d'attente.
+         * @param unit L'unité de timeout.
+         * @return La trame, ou null si le délai expire ou si la diffusion est terminée.
+         * @throws InterruptedException Si le thread est interrompu pendant l'attente.
+         */
+        public ByteBuffer take(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            long park = MIN_PARK_NANOS;
+            ByteBuffer frame;
+            while ((frame = poll()) == null && !closed && open) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(Math.min(park, remaining));
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                park = Math.min(park * 2, MAX_PARK_NANOS);
+            }
+            return frame;
+        }
+
+        /**
+         * @brief Récupère le nombre d'instantanés reçus par ce spectateur.
+         * @return 1 pour l'abonnement, plus un par décrochage.
+         */
+        public long getSnapshotCount() {
+            return snapshots;
+        }
+
+        /**
+         * @brief Désabonne le spectateur.
+         */
+        @Override
+        public void close() {
+            if (open) {
+                open = false;
+                spectators.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @brief Constructeur de la classe SpectatorHub : s'abonne aux coups de la partie.
+     *
+     * Un coup joué entre la lecture de la position et l'abonnement laisse un trou dans la
+     * numérotation : les spectateurs le rattrapent par un instantané.
+     * @param game La partie à diffuser.
+     * @param capacity Le nombre de coups gardés pour les spectateurs en retard.
+     * @throws IllegalArgumentException Si capacity n'est pas strictement positive.
+     */
+    public SpectatorHub(Game game, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        this.game = game;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.initial = game.getPosition();
+        this.head = initial.getPieceCount();
+        game.addObserver(this);
+    }
+
+    /**
+     * @brief Abonne un nouveau spectateur ; sa première trame est un instantané.
+     * @return Le spectateur.
+     */
+    public Spectator subscribe() {
+        spectators.incrementAndGet();
+        return new Spectator();
+    }
+
+    /**
+     * @brief Range un coup dans l'anneau puis avance la tête, sans verrou ni réveil.
+     *
+     * Les coups d'une partie sont publiés par un seul thread à la fois.
+     * @param diff Le coup.
+     */
+    @Override
+    public void onMove(MoveDiff diff) {
+        int ply = diff.getPly();
+        if (ply <= head) {
+            return;
+        }
+        ring.set(ply % ring.length(), diff);
+        head = ply;
+    }
+
+    /**
+     * @brief Récupère l'instantané de la position après un coup, sérialisé une seule fois pour tous les spectateurs.
+     * @param ply Le numéro du coup, lu dans la tête.
+     * @return L'instantané, ou null si ce coup a déjà quitté l'anneau.
+     */
+    private Snapshot snapshotAt(int ply) {
+        Snapshot current = snapshot.get();
+        if (current != null && current.ply == ply) {
+            return current;
+        }
+        Position position;
+        MoveDiff diff = ring.get(ply % ring.length());
+        if (diff != null && diff.getPly() == ply) {
+            position = diff.getPosition();
+        } else if (ply == initial.getPieceCount()) {
+            position = initial;
+        } else {
+            return null;
+        }
+        Snapshot fresh = new Snapshot(ply, position);
+        // Deux lecteurs peuvent sérialiser la même position ; le plus récent des instantanés est gardé.
+        while (current == null || current.ply < ply) {
+            if (snapshot.compareAndSet(current, fresh)) {
+                return fresh;
+            }
+            current = snapshot.get();
+        }
+        return current.ply == ply ? current : fresh;
+    }
+
+    /**
+     * @brief Applique une trame à la position connue d'un spectateur.
+     * @param position La position connue, ou null avant le premier instantané.
+     * @param frame La trame, lue en accès absolu : sa position n'est pas modifiée.
+     * @return La position après la trame.
+     * @throws IllegalArgumentException Si la trame est inconnue ou si un coup arrive avant le premier instantané.
+     */
+    public static Position applyFrame(Position position, ByteBuffer frame) {
+        byte type = frame.get(0);
+        if (type == FRAME_SNAPSHOT) {
+            char sideToMove = (char) frame.get(2);
+            long xMask = frame.getLong(4);
+            long oMask = frame.getLong(4 + Long.BYTES);
+            return new Position(xMask, oMask, sideToMove);
+        }
+        if (type != MoveDiff.FRAME_MOVE || position == null) {
+            throw new IllegalArgumentException("Trame inattendue : " + type);
+        }
+        int cell = frame.get(2);
+        return position.play(cell / Constants.BOARD_SIZE, cell % Constants.BOARD_SIZE);
+    }
+
+    /**
+     * @brief Récupère le nombre de spectateurs abonnés.
+     * @return Le nombre de spectateurs.
+     */
+    public int getSpectatorCount() {
+        return spectators.get();
+    }
+
+    /**
+     * @brief Récupère le nombre d'instantanés remis depuis la création du diffuseur.
+     * @return Le nombre d'instantanés.
+     */
+    public long getSnapshotCount() {
+        return snapshotsSent.sum();
+    }
+
+    /**
+     * @brief Termine la diffusion : le diffuseur se désabonne de la partie.
+     *
+     * Les trames déjà publiées restent lisibles ; les spectateurs en attente le voient à leur
+     * prochaine vérification.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            game.removeObserver(this);
+        }
+    }
+
+    /**
+     * @brief Diffuse une partie aléatoire à de nombreux spectateurs, dont certains lents, et vérifie leurs positions.
+     *
+     * Chaque spectateur lit son instantané d'abonnement avant le premier coup. Un spectateur lent
+     * qui laisse passer plus de coups que la capacité de l'anneau reçoit ensuite un instantané de
+     * rattrapage : les valeurs par défaut (intervalle plus grand que la capacité) exercent ce cas.
+     * @param args [nombreDeSpectateurs] [capacité] [intervalleDesLents]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int slowEvery = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+
+        Game game = new Game(new Board(), null, true);
+        try (SpectatorHub hub = new SpectatorHub(game, capacity)) {
+            Spectator[] spectators = new Spectator[count];
+            Position[] views = new Position[count];
+            long frames = 0;
+            for (int i = 0; i < count; i++) {
+                spectators[i] = hub.subscribe();
+                frames += drain(spectators[i], views, i);
+            }
+
+            Random random = new Random(1);
+            long publishNanos = 0;
+            int moves = 0;
+            while (!game.isGameOver()) {
+                int row = random.nextInt(Constants.BOARD_SIZE);
+                int col = random.nextInt(Constants.BOARD_SIZE);
+                if (!game.getPosition().isEmpty(row, col)) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                game.handleCellClick(row, col);
+                publishNanos += System.nanoTime() - start;
+                moves++;
+
+                // Les trois quarts des spectateurs lisent après chaque coup, les autres tous les slowEvery coups.
+                for (int i = 0; i < count; i++) {
+                    if (i % 4 != 3 || moves % slowEvery == 0) {
+                        frames += drain(spectators[i], views, i);
+                    }
+                }
+            }
+
+            int mismatches = 0;
+            for (int i = 0; i < count; i++) {
+                frames += drain(spectators[i], views, i);
+                if (!game.getPosition().equals(views[i])) {
+                    mismatches++;
+                }
+            }
+            System.out.printf("%d coups diffusés à %d spectateurs : %.1f µs par coup (partie comprise)%n",
+                    moves, count, publishNanos / 1e3 / moves);
+            System.out.printf("%d trames lues, %d instantanés (%d abonnements, %d rattrapages de retard), %d positions différentes%n",
+                    frames, hub.getSnapshotCount(), count, hub.getSnapshotCount() - count, mismatches);
+        }
+    }
+
+    /**
+     * @brief Lit toutes les trames disponibles d'un spectateur et les applique à sa position.
+     * @param spectator Le spectateur.
+     * @param views Les positions des spectateurs.
+     * @param index L'indice du spectateur.
+     * @return Le nombre de trames lues.
+     */
+    private static int drain(Spectator spectator, Position[] views, int index) {
+        int frames = 0;
+        ByteBuffer frame;
+        while ((frame = spectator.poll()) != null) {
+            views[index] = applyFrame(views[index], frame);
+            frames++;
+        }
+        return frames;
+    }
+}
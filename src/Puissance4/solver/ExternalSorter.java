@@ -0,0 +1,172 @@
+/**
+ * @file ExternalSorter.java
+ * @brief Tri externe de grands ensembles d'entiers longs.
+ */
+
+package Puissance4.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * @class ExternalSorter
+ * @brief Trie et dédoublonne des valeurs longues qui ne tiennent pas en mémoire.
+ *
+ * Les valeurs sont accumulées dans un tampon de taille fixe. Chaque tampon plein est trié
+ * et écrit sur disque, puis les morceaux sont fusionnés en un seul fichier trié sans doublons.
+ */
+final class ExternalSorter {
+    private static final int IO_BUFFER = 1 << 16; ///< Taille des tampons d'entrée/sortie.
+
+    private final Path tempDir; ///< Répertoire des fichiers temporaires.
+    private final long[] chunk; ///< Tampon en mémoire.
+    private int size; ///< Nombre de valeurs dans le tampon.
+    private final List<Path> spilled = new ArrayList<>(); ///< Morceaux triés écrits sur disque.
+
+    /**
+     * @brief Constructeur de la classe ExternalSorter.
+     * @param tempDir Répertoire des fichiers temporaires.
+     * @param chunkSize Nombre de valeurs gardées en mémoire avant écriture sur disque.
+     */
+    ExternalSorter(Path tempDir, int chunkSize) {
+        this.tempDir = tempDir;
+        this.chunk = new long[chunkSize];
+    }
+
+    /**
+     * @brief Ajoute une valeur à trier.
+     * @param value La valeur.
+     * @throws IOException En cas d'erreur d'écriture d'un morceau.
+     */
+    void add(long value) throws IOException {
+        if (size == chunk.length) {
+            spill();
+        }
+        chunk[size++] = value;
+    }
+
+    /**
+     * @brief Termine le tri et écrit le résultat.
+     * @param output Fichier recevant les valeurs triées et dédoublonnées (8 octets par valeur).
+     * @return Le nombre de valeurs écrites.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    long finish(Path output) throws IOException {
+        if (spilled.isEmpty()) {
+            return writeChunk(output);
+        }
+        if (size > 0) {
+            spill();
+        }
+
+        long count = 0;
+        List<DataInputStream> inputs = new ArrayList<>();
+        try (DataOutputStream out = openOutput(output)) {
+            // File de priorité des têtes de morceaux : {valeur, indice du morceau}.
+            PriorityQueue<long[]> heads = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            for (Path path : spilled) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER));
+                inputs.add(in);
+                offerNext(heads, in, inputs.size() - 1);
+            }
+
+            boolean first = true;
+            long last = 0;
+            while (!heads.isEmpty()) {
+                long[] head = heads.poll();
+                if (first || head[0] != last) {
+                    out.writeLong(head[0]);
+                    last = head[0];
+                    first = false;
+                    count++;
+                }
+                offerNext(heads, inputs.get((int) head[1]), (int) head[1]);
+            }
+        } finally {
+            for (DataInputStream in : inputs) {
+                in.close();
+            }
+            for (Path path : spilled) {
+                Files.deleteIfExists(path);
+            }
+            spilled.clear();
+        }
+        return count;
+    }
+
+    /**
+     * @brief Lit la valeur suivante d'un morceau et l'ajoute à la file.
+     * @param heads La file de priorité.
+     * @param in Le flux du morceau.
+     * @param index L'indice du morceau.
+     * @throws IOException En cas d'erreur de lecture.
+     */
+    private static void offerNext(PriorityQueue<long[]> heads, DataInputStream in, int index) throws IOException {
+        try {
+            heads.add(new long[]{in.readLong(), index});
+        } catch (EOFException e) {
+            // Morceau épuisé.
+        }
+    }
+
+    /**
+     * @brief Trie le tampon courant et l'écrit dans un fichier temporaire.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    private void spill() throws IOException {
+        Path path = Files.createTempFile(tempDir, "chunk", ".bin");
+        writeChunk(path);
+        spilled.add(path);
+    }
+
+    /**
+     * @brief Trie le tampon courant, l'écrit sans doublons et le vide.
+     * @param path Le fichier de destination.
+     * @return Le nombre de valeurs écrites.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    private long writeChunk(Path path) throws IOException {
+        Arrays.sort(chunk, 0, size);
+        long count = 0;
+        try (DataOutputStream out = openOutput(path)) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || chunk[i] != chunk[i - 1]) {
+                    out.writeLong(chunk[i]);
+                    count++;
+                }
+            }
+        }
+        size = 0;
+        return count;
+    }
+
+    /**
+     * @brief Ouvre un flux d'écriture tamponné.
+     * @param path Le fichier de destination.
+     * @return Le flux.
+     * @throws IOException En cas d'erreur d'ouverture.
+     */
+    static DataOutputStream openOutput(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), IO_BUFFER));
+    }
+
+    /**
+     * @brief Ouvre un flux de lecture tamponné.
+     * @param path Le fichier source.
+     * @return Le flux.
+     * @throws IOException En cas d'erreur d'ouverture.
+     */
+    static DataInputStream openInput(Path path) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER));
+    }
+}
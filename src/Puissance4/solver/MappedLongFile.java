@@ -0,0 +1,109 @@
+/**
+ * @file MappedLongFile.java
+ * @brief Accès en lecture à un fichier d'entiers longs projeté en mémoire.
+ */
+
+package Puissance4.solver;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @class MappedLongFile
+ * @brief Tableau d'entiers longs triés lu directement depuis un fichier projeté en mémoire.
+ *
+ * Le fichier est découpé en segments de 1 Go pour dépasser la limite de 2 Go d'un MappedByteBuffer.
+ */
+final class MappedLongFile {
+    private static final int SEGMENT_SHIFT = 27; ///< 2^27 valeurs (1 Go) par segment.
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1; ///< Masque de l'indice dans un segment.
+
+    private final LongBuffer[] segments; ///< Segments projetés.
+    private final long size; ///< Nombre de valeurs.
+
+    /**
+     * @brief Projette une partie d'un fichier en mémoire.
+     * @param path Le fichier.
+     * @param offset Position (en octets) de la première valeur.
+     * @param size Nombre de valeurs.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    MappedLongFile(Path path, long offset, long size) throws IOException {
+        this.size = size;
+        int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        segments = new LongBuffer[count];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < count; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(size - first, 1L << SEGMENT_SHIFT);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * Long.BYTES, length * Long.BYTES);
+                segments[i] = buffer.order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+            }
+        }
+    }
+
+    /**
+     * @brief Projette tout un fichier de valeurs en mémoire.
+     * @param path Le fichier.
+     * @return Le tableau projeté.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    static MappedLongFile open(Path path) throws IOException {
+        return new MappedLongFile(path, 0, java.nio.file.Files.size(path) / Long.BYTES);
+    }
+
+    /**
+     * @brief Récupère une valeur.
+     * @param index L'indice de la valeur.
+     * @return La valeur.
+     */
+    long get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    /**
+     * @brief Récupère le nombre de valeurs.
+     * @return Le nombre de valeurs.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @brief Recherche dichotomique d'une clé dans un tableau de valeurs (clé << shift | données).
+     * @param key La clé cherchée.
+     * @param shift Nombre de bits de données sous la clé.
+     * @return L'indice de la valeur portant cette clé, ou -1 si elle est absente.
+     */
+    long indexOf(long key, int shift) {
+        return indexOf(key, shift, 0, size - 1);
+    }
+
+    /**
+     * @brief Recherche dichotomique d'une clé entre deux indices.
+     * @param key La clé cherchée.
+     * @param shift Nombre de bits de données sous la clé.
+     * @param low Premier indice possible.
+     * @param high Dernier indice possible.
+     * @return L'indice de la valeur portant cette clé, ou -1 si elle est absente.
+     */
+    long indexOf(long key, int shift, long low, long high) {
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long value = get(mid) >>> shift;
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * @file PositionDatabase.java
+ * @brief Base de positions résolues, projetée en mémoire et interrogeable par l'IA.
+ */
+
+package Puissance4.solver;
+
+import Puissance4.Board;
+import Puissance4.Constants;
+import Puissance4.Position;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @class PositionDatabase
+ * @brief Base de données des résultats exacts calculés par le RetrogradeSolver.
+ *
+ * Format du fichier : un en-tête (magique, version, taille du plateau, nombre maximal de pions,
+ * nombre d'entrées) suivi des entrées triées, chacune codée sur un long (clé canonique << 2 | résultat).
+ * Seules les positions dont le résultat est connu sont stockées. Le résultat est donné
+ * du point de vue du joueur qui doit jouer.
+ */
+public final class PositionDatabase {
+    public static final int UNKNOWN = 0; ///< Résultat inconnu (position absente de la base).
+    public static final int WIN = 1; ///< Le joueur qui doit jouer gagne.
+    public static final int LOSS = 2; ///< Le joueur qui doit jouer perd.
+    public static final int DRAW = 3; ///< Match nul.
+
+    static final int RESULT_BITS = 2; ///< Nombre de bits du résultat dans une entrée.
+    private static final int MAGIC = 0x50344442; ///< "P4DB".
+    private static final int VERSION = 1; ///< Version du format.
+    private static final int HEADER_SIZE = 24; ///< Taille de l'en-tête en octets.
+    private static final int INDEX_SHIFT = 12; ///< Une entrée d'index toutes les 4096 entrées.
+
+    private final MappedLongFile entries; ///< Entrées projetées en mémoire.
+    private final long[] index; ///< Première clé de chaque bloc, gardée en mémoire.
+    private final int maxPieces; ///< Nombre maximal de pions des positions résolues.
+
+    /**
+     * @brief Constructeur privé, utiliser open().
+     * @param entries Les entrées projetées.
+     * @param maxPieces Nombre maximal de pions des positions résolues.
+     */
+    private PositionDatabase(MappedLongFile entries, int maxPieces) {
+        this.entries = entries;
+        this.maxPieces = maxPieces;
+
+        int blocks = (int) ((entries.size() + (1L << INDEX_SHIFT) - 1) >>> INDEX_SHIFT);
+        index = new long[blocks];
+        for (int i = 0; i < blocks; i++) {
+            index[i] = entries.get((long) i << INDEX_SHIFT) >>> RESULT_BITS;
+        }
+    }
+
+    /**
+     * @brief Ouvre une base de positions.
+     * @param path Le fichier de la base.
+     * @return La base ouverte.
+     * @throws IOException Si le fichier est illisible ou ne correspond pas à ce plateau.
+     */
+    public static PositionDatabase open(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Lecture de l'en-tête complet.
+            }
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Fichier de base de positions invalide : " + path);
+        }
+        if (header.getInt() != Constants.BOARD_SIZE) {
+            throw new IOException("La base de positions ne correspond pas à la taille du plateau : " + path);
+        }
+        int maxPieces = header.getInt();
+        long count = header.getLong();
+        return new PositionDatabase(new MappedLongFile(path, HEADER_SIZE, count), maxPieces);
+    }
+
+    /**
+     * @brief Écrit une base de positions à partir d'un fichier d'entrées triées.
+     * @param output Le fichier de la base.
+     * @param sortedEntries Les entrées triées (clé << 2 | résultat).
+     * @param count Le nombre d'entrées.
+     * @param maxPieces Nombre maximal de pions des positions résolues.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    static void write(Path output, Path sortedEntries, long count, int maxPieces) throws IOException {
+        try (DataOutputStream out = ExternalSorter.openOutput(output);
+             DataInputStream in = ExternalSorter.openInput(sortedEntries)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(Constants.BOARD_SIZE);
+            out.writeInt(maxPieces);
+            out.writeLong(count);
+            for (long i = 0; i < count; i++) {
+                out.writeLong(in.readLong());
+            }
+        }
+    }
+
+    /**
+     * @brief Cherche le résultat exact d'une position.
+     * @param board Le plateau.
+     * @param sideToMove Le symbole du joueur qui doit jouer ('X' ou 'O').
+     * @return WIN, LOSS ou DRAW pour le joueur qui doit jouer, ou UNKNOWN si la position n'est pas résolue.
+     */
+    public int probe(Board board, char sideToMove) {
+        return probe(Position.fromBoard(board, sideToMove));
+    }
+
+    /**
+     * @brief Cherche le résultat exact d'une position immuable.
+     * @param position La position.
+     * @return WIN, LOSS ou DRAW pour le joueur qui doit jouer, ou UNKNOWN si la position n'est pas résolue.
+     */
+    public int probe(Position position) {
+        if (position.getPieceCount() > maxPieces || index.length == 0) {
+            return UNKNOWN;
+        }
+
+        long key = PositionKeys.canonicalKey(position);
+
+        // Recherche du bloc dans l'index en mémoire, puis dans le bloc projeté.
+        int low = 0;
+        int high = index.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (index[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        long first = (long) low << INDEX_SHIFT;
+        long last = Math.min(entries.size(), first + (1L << INDEX_SHIFT)) - 1;
+        long found = entries.indexOf(key, RESULT_BITS, first, last);
+        return found < 0 ? UNKNOWN : (int) (entries.get(found) & ((1 << RESULT_BITS) - 1));
+    }
+
+    /**
+     * @brief Récupère le nombre maximal de pions des positions résolues.
+     * @return Le nombre de pions.
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * @brief Récupère le nombre de positions stockées.
+     * @return Le nombre d'entrées.
+     */
+    public long size() {
+        return entries.size();
+    }
+}
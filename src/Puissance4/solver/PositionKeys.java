@@ -0,0 +1,174 @@
+/**
+ * @file PositionKeys.java
+ * @brief Encodage des positions en clés canoniques pour le solveur rétrograde.
+ */
+
+package Puissance4.solver;
+
+import Puissance4.Constants;
+import Puissance4.Lines;
+import Puissance4.Position;
+
+/**
+ * @class PositionKeys
+ * @brief Convertit une position en clé entière, réduite par les symétries du plateau.
+ *
+ * Une position est un tableau de cases (0 = vide, 1 = 'X', 2 = 'O') et le joueur qui doit jouer.
+ * La clé vaut (somme des cases * 3^case) * 2 + trait, avec trait = 0 pour 'X' et 1 pour 'O'.
+ * C'est le code de PositionCodec ; la clé canonique est le plus petit code parmi les 8 symétries du carré.
+ * Comme ce code, la clé n'admet que Lines.MAX_CODED_CELLS cases (6x6 au plus).
+ */
+final class PositionKeys {
+    static final int CELLS = Lines.CELL_COUNT; ///< Nombre de cases.
+    static final byte EMPTY = 0; ///< Case vide.
+    static final byte X = 1; ///< Case occupée par 'X'.
+    static final byte O = 2; ///< Case occupée par 'O'.
+
+    private static final long[] POWERS = createPowers(); ///< Puissances de 3 par case.
+    private static final int[][] SYMMETRIES = createSymmetries(); ///< Permutations des 8 symétries du carré.
+
+    static {
+        if (CELLS > Lines.MAX_CODED_CELLS) {
+            throw new IllegalStateException("Plateau " + Constants.BOARD_SIZE + "x" + Constants.BOARD_SIZE
+                    + " trop grand pour les clés de 64 bits (6x6 au plus)");
+        }
+    }
+
+    /**
+     * @brief Constructeur privé : classe utilitaire.
+     */
+    private PositionKeys() {
+    }
+
+    /**
+     * @brief Calcule la clé canonique d'une position.
+     * @param cells Les cases de la position.
+     * @param side Le joueur qui doit jouer (X ou O).
+     * @return La plus petite clé parmi les positions symétriques.
+     */
+    static long canonicalKey(byte[] cells, byte side) {
+        long best = Long.MAX_VALUE;
+        for (int[] symmetry : SYMMETRIES) {
+            long code = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                code += cells[cell] * POWERS[symmetry[cell]];
+            }
+            best = Math.min(best, code);
+        }
+        return best * 2 + (side == O ? 1 : 0);
+    }
+
+    /**
+     * @brief Calcule la clé canonique d'une position immuable.
+     * @param position La position (le joueur qui doit jouer en fait partie).
+     * @return La clé canonique.
+     */
+    static long canonicalKey(Position position) {
+        byte[] cells = new byte[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            long bit = 1L << cell;
+            cells[cell] = (position.getXMask() & bit) != 0 ? X : (position.getOMask() & bit) != 0 ? O : EMPTY;
+        }
+        return canonicalKey(cells, position.getSideToMove() == 'O' ? O : X);
+    }
+
+    /**
+     * @brief Décode une clé dans un tableau de cases.
+     * @param key La clé à décoder.
+     * @param cells Le tableau recevant les cases.
+     * @return Le joueur qui doit jouer (X ou O).
+     */
+    static byte decode(long key, byte[] cells) {
+        byte side = (key & 1) == 0 ? X : O;
+        long code = key >>> 1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            cells[cell] = (byte) (code % 3);
+            code /= 3;
+        }
+        return side;
+    }
+
+    /**
+     * @brief Vérifie si un joueur possède un alignement de 4 pions.
+     * @param cells Les cases de la position.
+     * @param piece Le joueur (X ou O).
+     * @return true si le joueur a gagné.
+     */
+    static boolean hasWon(byte[] cells, byte piece) {
+        for (int[] window : Lines.WINDOWS) {
+            if (cells[window[0]] == piece && cells[window[1]] == piece
+                    && cells[window[2]] == piece && cells[window[3]] == piece) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Vérifie si jouer dans une case donne la victoire.
+     * @param cells Les cases de la position (la case doit être vide).
+     * @param cell La case jouée.
+     * @param piece Le joueur (X ou O).
+     * @return true si le coup complète un alignement.
+     */
+    static boolean isWinningMove(byte[] cells, int cell, byte piece) {
+        for (int w : Lines.CELL_WINDOWS[cell]) {
+            int count = 0;
+            for (int other : Lines.WINDOWS[w]) {
+                if (other == cell || cells[other] == piece) {
+                    count++;
+                }
+            }
+            if (count == 4) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @brief Retourne l'adversaire d'un joueur.
+     * @param side Le joueur (X ou O).
+     * @return L'autre joueur.
+     */
+    static byte opponent(byte side) {
+        return side == X ? O : X;
+    }
+
+    /**
+     * @brief Calcule les puissances de 3 associées à chaque case.
+     * @return Le tableau des puissances.
+     */
+    private static long[] createPowers() {
+        long[] powers = new long[CELLS];
+        long power = 1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            powers[cell] = power;
+            power *= 3;
+        }
+        return powers;
+    }
+
+    /**
+     * @brief Calcule les permutations des cases pour les 8 symétries du carré (rotations et réflexions).
+     * @return Pour chaque symétrie, la case d'arrivée de chaque case.
+     */
+    private static int[][] createSymmetries() {
+        int n = Constants.BOARD_SIZE;
+        int[][] symmetries = new int[8][CELLS];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                int cell = row * n + col;
+                symmetries[0][cell] = row * n + col;
+                symmetries[1][cell] = col * n + (n - 1 - row);
+                symmetries[2][cell] = (n - 1 - row) * n + (n - 1 - col);
+                symmetries[3][cell] = (n - 1 - col) * n + row;
+                symmetries[4][cell] = row * n + (n - 1 - col);
+                symmetries[5][cell] = (n - 1 - row) * n + col;
+                symmetries[6][cell] = col * n + row;
+                symmetries[7][cell] = (n - 1 - col) * n + (n - 1 - row);
+            }
+        }
+        return symmetries;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * @file RetrogradeSolver.java
+ * @brief Solveur hors ligne qui calcule les résultats exacts des positions de début de partie.
+ */
+
+package Puissance4.solver;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @class RetrogradeSolver
+ * @brief Énumère les positions jusqu'à un nombre de pions donné et les résout à rebours.
+ *
+ * Les positions sont énumérées couche par couche (une couche par nombre de pions), réduites
+ * par les symétries du plateau et dédoublonnées par tri externe. Chaque couche est ensuite
+ * résolue à partir de la suivante, de la dernière à la première :
+ * - une position terminale est perdue (l'adversaire vient d'aligner 4 pions) ou nulle (plateau plein) ;
+ * - sur la dernière couche, seuls les cas tactiques exacts sont résolus : victoire immédiate,
+ *   ou défaite face à deux menaces adverses impossibles à parer ensemble ;
+ * - ailleurs, une position est gagnée si un coup mène à une position perdue pour l'adversaire,
+ *   perdue si tous les coups mènent à une position gagnée pour lui.
+ * Les positions non résolues ne sont pas stockées dans la base.
+ */
+public final class RetrogradeSolver {
+    private final int maxPieces; ///< Nombre maximal de pions énumérés.
+    private final int chunkSize; ///< Nombre de positions gardées en mémoire avant écriture sur disque.
+    private final Path tempDir; ///< Répertoire des fichiers temporaires.
+
+    /**
+     * @brief Constructeur de la classe RetrogradeSolver.
+     * @param maxPieces Nombre maximal de pions énumérés.
+     * @param chunkSize Nombre de positions gardées en mémoire avant écriture sur disque.
+     * @param tempDir Répertoire des fichiers temporaires.
+     */
+    public RetrogradeSolver(int maxPieces, int chunkSize, Path tempDir) {
+        if (maxPieces < 0 || maxPieces > PositionKeys.CELLS) {
+            throw new IllegalArgumentException("Nombre de pions invalide : " + maxPieces);
+        }
+        this.maxPieces = maxPieces;
+        this.chunkSize = chunkSize;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * @brief Résout toutes les positions et écrit la base de données.
+     * @param output Le fichier de la base.
+     * @return Le nombre de positions résolues.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    public long solve(Path output) throws IOException {
+        Path[] layers = new Path[maxPieces + 1];
+
+        // Couche 0 : plateau vide, chacun des deux joueurs peut commencer.
+        ExternalSorter start = new ExternalSorter(tempDir, chunkSize);
+        byte[] empty = new byte[PositionKeys.CELLS];
+        start.add(PositionKeys.canonicalKey(empty, PositionKeys.X));
+        start.add(PositionKeys.canonicalKey(empty, PositionKeys.O));
+        layers[0] = Files.createTempFile(tempDir, "layer0-", ".bin");
+        start.finish(layers[0]);
+
+        for (int pieces = 0; pieces < maxPieces; pieces++) {
+            layers[pieces + 1] = Files.createTempFile(tempDir, "layer" + (pieces + 1) + "-", ".bin");
+            long count = expand(layers[pieces], layers[pieces + 1]);
+            System.out.println("Couche " + (pieces + 1) + " : " + count + " positions");
+        }
+
+        ExternalSorter database = new ExternalSorter(tempDir, chunkSize);
+        Path next = null;
+        for (int pieces = maxPieces; pieces >= 0; pieces--) {
+            Path solved = Files.createTempFile(tempDir, "solved" + pieces + "-", ".bin");
+            MappedLongFile children = next == null ? null : MappedLongFile.open(next);
+            long resolved = solveLayer(layers[pieces], children, solved, database);
+            System.out.println("Couche " + pieces + " : " + resolved + " positions résolues");
+
+            Files.deleteIfExists(layers[pieces]);
+            if (next != null) {
+                Files.deleteIfExists(next);
+            }
+            next = solved;
+        }
+        Files.deleteIfExists(next);
+
+        Path entries = Files.createTempFile(tempDir, "entries-", ".bin");
+        try {
+            long count = database.finish(entries);
+            PositionDatabase.write(output, entries, count, maxPieces);
+            return count;
+        } finally {
+            Files.deleteIfExists(entries);
+        }
+    }
+
+    /**
+     * @brief Génère la couche suivante à partir des positions non terminales d'une couche.
+     * @param layer Le fichier des clés de la couche.
+     * @param output Le fichier recevant les clés de la couche suivante.
+     * @return Le nombre de positions de la couche suivante.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    private long expand(Path layer, Path output) throws IOException {
+        ExternalSorter sorter = new ExternalSorter(tempDir, chunkSize);
+        byte[] cells = new byte[PositionKeys.CELLS];
+        long count = Files.size(layer) / Long.BYTES;
+
+        try (DataInputStream in = ExternalSorter.openInput(layer)) {
+            for (long i = 0; i < count; i++) {
+                byte side = PositionKeys.decode(in.readLong(), cells);
+                if (isTerminal(cells)) {
+                    continue;
+                }
+
+                byte opponent = PositionKeys.opponent(side);
+                for (int cell = 0; cell < PositionKeys.CELLS; cell++) {
+                    if (cells[cell] == PositionKeys.EMPTY) {
+                        cells[cell] = side;
+                        sorter.add(PositionKeys.canonicalKey(cells, opponent));
+                        cells[cell] = PositionKeys.EMPTY;
+                    }
+                }
+            }
+        }
+        return sorter.finish(output);
+    }
+
+    /**
+     * @brief Résout toutes les positions d'une couche.
+     * @param layer Le fichier des clés de la couche.
+     * @param children Les résultats de la couche suivante, ou null pour la dernière couche.
+     * @param output Le fichier recevant les résultats de la couche (clé << 2 | résultat).
+     * @param database Le tri recevant les positions résolues.
+     * @return Le nombre de positions résolues.
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    private long solveLayer(Path layer, MappedLongFile children, Path output, ExternalSorter database) throws IOException {
+        byte[] cells = new byte[PositionKeys.CELLS];
+        long count = Files.size(layer) / Long.BYTES;
+        long resolved = 0;
+
+        try (DataInputStream in = ExternalSorter.openInput(layer);
+             DataOutputStream out = ExternalSorter.openOutput(output)) {
+            for (long i = 0; i < count; i++) {
+                long key = in.readLong();
+                byte side = PositionKeys.decode(key, cells);
+                int result = children == null ? solveFrontier(cells, side) : solveInterior(cells, side, children);
+
+                long entry = key << PositionDatabase.RESULT_BITS | result;
+                out.writeLong(entry);
+                if (result != PositionDatabase.UNKNOWN) {
+                    database.add(entry);
+                    resolved++;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * @brief Résout une position à partir des résultats de ses successeurs.
+     * @param cells Les cases de la position.
+     * @param side Le joueur qui doit jouer.
+     * @param children Les résultats de la couche suivante.
+     * @return Le résultat pour le joueur qui doit jouer.
+     */
+    private static int solveInterior(byte[] cells, byte side, MappedLongFile children) {
+        int terminal = terminalResult(cells, side);
+        if (terminal != PositionDatabase.UNKNOWN) {
+            return terminal;
+        }
+
+        byte opponent = PositionKeys.opponent(side);
+        boolean allKnown = true;
+        boolean canDraw = false;
+
+        for (int cell = 0; cell < PositionKeys.CELLS; cell++) {
+            if (cells[cell] != PositionKeys.EMPTY) {
+                continue;
+            }
+
+            cells[cell] = side;
+            long childKey = PositionKeys.canonicalKey(cells, opponent);
+            cells[cell] = PositionKeys.EMPTY;
+
+            long index = children.indexOf(childKey, PositionDatabase.RESULT_BITS);
+            int childResult = index < 0 ? PositionDatabase.UNKNOWN
+                    : (int) (children.get(index) & ((1 << PositionDatabase.RESULT_BITS) - 1));
+
+            if (childResult == PositionDatabase.LOSS) {
+                return PositionDatabase.WIN;
+            } else if (childResult == PositionDatabase.UNKNOWN) {
+                allKnown = false;
+            } else if (childResult == PositionDatabase.DRAW) {
+                canDraw = true;
+            }
+        }
+
+        if (!allKnown) {
+            return PositionDatabase.UNKNOWN;
+        }
+        return canDraw ? PositionDatabase.DRAW : PositionDatabase.LOSS;
+    }
+
+    /**
+     * @brief Résout une position de la dernière couche avec les seuls arguments tactiques exacts.
+     * @param cells Les cases de la position.
+     * @param side Le joueur qui doit jouer.
+     * @return Le résultat pour le joueur qui doit jouer, ou UNKNOWN.
+     */
+    private static int solveFrontier(byte[] cells, byte side) {
+        int terminal = terminalResult(cells, side);
+        if (terminal != PositionDatabase.UNKNOWN) {
+            return terminal;
+        }
+
+        byte opponent = PositionKeys.opponent(side);
+        int opponentWins = 0;
+        for (int cell = 0; cell < PositionKeys.CELLS; cell++) {
+            if (cells[cell] != PositionKeys.EMPTY) {
+                continue;
+            }
+            if (PositionKeys.isWinningMove(cells, cell, side)) {
+                return PositionDatabase.WIN;
+            }
+            if (PositionKeys.isWinningMove(cells, cell, opponent)) {
+                opponentWins++;
+            }
+        }
+
+        // Deux cases gagnantes pour l'adversaire : une seule peut être bloquée.
+        return opponentWins >= 2 ? PositionDatabase.LOSS : PositionDatabase.UNKNOWN;
+    }
+
+    /**
+     * @brief Calcule le résultat d'une position terminale.
+     * @param cells Les cases de la position.
+     * @param side Le joueur qui doit jouer.
+     * @return LOSS si l'adversaire a aligné 4 pions, DRAW si le plateau est plein, UNKNOWN sinon.
+     */
+    private static int terminalResult(byte[] cells, byte side) {
+        if (PositionKeys.hasWon(cells, PositionKeys.opponent(side))) {
+            return PositionDatabase.LOSS;
+        }
+        for (byte cell : cells) {
+            if (cell == PositionKeys.EMPTY) {
+                return PositionDatabase.UNKNOWN;
+            }
+        }
+        return PositionDatabase.DRAW;
+    }
+
+    /**
+     * @brief Vérifie si une position est terminale (victoire ou plateau plein).
+     * @param cells Les cases de la position.
+     * @return true si la partie est terminée.
+     */
+    private static boolean isTerminal(byte[] cells) {
+        if (PositionKeys.hasWon(cells, PositionKeys.X) || PositionKeys.hasWon(cells, PositionKeys.O)) {
+            return true;
+        }
+        for (byte cell : cells) {
+            if (cell == PositionKeys.EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @brief Point d'entrée du solveur.
+     * @param args nombreMaxDePions fichierDeSortie [tailleDesMorceaux] [répertoireTemporaire]
+     * @throws IOException En cas d'erreur d'entrée/sortie.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage : RetrogradeSolver <nombreMaxDePions> <fichier> [tailleDesMorceaux] [répertoireTemporaire]");
+            System.exit(1);
+        }
+
+        int maxPieces = Integer.parseInt(args[0]);
+        Path output = Paths.get(args[1]);
+        int chunkSize = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 24;
+        Path tempDir = args.length > 3 ? Paths.get(args[3]) : Paths.get(System.getProperty("java.io.tmpdir"));
+
+        long start = System.currentTimeMillis();
+        long count = new RetrogradeSolver(maxPieces, chunkSize, tempDir).solve(output);
+        System.out.println(count + " positions résolues en " + (System.currentTimeMillis() - start) + " ms");
+    }
+}